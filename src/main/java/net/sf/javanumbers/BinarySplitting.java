@@ -0,0 +1,156 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * Sums series of {@link SeriesTerms} exactly by binary splitting. The range of terms is halved recursively, and the two
+ * halves are combined as whole numbers P, Q, B and T, where P and Q are the products of p and q over the range, B is the
+ * product of b, and the sum over the range is T / (B * Q) times the product of p / q before it. Nothing is reduced until
+ * the very end, so the work is dominated by a logarithmic number of multiplications of ever larger, balanced operands,
+ * rather than by the quadratic cost of adding the terms one by one over a growing common denominator. Halves of more
+ * than {@link #PARALLEL_THRESHOLD} terms are worked on in parallel.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public abstract class BinarySplitting {
+  
+  /**
+   * Ranges of fewer than this many terms are combined one term after another.
+   */
+  private static final int LEAF_SIZE = 8;
+  
+  /**
+   * Ranges of at least this many terms have their halves worked on in parallel.
+   */
+  static final int PARALLEL_THRESHOLD = 256;
+  
+  /**
+   * Sums the first n terms on the common {@link ForkJoinPool}.
+   * @param terms {@link SeriesTerms} of the series
+   * @param n number of terms
+   * @throws IllegalArgumentException if n is negative.
+   * @return the exact, reduced sum
+   */
+  public static Rational sum(SeriesTerms terms, long n) throws IllegalArgumentException {
+    return BinarySplitting.sum(terms, n, ForkJoinPool.commonPool());
+  }
+  
+  /**
+   * Sums the first n terms.
+   * @param terms {@link SeriesTerms} of the series
+   * @param n number of terms
+   * @param pool {@link ForkJoinPool} to work on large ranges in parallel in
+   * @throws IllegalArgumentException if n is negative.
+   * @return the exact, reduced sum
+   */
+  public static Rational sum(SeriesTerms terms, long n, ForkJoinPool pool) throws IllegalArgumentException {
+    if (n < 0) {
+      throw new IllegalArgumentException("Number of terms may not be negative.");
+    }
+    
+    if (n == 0) {
+      return Rational.ZERO;
+    }
+    
+    final BigInteger[] split = BinarySplitting.split(terms, 0, n, pool);
+    
+    return Reducer.reduceWholeNumbers(split[3], split[2].multiply(split[1]));
+  }
+  
+  /**
+   * Combines the terms from up to, but not including, to.
+   * @return {P, Q, B, T} of the range
+   */
+  static BigInteger[] split(SeriesTerms terms, long from, long to, ForkJoinPool pool) {
+    final Split task = new Split(terms, from, to);
+    
+    return to - from >= PARALLEL_THRESHOLD ? pool.invoke(task) : task.compute();
+  }
+  
+  private static BigInteger[] leaves(SeriesTerms terms, long from, long to) {
+    BigInteger[] result = null;
+    
+    for (long k = from; k < to; k++) {
+      final BigInteger p = terms.p(k);
+      final BigInteger[] leaf = new BigInteger[] { p, terms.q(k), terms.b(k), terms.a(k).multiply(p) };
+      
+      result = result == null ? leaf : BinarySplitting.combine(result, leaf);
+    }
+    
+    return result;
+  }
+  
+  /**
+   * @return {P, Q, B, T} of two adjacent ranges
+   */
+  private static BigInteger[] combine(BigInteger[] left, BigInteger[] right) {
+    final BigInteger t = right[2].multiply(right[1]).multiply(left[3]).add(left[2].multiply(left[0]).multiply(right[3]));
+    
+    return new BigInteger[] { left[0].multiply(right[0]), left[1].multiply(right[1]), left[2].multiply(right[2]), t };
+  }
+  
+  private static final class Split extends RecursiveTask<BigInteger[]> {
+    
+    private static final long serialVersionUID = 4117357623839302813L;
+    
+    private final SeriesTerms terms;
+    private final long from;
+    private final long to;
+    
+    Split(SeriesTerms terms, long from, long to) {
+      this.terms = terms;
+      this.from = from;
+      this.to = to;
+    }
+    
+    @Override
+    protected BigInteger[] compute() {
+      if (to - from < LEAF_SIZE) {
+        return BinarySplitting.leaves(terms, from, to);
+      }
+      
+      final long middle = (from + to) >>> 1;
+      final Split left = new Split(terms, from, middle);
+      final Split right = new Split(terms, middle, to);
+      
+      if (to - from >= PARALLEL_THRESHOLD) {
+        right.fork();
+        
+        final BigInteger[] leftResult = left.compute();
+        
+        return BinarySplitting.combine(leftResult, right.join());
+      }
+      
+      return BinarySplitting.combine(left.compute(), right.compute());
+    }
+    
+  }
+  
+}
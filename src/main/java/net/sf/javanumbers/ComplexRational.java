@@ -0,0 +1,356 @@
+package net.sf.javanumbers;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * An immutable exact complex number whose real and imaginary parts are rational, held as (a + bi) / d with one shared
+ * positive denominator and no factor common to a, b and d. Sums, products and quotients therefore reduce once rather than
+ * once per part, and products take three whole number multiplications of the parts rather than four.
+ *
+ * a, b and d are held in <code>long</code> values while they fit, and every operation is carried out in
+ * <code>long</code> arithmetic first, moving to {@link BigInteger} values only if that overflows. A result that fits again
+ * comes back to <code>long</code> values.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public final class ComplexRational implements Serializable {
+  
+  public static final ComplexRational ZERO = new ComplexRational(0, 0, 1);
+  public static final ComplexRational ONE = new ComplexRational(1, 0, 1);
+  public static final ComplexRational I = new ComplexRational(0, 1, 1);
+  
+  private static final long serialVersionUID = -2748816523042970415L;
+  
+  private final long a;
+  private final long b;
+  private final long d;
+  
+  /*
+   * a, b and d once they no longer fit in long values, otherwise null.
+   */
+  private final BigInteger[] big;
+  
+  private ComplexRational(long a, long b, long d) {
+    this.a = a;
+    this.b = b;
+    this.d = d;
+    this.big = null;
+  }
+  
+  private ComplexRational(BigInteger a, BigInteger b, BigInteger d) {
+    this.a = 0;
+    this.b = 0;
+    this.d = 0;
+    this.big = new BigInteger[] { a, b, d };
+  }
+  
+  /**
+   * @param real real part
+   * @param imaginary imaginary part
+   * @return real + imaginary i
+   */
+  public static ComplexRational valueOf(long real, long imaginary) {
+    return new ComplexRational(real, imaginary, 1);
+  }
+  
+  /**
+   * @param real {@link Rational} real part
+   * @param imaginary {@link Rational} imaginary part
+   * @return real + imaginary i
+   */
+  public static ComplexRational valueOf(Rational real, Rational imaginary) {
+    final BigInteger[] re = real.integerParts();
+    final BigInteger[] im = imaginary.integerParts();
+    
+    return ComplexRational.of(re[0].multiply(im[1]), im[0].multiply(re[1]), re[1].multiply(im[1]));
+  }
+  
+  /**
+   * @param real {@link Rational} value
+   * @return real + 0i
+   */
+  public static ComplexRational valueOf(Rational real) {
+    final BigInteger[] re = real.integerParts();
+    
+    return ComplexRational.of(re[0], BigInteger.ZERO, re[1]);
+  }
+  
+  /**
+   * @return the real part.
+   */
+  public Rational real() {
+    return big == null ? new Rational(a, d) : new Rational(big[0], big[2]);
+  }
+  
+  /**
+   * @return the imaginary part.
+   */
+  public Rational imaginary() {
+    return big == null ? new Rational(b, d) : new Rational(big[1], big[2]);
+  }
+  
+  /**
+   * @return whether the imaginary part is zero.
+   */
+  public boolean isReal() {
+    return big == null ? b == 0 : big[1].signum() == 0;
+  }
+  
+  public ComplexRational add(ComplexRational z) {
+    if (big == null && z.big == null) {
+      try {
+        if (d == z.d) {
+          return ComplexRational.of(Math.addExact(a, z.a), Math.addExact(b, z.b), d);
+        }
+        
+        return ComplexRational.of(Math.addExact(Math.multiplyExact(a, z.d), Math.multiplyExact(z.a, d)),
+          Math.addExact(Math.multiplyExact(b, z.d), Math.multiplyExact(z.b, d)), Math.multiplyExact(d, z.d));
+      }
+      catch (ArithmeticException e) {
+        // Overflow; fall through to BigInteger arithmetic.
+      }
+    }
+    
+    final BigInteger[] left = parts();
+    final BigInteger[] right = z.parts();
+    
+    if (left[2].equals(right[2])) {
+      return ComplexRational.of(left[0].add(right[0]), left[1].add(right[1]), left[2]);
+    }
+    
+    return ComplexRational.of(left[0].multiply(right[2]).add(right[0].multiply(left[2])),
+      left[1].multiply(right[2]).add(right[1].multiply(left[2])), left[2].multiply(right[2]));
+  }
+  
+  public ComplexRational subtract(ComplexRational z) {
+    return add(z.negate());
+  }
+  
+  /**
+   * Multiplies with three multiplications of the parts: for (a + bi)(c + ei), with k1 = c(a + b), k2 = a(e - c) and
+   * k3 = b(c + e), the real part is k1 - k3 and the imaginary part k1 + k2.
+   * @param z {@link ComplexRational} value
+   * @return this * z
+   */
+  public ComplexRational multiply(ComplexRational z) {
+    if (big == null && z.big == null) {
+      try {
+        final long k1 = Math.multiplyExact(z.a, Math.addExact(a, b));
+        final long k2 = Math.multiplyExact(a, Math.subtractExact(z.b, z.a));
+        final long k3 = Math.multiplyExact(b, Math.addExact(z.a, z.b));
+        
+        return ComplexRational.of(Math.subtractExact(k1, k3), Math.addExact(k1, k2), Math.multiplyExact(d, z.d));
+      }
+      catch (ArithmeticException e) {
+        // Overflow; fall through to BigInteger arithmetic.
+      }
+    }
+    
+    final BigInteger[] left = parts();
+    final BigInteger[] right = z.parts();
+    final BigInteger[] product = ComplexRational.product(left[0], left[1], right[0], right[1]);
+    
+    return ComplexRational.of(product[0], product[1], left[2].multiply(right[2]));
+  }
+  
+  /**
+   * Divides by multiplying by the conjugate of z: (a + bi) / d divided by (c + ei) / f is (a + bi)(c - ei) f over
+   * d (c<sup>2</sup> + e<sup>2</sup>).
+   * @param z {@link ComplexRational} divisor
+   * @throws ArithmeticException if z is zero.
+   * @return this / z
+   */
+  public ComplexRational divide(ComplexRational z) throws ArithmeticException {
+    if (z.isZero()) {
+      throw new ArithmeticException("Division by zero.");
+    }
+    
+    if (big == null && z.big == null) {
+      try {
+        final long k1 = Math.multiplyExact(z.a, Math.addExact(a, b));
+        final long k2 = Math.multiplyExact(a, Math.subtractExact(Math.negateExact(z.b), z.a));
+        final long k3 = Math.multiplyExact(b, Math.subtractExact(z.a, z.b));
+        final long norm = Math.addExact(Math.multiplyExact(z.a, z.a), Math.multiplyExact(z.b, z.b));
+        
+        return ComplexRational.of(Math.multiplyExact(Math.subtractExact(k1, k3), z.d), Math.multiplyExact(Math.addExact(k1, k2), z.d),
+          Math.multiplyExact(d, norm));
+      }
+      catch (ArithmeticException e) {
+        // Overflow; fall through to BigInteger arithmetic.
+      }
+    }
+    
+    final BigInteger[] left = parts();
+    final BigInteger[] right = z.parts();
+    final BigInteger[] product = ComplexRational.product(left[0], left[1], right[0], right[1].negate());
+    final BigInteger norm = right[0].multiply(right[0]).add(right[1].multiply(right[1]));
+    
+    return ComplexRational.of(product[0].multiply(right[2]), product[1].multiply(right[2]), left[2].multiply(norm));
+  }
+  
+  public ComplexRational conjugate() {
+    if (big == null && b != Long.MIN_VALUE) {
+      return new ComplexRational(a, -b, d);
+    }
+    
+    final BigInteger[] parts = parts();
+    
+    return ComplexRational.of(parts[0], parts[1].negate(), parts[2]);
+  }
+  
+  public ComplexRational negate() {
+    if (big == null && a != Long.MIN_VALUE && b != Long.MIN_VALUE) {
+      return new ComplexRational(-a, -b, d);
+    }
+    
+    final BigInteger[] parts = parts();
+    
+    return ComplexRational.of(parts[0].negate(), parts[1].negate(), parts[2]);
+  }
+  
+  /**
+   * @return the squared absolute value, real<sup>2</sup> + imaginary<sup>2</sup>, which is always rational.
+   */
+  public Rational norm() {
+    if (big == null) {
+      try {
+        return new Rational(Math.addExact(Math.multiplyExact(a, a), Math.multiplyExact(b, b)), Math.multiplyExact(d, d));
+      }
+      catch (ArithmeticException e) {
+        // Overflow; fall through to BigInteger arithmetic.
+      }
+    }
+    
+    final BigInteger[] parts = parts();
+    
+    return new Rational(parts[0].multiply(parts[0]).add(parts[1].multiply(parts[1])), parts[2].multiply(parts[2]));
+  }
+  
+  /**
+   * Equal values have the same reduced form, so they are compared part for part.
+   */
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof ComplexRational)) {
+      return false;
+    }
+    
+    final ComplexRational that = (ComplexRational) other;
+    
+    if (big == null && that.big == null) {
+      return a == that.a && b == that.b && d == that.d;
+    }
+    
+    return big != null && that.big != null && Arrays.equals(big, that.big);
+  }
+  
+  @Override
+  public int hashCode() {
+    if (big == null) {
+      return 37 * (37 * (53 + Long.hashCode(a)) + Long.hashCode(b)) + Long.hashCode(d);
+    }
+    
+    return 37 * (37 * (53 + big[0].hashCode()) + big[1].hashCode()) + big[2].hashCode();
+  }
+  
+  /**
+   * @return the form (a + bi)/d, with the denominator left out when it is one.
+   */
+  @Override
+  public String toString() {
+    final BigInteger[] parts = parts();
+    final StringBuilder sb = new StringBuilder();
+    
+    sb.append('(').append(parts[0]).append(parts[1].signum() < 0 ? " - " : " + ").append(parts[1].abs()).append("i)");
+    
+    if (!parts[2].equals(BigInteger.ONE)) {
+      sb.append('/').append(parts[2]);
+    }
+    
+    return sb.toString();
+  }
+  
+  private boolean isZero() {
+    return big == null ? a == 0 && b == 0 : big[0].signum() == 0 && big[1].signum() == 0;
+  }
+  
+  /**
+   * @return a, b and d
+   */
+  private BigInteger[] parts() {
+    return big != null ? big : new BigInteger[] { BigInteger.valueOf(a), BigInteger.valueOf(b), BigInteger.valueOf(d) };
+  }
+  
+  /**
+   * @return the real and imaginary parts of (a + bi)(c + ei) from three multiplications
+   */
+  private static BigInteger[] product(BigInteger a, BigInteger b, BigInteger c, BigInteger e) {
+    final BigInteger k1 = c.multiply(a.add(b));
+    final BigInteger k2 = a.multiply(e.subtract(c));
+    final BigInteger k3 = b.multiply(c.add(e));
+    
+    return new BigInteger[] { k1.subtract(k3), k1.add(k2) };
+  }
+  
+  /**
+   * @return (a + bi) / d for non-zero d, reduced
+   */
+  private static ComplexRational of(long a, long b, long d) {
+    if (a == Long.MIN_VALUE || b == Long.MIN_VALUE || d == Long.MIN_VALUE) {
+      return ComplexRational.of(BigInteger.valueOf(a), BigInteger.valueOf(b), BigInteger.valueOf(d));
+    }
+    
+    final long gcf = Factors.gcd(Factors.gcd(a, b), d) * Long.signum(d);
+    
+    return new ComplexRational(a / gcf, b / gcf, d / gcf);
+  }
+  
+  /**
+   * @return (a + bi) / d for non-zero d, reduced, in long values if they fit
+   */
+  private static ComplexRational of(BigInteger a, BigInteger b, BigInteger d) {
+    BigInteger gcf = Factors.greatestCommonFactor(Factors.greatestCommonFactor(a, b), d);
+    
+    if (d.signum() < 0) {
+      gcf = gcf.negate();
+    }
+    
+    final BigInteger reducedA = a.divide(gcf);
+    final BigInteger reducedB = b.divide(gcf);
+    final BigInteger reducedD = d.divide(gcf);
+    
+    if (reducedA.bitLength() < Long.SIZE && reducedB.bitLength() < Long.SIZE && reducedD.bitLength() < Long.SIZE) {
+      return new ComplexRational(reducedA.longValue(), reducedB.longValue(), reducedD.longValue());
+    }
+    
+    return new ComplexRational(reducedA, reducedB, reducedD);
+  }
+  
+}
@@ -0,0 +1,271 @@
+package net.sf.javanumbers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * Lazily streams the decimal expansion of a {@link Rational} one fractional digit at a time by long division, without
+ * choosing a scale up front. The repeating block, or repetend, is detected as the digits are produced: its start is known
+ * from the factors of 2 and 5 in the reduced denominator, and its end is found when the remainder at that start recurs.
+ * For example 1/7 expands to 0.(142857) and 1/6 expands to 0.1(6).
+ *
+ * Denominators that fit comfortably in a <code>long</code> are divided with primitive arithmetic; larger ones fall back to
+ * {@link BigInteger}.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public final class DecimalDigits implements Iterator<Integer> {
+
+  private static final BigInteger FIVE = BigInteger.valueOf(5);
+  private static final long LONG_DENOMINATOR_LIMIT = Long.MAX_VALUE / 10;
+
+  private final boolean negative;
+  private final BigInteger integerPart;
+  private final int repetendStart;
+  private final boolean terminating;
+
+  private final long longDenominator;
+  private long longRemainder;
+  private long longRepetendRemainder;
+
+  private final BigInteger bigDenominator;
+  private BigInteger bigRemainder;
+  private BigInteger bigRepetendRemainder;
+
+  private int position;
+  private int repetendLength;
+
+  DecimalDigits(Rational r) {
+    final Rational reduced = r.reduce();
+    BigInteger n = reduced.getNumerator().toBigIntegerExact();
+    BigInteger d = reduced.getDenominator().toBigIntegerExact();
+
+    if (d.signum() < 0) {
+      n = n.negate();
+      d = d.negate();
+    }
+
+    final BigInteger[] qr = n.abs().divideAndRemainder(d);
+
+    // For reduced n/d the digits before the repetend number the larger of the powers of 2 and 5 dividing d, and the
+    // expansion terminates when nothing else divides d.
+    final int twos = d.getLowestSetBit();
+    int fives = 0;
+    BigInteger rest = d.shiftRight(twos);
+    BigInteger[] restQr = rest.divideAndRemainder(FIVE);
+
+    while (restQr[1].signum() == 0) {
+      fives++;
+      rest = restQr[0];
+      restQr = rest.divideAndRemainder(FIVE);
+    }
+
+    negative = n.signum() < 0;
+    integerPart = qr[0];
+    repetendStart = Math.max(twos, fives);
+    terminating = rest.equals(BigInteger.ONE);
+    repetendLength = terminating ? 0 : -1;
+    position = 0;
+
+    if (d.compareTo(BigInteger.valueOf(LONG_DENOMINATOR_LIMIT)) < 0) {
+      longDenominator = d.longValue();
+      longRemainder = qr[1].longValue();
+      bigDenominator = null;
+      bigRemainder = null;
+    }
+    else {
+      longDenominator = 0;
+      bigDenominator = d;
+      bigRemainder = qr[1];
+    }
+
+    markRepetendStart();
+  }
+
+  /**
+   * @return whether the value being expanded is less than zero.
+   */
+  public boolean isNegative() {
+    return negative;
+  }
+
+  /**
+   * @return the absolute value of the whole number part of the value being expanded, the digits before the decimal point.
+   */
+  public BigInteger integerPart() {
+    return integerPart;
+  }
+
+  /**
+   * @return whether the expansion has a finite number of fractional digits.
+   */
+  public boolean isTerminating() {
+    return terminating;
+  }
+
+  /**
+   * @return the zero-based position of the first digit of the repetend, or for a terminating expansion the number of
+   * fractional digits.
+   */
+  public int repetendStart() {
+    return repetendStart;
+  }
+
+  /**
+   * @return the number of digits in the repetend, zero for a terminating expansion, or -1 if the digits streamed so far
+   * have not yet completed the first repetition.
+   */
+  public int repetendLength() {
+    return repetendLength;
+  }
+
+  /**
+   * @return the zero-based position of the next fractional digit.
+   */
+  public int position() {
+    return position;
+  }
+
+  /**
+   * A repeating expansion never runs out of digits; a terminating one ends after its last non-zero digit.
+   */
+  @Override
+  public boolean hasNext() {
+    return !terminating || position < repetendStart;
+  }
+
+  @Override
+  public Integer next() {
+    return Integer.valueOf(nextDigit());
+  }
+
+  /**
+   * Produces the next fractional digit without boxing it.
+   * @return the next digit, 0 through 9.
+   * @throws NoSuchElementException when a terminating expansion has no more digits.
+   */
+  public int nextDigit() throws NoSuchElementException {
+    if (!hasNext()) {
+      throw new NoSuchElementException("The decimal expansion terminates after " + repetendStart + " digits.");
+    }
+
+    final int digit;
+    final boolean repeated;
+
+    if (bigDenominator == null) {
+      final long shifted = longRemainder * 10;
+
+      digit = (int) (shifted / longDenominator);
+      longRemainder = shifted % longDenominator;
+      repeated = longRemainder == longRepetendRemainder;
+    }
+    else {
+      final BigInteger[] qr = bigRemainder.multiply(BigInteger.TEN).divideAndRemainder(bigDenominator);
+
+      digit = qr[0].intValue();
+      bigRemainder = qr[1];
+      repeated = bigRemainder.equals(bigRepetendRemainder);
+    }
+
+    position++;
+
+    if (repetendLength < 0 && position > repetendStart && repeated) {
+      repetendLength = position - repetendStart;
+    }
+
+    markRepetendStart();
+
+    return digit;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException("Decimal digits cannot be removed.");
+  }
+
+  /**
+   * Writes the remaining expansion in decimal notation, enclosing the repetend in parentheses, for example
+   * <code>-0.1(6)</code>. If the expansion does not complete within the given number of fractional digits it is cut off
+   * with <code>...</code>, leaving the parenthesis of an unfinished repetend open, for example <code>0.(01030...</code>.
+   * Only digits not yet consumed from this iterator are written, so this should normally be called on a fresh instance.
+   * @param out {@link Appendable} to write to
+   * @param maxFractionDigits the largest number of fractional digits to write
+   * @return out
+   * @throws IOException if out does
+   */
+  public <A extends Appendable> A appendTo(A out, int maxFractionDigits) throws IOException {
+    if (negative && (integerPart.signum() != 0 || hasNext())) {
+      out.append('-');
+    }
+
+    out.append(integerPart.toString());
+
+    if (!hasNext()) {
+      return out;
+    }
+
+    out.append('.');
+
+    for (int written = 0; written < maxFractionDigits && hasNext(); written++) {
+      if (!terminating && position == repetendStart) {
+        out.append('(');
+      }
+
+      out.append((char) ('0' + nextDigit()));
+
+      if (repetendLength > 0 && position == repetendStart + repetendLength) {
+        out.append(')');
+
+        return out;
+      }
+    }
+
+    if (hasNext()) {
+      out.append("...");
+    }
+
+    return out;
+  }
+
+  /**
+   * Remembers the remainder at the start of the repetend so its recurrence can be detected.
+   */
+  private void markRepetendStart() {
+    if (!terminating && position == repetendStart) {
+      if (bigDenominator == null) {
+        longRepetendRemainder = longRemainder;
+      }
+      else {
+        bigRepetendRemainder = bigRemainder;
+      }
+    }
+  }
+
+}
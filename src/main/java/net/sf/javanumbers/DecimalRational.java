@@ -0,0 +1,534 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * An immutable exact decimal value, held as a <code>long</code> unscaled value and a scale of at most 18 decimal places,
+ * so that money and quantities add, subtract, multiply and round in primitive arithmetic rather than through the
+ * {@link BigDecimal} numerator and denominator of a {@link Rational}.
+ *
+ * A result that would overflow a <code>long</code>, need more than 18 decimal places, or whose denominator in lowest terms
+ * is not a product of powers of 2 and 5, such as one third, is promoted to a fraction of {@link BigInteger} values, and all
+ * further arithmetic on it is exact fraction arithmetic. A promoted result that turns out to be a small enough decimal
+ * again comes back to the <code>long</code> form. Values are equal when they are numerically equal, so 1.5 equals 1.50.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public final class DecimalRational extends Number implements Comparable<DecimalRational> {
+  
+  public static final DecimalRational ZERO = new DecimalRational(0, 0);
+  public static final DecimalRational ONE = new DecimalRational(1, 0);
+  
+  /**
+   * The most decimal places of a value in <code>long</code> form.
+   */
+  public static final int MAX_SCALE = 18;
+  
+  private static final long serialVersionUID = 4127853964031628806L;
+  
+  private static final BigInteger FIVE = BigInteger.valueOf(5);
+  private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+  private static final double[] DOUBLE_POWERS_OF_TEN = new double[MAX_SCALE + 1];
+  
+  static {
+    POWERS_OF_TEN[0] = 1;
+    DOUBLE_POWERS_OF_TEN[0] = 1;
+    
+    for (int i = 1; i <= MAX_SCALE; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+      DOUBLE_POWERS_OF_TEN[i] = POWERS_OF_TEN[i];
+    }
+  }
+  
+  private final long unscaled;
+  private final int scale;
+  
+  /*
+   * The numerator and positive denominator in lowest terms of a promoted value, otherwise null.
+   */
+  private final BigInteger[] fraction;
+  
+  private DecimalRational(long unscaled, int scale) {
+    this.unscaled = unscaled;
+    this.scale = scale;
+    this.fraction = null;
+  }
+  
+  private DecimalRational(BigInteger n, BigInteger d) {
+    this.unscaled = 0;
+    this.scale = 0;
+    this.fraction = new BigInteger[] { n, d };
+  }
+  
+  /**
+   * @param unscaled unscaled value
+   * @param scale number of decimal places, from 0 to {@link #MAX_SCALE}
+   * @throws IllegalArgumentException if scale is out of range.
+   * @return unscaled / 10<sup>scale</sup>
+   */
+  public static DecimalRational valueOf(long unscaled, int scale) throws IllegalArgumentException {
+    if (scale < 0 || scale > MAX_SCALE) {
+      throw new IllegalArgumentException("Scale must be from 0 to " + MAX_SCALE + ".");
+    }
+    
+    return new DecimalRational(unscaled, scale);
+  }
+  
+  /**
+   * @param value <code>long</code> value
+   * @return value as a {@link DecimalRational}
+   */
+  public static DecimalRational valueOf(long value) {
+    return new DecimalRational(value, 0);
+  }
+  
+  /**
+   * @param value {@link BigDecimal} value
+   * @return value as a {@link DecimalRational}, keeping its scale if it fits
+   */
+  public static DecimalRational valueOf(BigDecimal value) {
+    if (value.scale() >= 0 && value.scale() <= MAX_SCALE && value.unscaledValue().bitLength() < Long.SIZE) {
+      return new DecimalRational(value.unscaledValue().longValue(), value.scale());
+    }
+    
+    return value.scale() < 0
+      ? DecimalRational.of(value.toBigIntegerExact(), BigInteger.ONE)
+      : DecimalRational.of(value.unscaledValue(), BigInteger.TEN.pow(value.scale()));
+  }
+  
+  /**
+   * @param value {@link Rational} value
+   * @return value as a {@link DecimalRational}, promoted if its denominator is not a power of ten
+   */
+  public static DecimalRational valueOf(Rational value) {
+    final BigInteger[] parts = value.integerParts();
+    
+    return DecimalRational.of(parts[0], parts[1]);
+  }
+  
+  /**
+   * Parses a decimal such as <code>-12.50</code>, or a fraction such as <code>1/3</code>.
+   * @param s {@link String} value
+   * @return {@link DecimalRational} value
+   */
+  public static DecimalRational valueOf(String s) {
+    if (s == null) {
+      throw new NullPointerException("Value may not be null.");
+    }
+    
+    return s.indexOf('/') < 0 ? DecimalRational.valueOf(new BigDecimal(s)) : DecimalRational.valueOf(Rational.valueOf(s));
+  }
+  
+  /**
+   * @return whether this value is held as a <code>long</code> unscaled value and a scale, rather than promoted.
+   */
+  public boolean isDecimal() {
+    return fraction == null;
+  }
+  
+  /**
+   * @throws IllegalStateException if this value is promoted.
+   * @return the unscaled value
+   */
+  public long unscaledValue() throws IllegalStateException {
+    assertDecimal();
+    
+    return unscaled;
+  }
+  
+  /**
+   * @throws IllegalStateException if this value is promoted.
+   * @return the number of decimal places
+   */
+  public int scale() throws IllegalStateException {
+    assertDecimal();
+    
+    return scale;
+  }
+  
+  public DecimalRational add(DecimalRational r) {
+    if (fraction == null && r.fraction == null) {
+      try {
+        if (scale == r.scale) {
+          return new DecimalRational(Math.addExact(unscaled, r.unscaled), scale);
+        }
+        
+        return scale < r.scale
+          ? new DecimalRational(Math.addExact(DecimalRational.rescale(unscaled, r.scale - scale), r.unscaled), r.scale)
+          : new DecimalRational(Math.addExact(unscaled, DecimalRational.rescale(r.unscaled, scale - r.scale)), scale);
+      }
+      catch (ArithmeticException e) {
+        // Overflow; fall through to the exact fraction.
+      }
+    }
+    
+    final BigInteger[] left = parts();
+    final BigInteger[] right = r.parts();
+    
+    return DecimalRational.of(left[0].multiply(right[1]).add(right[0].multiply(left[1])), left[1].multiply(right[1]));
+  }
+  
+  public DecimalRational subtract(DecimalRational r) {
+    return add(r.negate());
+  }
+  
+  public DecimalRational multiply(DecimalRational r) {
+    if (fraction == null && r.fraction == null) {
+      try {
+        long product = Math.multiplyExact(unscaled, r.unscaled);
+        int productScale = scale + r.scale;
+        
+        while (productScale > MAX_SCALE && product % 10 == 0) {
+          product /= 10;
+          productScale--;
+        }
+        
+        if (productScale <= MAX_SCALE) {
+          return new DecimalRational(product, productScale);
+        }
+      }
+      catch (ArithmeticException e) {
+        // Overflow; fall through to the exact fraction.
+      }
+    }
+    
+    final BigInteger[] left = parts();
+    final BigInteger[] right = r.parts();
+    
+    return DecimalRational.of(left[0].multiply(right[0]), left[1].multiply(right[1]));
+  }
+  
+  /**
+   * Divides exactly, promoting the quotient if it is not a decimal.
+   * @param r {@link DecimalRational} divisor
+   * @throws ArithmeticException if r is zero.
+   * @return this / r
+   */
+  public DecimalRational divide(DecimalRational r) throws ArithmeticException {
+    final BigInteger[] left = parts();
+    final BigInteger[] right = r.parts();
+    
+    if (right[0].signum() == 0) {
+      throw new ArithmeticException("Division by zero.");
+    }
+    
+    final BigInteger n = left[0].multiply(right[1]);
+    final BigInteger d = left[1].multiply(right[0]);
+    
+    return d.signum() < 0 ? DecimalRational.of(n.negate(), d.negate()) : DecimalRational.of(n, d);
+  }
+  
+  /**
+   * Divides and rounds the quotient to a number of decimal places, in <code>long</code> arithmetic when it fits.
+   * @param r {@link DecimalRational} divisor
+   * @param scale number of decimal places of the quotient, from 0 to {@link #MAX_SCALE}
+   * @param mode {@link RoundingMode} to apply
+   * @throws ArithmeticException if r is zero, or if mode is {@link RoundingMode#UNNECESSARY} and rounding is necessary.
+   * @throws IllegalArgumentException if scale is out of range.
+   * @return this / r rounded to scale decimal places
+   */
+  public DecimalRational divide(DecimalRational r, int scale, RoundingMode mode) throws ArithmeticException, IllegalArgumentException {
+    if (scale < 0 || scale > MAX_SCALE) {
+      throw new IllegalArgumentException("Scale must be from 0 to " + MAX_SCALE + ".");
+    }
+    
+    if (r.signum() == 0) {
+      throw new ArithmeticException("Division by zero.");
+    }
+    
+    if (fraction == null && r.fraction == null) {
+      final long[] operands = DecimalRational.quotientOperands(unscaled, this.scale, r.unscaled, r.scale + scale);
+      
+      if (operands != null) {
+        return new DecimalRational(DecimalRational.roundedQuotient(operands[0], operands[1], mode), scale);
+      }
+    }
+    
+    final BigInteger[] left = parts();
+    final BigInteger[] right = r.parts();
+    final BigInteger n = left[0].multiply(right[1]).multiply(BigInteger.TEN.pow(scale));
+    final BigInteger d = left[1].multiply(right[0]);
+    
+    return DecimalRational.rounded(d.signum() < 0 ? n.negate() : n, d.abs(), scale, mode);
+  }
+  
+  /**
+   * @param scale number of decimal places, from 0 to {@link #MAX_SCALE}
+   * @param mode {@link RoundingMode} to apply
+   * @throws ArithmeticException if mode is {@link RoundingMode#UNNECESSARY} and rounding is necessary.
+   * @throws IllegalArgumentException if scale is out of range.
+   * @return this value rounded to scale decimal places
+   */
+  public DecimalRational setScale(int scale, RoundingMode mode) throws ArithmeticException, IllegalArgumentException {
+    return divide(ONE, scale, mode);
+  }
+  
+  public DecimalRational negate() {
+    if (fraction == null && unscaled != Long.MIN_VALUE) {
+      return new DecimalRational(-unscaled, scale);
+    }
+    
+    final BigInteger[] parts = parts();
+    
+    return DecimalRational.of(parts[0].negate(), parts[1]);
+  }
+  
+  public DecimalRational abs() {
+    return signum() < 0 ? negate() : this;
+  }
+  
+  public int signum() {
+    return fraction == null ? Long.signum(unscaled) : fraction[0].signum();
+  }
+  
+  /**
+   * @return this value as a {@link Rational}, losslessly.
+   */
+  public Rational rationalValue() {
+    final BigInteger[] parts = parts();
+    
+    return new Rational(parts[0], parts[1]);
+  }
+  
+  /**
+   * @throws ArithmeticException if this value is promoted and has no terminating decimal expansion.
+   * @return this value as a {@link BigDecimal}, losslessly.
+   */
+  public BigDecimal bigDecimalValue() throws ArithmeticException {
+    if (fraction == null) {
+      return BigDecimal.valueOf(unscaled, scale);
+    }
+    
+    return new BigDecimal(fraction[0]).divide(new BigDecimal(fraction[1]));
+  }
+  
+  @Override
+  public double doubleValue() {
+    if (fraction == null) {
+      // Both are exact doubles, so their quotient is correctly rounded.
+      if (Math.abs(unscaled) < (1L << 53)) {
+        return unscaled / DOUBLE_POWERS_OF_TEN[scale];
+      }
+      
+      return BigDecimal.valueOf(unscaled, scale).doubleValue();
+    }
+    
+    return rationalValue().doubleValue();
+  }
+  
+  @Override
+  public float floatValue() {
+    return (float) doubleValue();
+  }
+  
+  @Override
+  public long longValue() {
+    return fraction == null ? unscaled / POWERS_OF_TEN[scale] : fraction[0].divide(fraction[1]).longValue();
+  }
+  
+  @Override
+  public int intValue() {
+    return (int) longValue();
+  }
+  
+  @Override
+  public int compareTo(DecimalRational r) {
+    if (fraction == null && r.fraction == null) {
+      if (scale == r.scale) {
+        return Long.compare(unscaled, r.unscaled);
+      }
+      
+      try {
+        return scale < r.scale
+          ? Long.compare(DecimalRational.rescale(unscaled, r.scale - scale), r.unscaled)
+          : Long.compare(unscaled, DecimalRational.rescale(r.unscaled, scale - r.scale));
+      }
+      catch (ArithmeticException e) {
+        // Overflow; fall through to BigInteger arithmetic.
+      }
+    }
+    
+    final BigInteger[] left = parts();
+    final BigInteger[] right = r.parts();
+    
+    return left[0].multiply(right[1]).compareTo(right[0].multiply(left[1]));
+  }
+  
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof DecimalRational && compareTo((DecimalRational) other) == 0;
+  }
+  
+  @Override
+  public int hashCode() {
+    if (fraction != null) {
+      return 37 * fraction[0].hashCode() + fraction[1].hashCode();
+    }
+    
+    long u = unscaled;
+    int s = scale;
+    
+    while (s > 0 && u % 10 == 0) {
+      u /= 10;
+      s--;
+    }
+    
+    return 37 * Long.hashCode(u) + s;
+  }
+  
+  /**
+   * @return the plain decimal form, such as <code>-12.50</code>, or n/d if this value is promoted.
+   */
+  @Override
+  public String toString() {
+    if (fraction == null) {
+      return BigDecimal.valueOf(unscaled, scale).toPlainString();
+    }
+    
+    return fraction[0] + "/" + fraction[1];
+  }
+  
+  /**
+   * @return the numerator and positive denominator of this value
+   */
+  private BigInteger[] parts() {
+    return fraction != null ? fraction : new BigInteger[] { BigInteger.valueOf(unscaled), BigInteger.valueOf(POWERS_OF_TEN[scale]) };
+  }
+  
+  private void assertDecimal() throws IllegalStateException {
+    if (fraction != null) {
+      throw new IllegalStateException("Value is not a decimal: " + this + ".");
+    }
+  }
+  
+  /**
+   * @return n / d for positive d, as a decimal of the fewest places if there is one that fits, otherwise promoted
+   */
+  private static DecimalRational of(BigInteger n, BigInteger d) {
+    final BigInteger gcf = Factors.greatestCommonFactor(n, d);
+    final BigInteger lowestN = n.divide(gcf);
+    final BigInteger lowestD = d.divide(gcf);
+    
+    // The fewest decimal places of n / d is the larger of the powers of 2 and 5 in the reduced denominator, if no other
+    // prime divides it.
+    final int twos = lowestD.getLowestSetBit();
+    BigInteger rest = lowestD.shiftRight(twos);
+    int fives = 0;
+    
+    while (fives <= MAX_SCALE) {
+      final BigInteger[] qr = rest.divideAndRemainder(FIVE);
+      
+      if (qr[1].signum() != 0) {
+        break;
+      }
+      
+      rest = qr[0];
+      fives++;
+    }
+    
+    final int places = Math.max(twos, fives);
+    
+    if (rest.equals(BigInteger.ONE) && places <= MAX_SCALE) {
+      final BigInteger u = lowestN.multiply(BigInteger.valueOf(POWERS_OF_TEN[places]).divide(lowestD));
+      
+      if (u.bitLength() < Long.SIZE) {
+        return new DecimalRational(u.longValue(), places);
+      }
+    }
+    
+    return new DecimalRational(lowestN, lowestD);
+  }
+  
+  /**
+   * @return n / d for positive d rounded to an integer, taken as the unscaled value of the given scale
+   */
+  private static DecimalRational rounded(BigInteger n, BigInteger d, int scale, RoundingMode mode) {
+    final BigInteger[] qr = n.divideAndRemainder(d);
+    BigInteger q = qr[0];
+    
+    if (qr[1].signum() != 0) {
+      final BigInteger r = qr[1].abs();
+      final int increment = Rational.roundingIncrement(mode, n.signum(), r.compareTo(d.subtract(r)), q.testBit(0));
+      
+      q = q.add(BigInteger.valueOf(increment));
+    }
+    
+    if (q.bitLength() < Long.SIZE) {
+      return new DecimalRational(q.longValue(), scale);
+    }
+    
+    return DecimalRational.of(q, BigInteger.TEN.pow(scale));
+  }
+  
+  /**
+   * @return the <code>long</code> numerator and denominator of (u / 10^s) / (v / 10^t), or <code>null</code> if either
+   * overflows or their quotient may
+   */
+  private static long[] quotientOperands(long u, int s, long v, int t) {
+    try {
+      final long n = t >= s ? DecimalRational.rescale(u, t - s) : u;
+      final long d = t >= s ? v : DecimalRational.rescale(v, s - t);
+      
+      return n == Long.MIN_VALUE && d == -1 ? null : new long[] { n, d };
+    }
+    catch (ArithmeticException e) {
+      return null;
+    }
+  }
+  
+  /**
+   * @return n / d rounded to a <code>long</code>
+   */
+  private static long roundedQuotient(long n, long d, RoundingMode mode) {
+    final long q = n / d;
+    final long r = Math.abs(n % d);
+    
+    if (r == 0) {
+      return q;
+    }
+    
+    final long rest = Math.abs(d) - r;
+    final int halfComparison = r < rest ? -1 : (r == rest ? 0 : 1);
+    
+    return q + Rational.roundingIncrement(mode, (n < 0) == (d < 0) ? 1 : -1, halfComparison, (q & 1) != 0);
+  }
+  
+  /**
+   * @throws ArithmeticException if the result overflows.
+   * @return value * 10^places
+   */
+  private static long rescale(long value, int places) throws ArithmeticException {
+    if (places > MAX_SCALE) {
+      throw new ArithmeticException("long overflow");
+    }
+    
+    return Math.multiplyExact(value, POWERS_OF_TEN[places]);
+  }
+  
+}
@@ -10,11 +10,12 @@ import java.lang.annotation.Target;
  * from the whole point of this library which is to maintain value consistency of rational numbers.
  * For example 1/3 is the infinitely repeating number 0.33333... Methods marked with this might 
  * truncate inifinitely repeating values, resulting in a number that is not reusable as a {@link Rational}.
+ * It is retained at runtime, so tooling can list the lossy methods by reflection.
  * 
  * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
  *
  */
-@Retention(RetentionPolicy.SOURCE)
+@Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface Destructive {
   
@@ -0,0 +1,223 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * The prime factorization of a positive whole number, held compactly as parallel arrays of distinct primes in ascending
+ * order and their exponents. Factorizations of recurring values are cached, and once known they make least common
+ * multiples, greatest common factors and the test for a terminating decimal expansion a matter of comparing exponents.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public final class Factorization {
+
+  private static final BigInteger TWO = BigInteger.valueOf(2);
+  private static final BigInteger FIVE = BigInteger.valueOf(5);
+
+  private final BigInteger[] primes;
+  private final int[] exponents;
+
+  Factorization(TreeMap<BigInteger, Integer> factors) {
+    this.primes = new BigInteger[factors.size()];
+    this.exponents = new int[factors.size()];
+
+    int i = 0;
+
+    for (Map.Entry<BigInteger, Integer> factor : factors.entrySet()) {
+      primes[i] = factor.getKey();
+      exponents[i] = factor.getValue();
+      i++;
+    }
+  }
+
+  /**
+   * @param value non-zero value, whose sign is ignored
+   * @throws ArithmeticException if value is zero.
+   * @return the prime factorization of the absolute value.
+   */
+  public static Factorization of(BigInteger value) throws ArithmeticException {
+    return Factors.factorize(value);
+  }
+
+  /**
+   * @param value non-zero value, whose sign is ignored
+   * @throws ArithmeticException if value is zero.
+   * @return the prime factorization of the absolute value.
+   */
+  public static Factorization of(long value) throws ArithmeticException {
+    return Factors.factorize(BigInteger.valueOf(value));
+  }
+
+  /**
+   * @return the number of distinct primes, zero for the factorization of one.
+   */
+  public int size() {
+    return primes.length;
+  }
+
+  /**
+   * @param index zero-based index, in ascending order of primes
+   * @return the index-th smallest distinct prime.
+   */
+  public BigInteger prime(int index) {
+    return primes[index];
+  }
+
+  /**
+   * @param index zero-based index, in ascending order of primes
+   * @return the exponent of the index-th smallest distinct prime.
+   */
+  public int exponent(int index) {
+    return exponents[index];
+  }
+
+  /**
+   * @return the value that was factored.
+   */
+  public BigInteger value() {
+    BigInteger value = BigInteger.ONE;
+
+    for (int i = 0; i < primes.length; i++) {
+      value = value.multiply(primes[i].pow(exponents[i]));
+    }
+
+    return value;
+  }
+
+  /**
+   * @return whether the value is prime.
+   */
+  public boolean isPrime() {
+    return primes.length == 1 && exponents[0] == 1;
+  }
+
+  /**
+   * @return whether a fraction in lowest terms with this denominator has a terminating decimal expansion, that is,
+   * whether 2 and 5 are the only primes.
+   */
+  public boolean isTerminatingDecimal() {
+    for (BigInteger prime : primes) {
+      if (!prime.equals(TWO) && !prime.equals(FIVE)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * @param other {@link Factorization} value
+   * @return the factorization of the least common multiple, taking the larger exponent of every prime.
+   */
+  public Factorization leastCommonMultiple(Factorization other) {
+    return merge(other, true);
+  }
+
+  /**
+   * @param other {@link Factorization} value
+   * @return the factorization of the greatest common factor, taking the smaller exponent of every prime.
+   */
+  public Factorization greatestCommonFactor(Factorization other) {
+    return merge(other, false);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof Factorization)) {
+      return false;
+    }
+
+    final Factorization that = (Factorization) other;
+
+    return Arrays.equals(primes, that.primes) && Arrays.equals(exponents, that.exponents);
+  }
+
+  @Override
+  public int hashCode() {
+    return 37 * Arrays.hashCode(primes) + Arrays.hashCode(exponents);
+  }
+
+  @Override
+  public String toString() {
+    if (primes.length == 0) {
+      return "1";
+    }
+
+    final StringBuilder sb = new StringBuilder();
+
+    for (int i = 0; i < primes.length; i++) {
+      if (i > 0) {
+        sb.append(" * ");
+      }
+
+      sb.append(primes[i]);
+
+      if (exponents[i] > 1) {
+        sb.append('^').append(exponents[i]);
+      }
+    }
+
+    return sb.toString();
+  }
+
+  private Factorization merge(Factorization other, boolean larger) {
+    final TreeMap<BigInteger, Integer> factors = new TreeMap<BigInteger, Integer>();
+    int i = 0;
+    int j = 0;
+
+    while (i < primes.length || j < other.primes.length) {
+      final int comparison = i == primes.length ? 1 : (j == other.primes.length ? -1 : primes[i].compareTo(other.primes[j]));
+
+      if (comparison == 0) {
+        factors.put(primes[i], larger ? Math.max(exponents[i], other.exponents[j]) : Math.min(exponents[i], other.exponents[j]));
+        i++;
+        j++;
+      }
+      else if (comparison < 0) {
+        if (larger) {
+          factors.put(primes[i], exponents[i]);
+        }
+
+        i++;
+      }
+      else {
+        if (larger) {
+          factors.put(other.primes[j], other.exponents[j]);
+        }
+
+        j++;
+      }
+    }
+
+    return new Factorization(factors);
+  }
+
+}
@@ -2,6 +2,17 @@ package net.sf.javanumbers;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * <p>
@@ -35,6 +46,51 @@ import java.math.BigInteger;
  */
 abstract class Factors {
   
+  /**
+   * Trial division covers every prime below this limit, so any cofactor below its square is prime.
+   */
+  private static final int SIEVE_LIMIT = 1 << 16;
+  private static final int[] SMALL_PRIMES = Factors.sieve(SIEVE_LIMIT);
+  private static final BigInteger SIEVE_LIMIT_SQUARED = BigInteger.valueOf((long) SIEVE_LIMIT * SIEVE_LIMIT);
+  
+  /**
+   * Miller-Rabin with these bases is exact for every value below 3.3 * 10<sup>24</sup>.
+   */
+  private static final int[] MILLER_RABIN_BASES = new int[] { 2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37, 41 };
+  private static final BigInteger MILLER_RABIN_EXACT_LIMIT = new BigInteger("3317044064679887385961981");
+  
+  /**
+   * Pairs of values that are both at least this many bits long have their greatest common factor found by half-gcd,
+   * which is subquadratic, rather than by {@link BigInteger#gcd(BigInteger)}, which is quadratic but faster below it.
+   */
+  static final int HALF_GCD_THRESHOLD = 20000;
+  
+  /**
+   * Half-gcd reduces values shorter than this many bits by plain Euclidean steps instead of recursing.
+   */
+  private static final int HALF_GCD_BASE = 1024;
+  
+  /**
+   * Runs of at most this many values are combined one after another; longer runs are split in half.
+   */
+  static final int LEAF_SIZE = 64;
+  
+  /**
+   * Arrays of at least this many values are combined in parallel on the common {@link ForkJoinPool}.
+   */
+  static final int PARALLEL_THRESHOLD = 8192;
+  
+  private static final int FACTORIZATION_CACHE_SIZE = 1024;
+  private static final Map<BigInteger, Factorization> FACTORIZATION_CACHE = Collections.synchronizedMap(
+    new LinkedHashMap<BigInteger, Factorization>(FACTORIZATION_CACHE_SIZE, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+      
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<BigInteger, Factorization> eldest) {
+        return size() > FACTORIZATION_CACHE_SIZE;
+      }
+    });
+  
   /**
    * Determine whether left and right values are factors of each other.
    * @param left
@@ -46,22 +102,664 @@ abstract class Factors {
   }
   
   /**
-   * Calculate the greatest common factor of two values.
+   * Calculate the greatest common factor of two values, in <code>long</code> arithmetic when both fit, and by half-gcd once
+   * both are at least {@link #HALF_GCD_THRESHOLD} bits long.
    * @param left
    * @param right
-   * @return
+   * @return the non-negative greatest common factor, zero only if both values are zero
    */
   public static BigInteger greatestCommonFactor(BigInteger left, BigInteger right) {
-    BigInteger first = left.compareTo(right) < 0 ? right : left;
-    BigInteger second = left.compareTo(right) < 0 ? left : right;
-    BigInteger remainder = BigInteger.ZERO; 
+    final boolean fast = left.bitLength() < Long.SIZE - 1 && right.bitLength() < Long.SIZE - 1;
+    
+    if (RationalMetrics.isEnabled()) {
+      RationalMetrics.record(RationalMetrics.Operation.GCD, Math.max(left.bitLength(), right.bitLength()));
+      RationalMetrics.recordPath(fast);
+    }
+    
+    if (fast) {
+      return BigInteger.valueOf(Factors.gcd(left.longValue(), right.longValue()));
+    }
+    
+    final RationalEvents.SlowGcd event = RationalEvents.beginGcd();
+    
+    if (left.bitLength() < HALF_GCD_THRESHOLD || right.bitLength() < HALF_GCD_THRESHOLD) {
+      final BigInteger gcf = left.gcd(right);
+      
+      RationalEvents.endGcd(event, left, right);
+      
+      return gcf;
+    }
+    
+    BigInteger a = left.abs().max(right.abs());
+    BigInteger b = left.abs().min(right.abs());
+    
+    while (b.bitLength() >= HALF_GCD_THRESHOLD) {
+      final HalfGcd reduction = Factors.halfGcd(a, b);
+      
+      a = reduction.a;
+      b = reduction.b;
+      
+      if (b.signum() != 0) {
+        final BigInteger r = a.mod(b);
+        
+        a = b;
+        b = r;
+      }
+    }
+    
+    final BigInteger gcf = a.gcd(b);
+    
+    RationalEvents.endGcd(event, left, right);
+    
+    return gcf;
+  }
+  
+  /**
+   * Calculate the greatest common factor of two values together with its cofactors, by half-gcd once both are at least
+   * {@link #HALF_GCD_THRESHOLD} bits long.
+   * @param left
+   * @param right
+   * @return {g, x, y} where g is the non-negative greatest common factor and left * x + right * y = g
+   */
+  public static BigInteger[] extendedGreatestCommonFactor(BigInteger left, BigInteger right) {
+    final HalfGcd reduction = new HalfGcd(left, right);
+    
+    while (reduction.b.bitLength() >= HALF_GCD_THRESHOLD) {
+      reduction.apply(Factors.halfGcd(reduction.a, reduction.b));
+      
+      if (reduction.b.signum() != 0) {
+        reduction.step();
+      }
+    }
+    
+    while (reduction.b.signum() != 0) {
+      reduction.step();
+    }
+    
+    return new BigInteger[] { reduction.a, reduction.m00, reduction.m01 };
+  }
+
+  /**
+   * Calculate the greatest common factor of many values. The values are combined as a balanced tree, in parallel for large
+   * arrays, and the whole computation stops as soon as any partial result is one.
+   * @param values {@link BigInteger} values
+   * @return the non-negative greatest common factor, or zero if there are no non-zero values
+   */
+  public static BigInteger gcd(BigInteger... values) {
+    final GcdTask task = new GcdTask(values, 0, values.length, new AtomicBoolean());
+    
+    return values.length >= PARALLEL_THRESHOLD ? ForkJoinPool.commonPool().invoke(task) : task.compute();
+  }
+  
+  /**
+   * Calculate the greatest common factor of many values.
+   * @param values {@link BigInteger} values
+   * @return the non-negative greatest common factor, or zero if there are no non-zero values
+   * @see #gcd(BigInteger...)
+   */
+  public static BigInteger gcd(Collection<BigInteger> values) {
+    return Factors.gcd(values.toArray(new BigInteger[values.size()]));
+  }
+  
+  /**
+   * Calculate the greatest common factor of many values in <code>long</code> arithmetic, stopping as soon as it reaches one.
+   * @param values long values
+   * @throws ArithmeticException if the result is 2<sup>63</sup>, which happens only if every value is zero or
+   * {@link Long#MIN_VALUE}.
+   * @return the non-negative greatest common factor, or zero if there are no non-zero values
+   */
+  public static long gcd(long[] values) throws ArithmeticException {
+    long result = 0;
+    
+    for (int i = 0; i < values.length && result != 1; i++) {
+      result = Factors.gcd(result, values[i]);
+    }
+    
+    if (result < 0) {
+      throw new ArithmeticException("Greatest common factor overflows a long.");
+    }
+    
+    return result;
+  }
+  
+  /**
+   * Calculate the greatest common factor of two long values by Euclid's algorithm.
+   * @return the greatest common factor, which is negative only if it is 2<sup>63</sup>
+   */
+  static long gcd(long left, long right) {
+    long a = Math.abs(left);
+    long b = Math.abs(right);
+    
+    while (b != 0) {
+      final long t = a % b;
+      
+      a = b;
+      b = Math.abs(t);
+    }
+    
+    return a;
+  }
+  
+  /**
+   * Reduces a &gt;= b &gt;= 0 of n bits by a unimodular matrix until b is no more than n / 2 + 1 bits long. The top half of
+   * the bits decides the first quarter of the quotients, found recursively, and after one Euclidean step the top half of
+   * what is left decides the next quarter, so the matrix is built from multiplications of ever smaller values.
+   */
+  static HalfGcd halfGcd(BigInteger a, BigInteger b) {
+    final HalfGcd reduction = new HalfGcd(a, b);
+    final int n = a.bitLength();
+    final int s = n / 2 + 1;
+    
+    if (b.bitLength() <= s) {
+      return reduction;
+    }
+    
+    if (n < HALF_GCD_BASE) {
+      while (reduction.b.bitLength() > s) {
+        reduction.step();
+      }
+      
+      return reduction;
+    }
+    
+    reduction.apply(Factors.halfGcd(a.shiftRight(s), b.shiftRight(s)));
+    
+    if (reduction.b.bitLength() <= s) {
+      return reduction;
+    }
+    
+    reduction.step();
+    
+    if (reduction.b.bitLength() <= s) {
+      return reduction;
+    }
+    
+    final int m = Math.max(2 * s - reduction.a.bitLength(), 0);
+    
+    reduction.apply(Factors.halfGcd(reduction.a.shiftRight(m), reduction.b.shiftRight(m)));
+    
+    while (reduction.b.bitLength() > s) {
+      reduction.step();
+    }
+    
+    return reduction;
+  }
+  
+  /**
+   * Calculate the inverse of a value modulo m by the extended Euclidean algorithm.
+   * @param value value to invert, which is first reduced modulo m
+   * @param m positive modulus, less than 2<sup>62</sup>
+   * @throws ArithmeticException if value and m are not coprime.
+   * @return the value x in [0, m) such that value * x is congruent to 1 modulo m
+   */
+  public static long modularInverse(long value, long m) throws ArithmeticException {
+    long r0 = m;
+    long r1 = ((value % m) + m) % m;
+    long t0 = 0;
+    long t1 = 1;
 
-    while ((remainder = first.mod(second)) != BigInteger.ZERO) {
-      first = new BigInteger(second.toString());
-      second = new BigInteger(remainder.toString());
+    while (r1 != 0) {
+      final long q = r0 / r1;
+      final long r = r0 - q * r1;
+      final long t = t0 - q * t1;
+
+      r0 = r1;
+      r1 = r;
+      t0 = t1;
+      t1 = t;
+    }
+
+    if (r0 != 1) {
+      throw new ArithmeticException(String.format("%s is not invertible modulo %s.", value, m));
     }
 
-    return new BigInteger(second.toString());
+    return t0 < 0 ? t0 + m : t0;
   }
 
+  /**
+   * Calculate the integer square root of a value by Newton's method.
+   * @param value non-negative value
+   * @return the largest integer whose square is no more than value
+   */
+  public static BigInteger integerSquareRoot(BigInteger value) {
+    if (value.signum() < 0) {
+      throw new ArithmeticException("Square root of a negative value.");
+    }
+
+    if (value.bitLength() < 63) {
+      long root = (long) Math.sqrt(value.longValue());
+
+      while (root * root > value.longValue()) {
+        root--;
+      }
+
+      while ((root + 1) * (root + 1) <= value.longValue()) {
+        root++;
+      }
+
+      return BigInteger.valueOf(root);
+    }
+
+    BigInteger root = BigInteger.ONE.shiftLeft((value.bitLength() + 1) / 2);
+
+    while (true) {
+      final BigInteger next = root.add(value.divide(root)).shiftRight(1);
+
+      if (next.compareTo(root) >= 0) {
+        return root;
+      }
+
+      root = next;
+    }
+  }
+
+  /**
+   * Factors a value into primes. Small primes are removed by trial division against a sieved table, and what remains is
+   * split by Pollard-Brent rho until every part passes a Miller-Rabin test. The most recently used factorizations are
+   * kept in a bounded cache, so recurring values such as common denominators are only factored once.
+   * @param value non-zero value, whose sign is ignored
+   * @throws ArithmeticException if value is zero.
+   * @return the {@link Factorization} of the absolute value
+   */
+  public static Factorization factorize(BigInteger value) throws ArithmeticException {
+    if (value.signum() == 0) {
+      throw new ArithmeticException("Zero has no prime factorization.");
+    }
+    
+    final BigInteger key = value.abs();
+    Factorization factorization = FACTORIZATION_CACHE.get(key);
+    
+    if (factorization == null) {
+      final TreeMap<BigInteger, Integer> factors = new TreeMap<BigInteger, Integer>();
+      final BigInteger rest = Factors.trialDivide(key, factors);
+      
+      if (!rest.equals(BigInteger.ONE)) {
+        Factors.splitLargeFactors(rest, factors);
+      }
+      
+      factorization = new Factorization(factors);
+      FACTORIZATION_CACHE.put(key, factorization);
+    }
+    
+    return factorization;
+  }
+  
+  /**
+   * Determines whether a value is prime, by table lookup for small values and Miller-Rabin otherwise. The test is exact
+   * below 3.3 * 10<sup>24</sup>, and wrong with probability below 4<sup>-64</sup> above.
+   * @param value {@link BigInteger} value
+   * @return whether value is prime
+   */
+  public static boolean isProbablePrime(BigInteger value) {
+    if (value.signum() <= 0 || value.equals(BigInteger.ONE)) {
+      return false;
+    }
+    
+    if (value.bitLength() < 31 && value.intValue() < SIEVE_LIMIT) {
+      return Arrays.binarySearch(SMALL_PRIMES, value.intValue()) >= 0;
+    }
+    
+    if (value.compareTo(SIEVE_LIMIT_SQUARED) < 0) {
+      final long n = value.longValue();
+      
+      for (int i = 0; i < SMALL_PRIMES.length && (long) SMALL_PRIMES[i] * SMALL_PRIMES[i] <= n; i++) {
+        if (n % SMALL_PRIMES[i] == 0) {
+          return false;
+        }
+      }
+      
+      return true;
+    }
+    
+    for (int i = 0; i < 16; i++) {
+      if (value.mod(BigInteger.valueOf(SMALL_PRIMES[i])).signum() == 0) {
+        return false;
+      }
+    }
+    
+    final BigInteger minusOne = value.subtract(BigInteger.ONE);
+    final int twos = minusOne.getLowestSetBit();
+    final BigInteger odd = minusOne.shiftRight(twos);
+    final boolean exact = value.compareTo(MILLER_RABIN_EXACT_LIMIT) < 0;
+    final int rounds = exact ? MILLER_RABIN_BASES.length : 32;
+    
+    for (int i = 0; i < rounds; i++) {
+      final BigInteger base = i < MILLER_RABIN_BASES.length
+        ? BigInteger.valueOf(MILLER_RABIN_BASES[i])
+        : BigInteger.valueOf(SMALL_PRIMES[i * 97 % SMALL_PRIMES.length]);
+      BigInteger x = base.modPow(odd, value);
+      
+      if (x.equals(BigInteger.ONE) || x.equals(minusOne)) {
+        continue;
+      }
+      
+      boolean witness = true;
+      
+      for (int r = 1; r < twos && witness; r++) {
+        x = x.multiply(x).mod(value);
+        witness = !x.equals(minusOne);
+      }
+      
+      if (witness) {
+        return false;
+      }
+    }
+    
+    return true;
+  }
+  
+  /**
+   * Divides out every prime below the sieve limit.
+   * @param value positive value
+   * @param factors receives the primes found and their exponents
+   * @return the cofactor left over, which has no prime factor below the sieve limit
+   */
+  private static BigInteger trialDivide(BigInteger value, Map<BigInteger, Integer> factors) {
+    if (value.bitLength() < 63) {
+      long rest = value.longValue();
+      
+      for (int i = 0; i < SMALL_PRIMES.length && (long) SMALL_PRIMES[i] * SMALL_PRIMES[i] <= rest; i++) {
+        final int p = SMALL_PRIMES[i];
+        int exponent = 0;
+        
+        while (rest % p == 0) {
+          rest /= p;
+          exponent++;
+        }
+        
+        if (exponent > 0) {
+          factors.put(BigInteger.valueOf(p), exponent);
+        }
+      }
+      
+      if (rest > 1 && rest < (long) SIEVE_LIMIT * SIEVE_LIMIT) {
+        Factors.addFactor(factors, BigInteger.valueOf(rest), 1);
+        return BigInteger.ONE;
+      }
+      
+      return BigInteger.valueOf(rest);
+    }
+    
+    BigInteger rest = value;
+    
+    for (int p : SMALL_PRIMES) {
+      if (rest.bitLength() < 63 && (long) p * p > rest.longValue()) {
+        break;
+      }
+      
+      final BigInteger prime = BigInteger.valueOf(p);
+      BigInteger[] qr = rest.divideAndRemainder(prime);
+      int exponent = 0;
+      
+      while (qr[1].signum() == 0) {
+        rest = qr[0];
+        exponent++;
+        qr = rest.divideAndRemainder(prime);
+      }
+      
+      if (exponent > 0) {
+        factors.put(prime, exponent);
+      }
+    }
+    
+    return rest;
+  }
+  
+  /**
+   * Splits a cofactor with no small prime factors into primes.
+   */
+  private static void splitLargeFactors(BigInteger value, Map<BigInteger, Integer> factors) {
+    final List<BigInteger> pending = new ArrayList<BigInteger>();
+    
+    pending.add(value);
+    
+    while (!pending.isEmpty()) {
+      final BigInteger n = pending.remove(pending.size() - 1);
+      
+      if (n.compareTo(SIEVE_LIMIT_SQUARED) < 0 || Factors.isProbablePrime(n)) {
+        Factors.addFactor(factors, n, 1);
+        continue;
+      }
+      
+      final BigInteger root = Factors.integerSquareRoot(n);
+      
+      if (root.multiply(root).equals(n)) {
+        pending.add(root);
+        pending.add(root);
+        continue;
+      }
+      
+      final BigInteger divisor = Factors.pollardBrent(n);
+      
+      pending.add(divisor);
+      pending.add(n.divide(divisor));
+    }
+  }
+  
+  private static void addFactor(Map<BigInteger, Integer> factors, BigInteger prime, int exponent) {
+    final Integer known = factors.get(prime);
+    
+    factors.put(prime, known == null ? exponent : known + exponent);
+  }
+  
+  /**
+   * Finds a non-trivial divisor of a composite value by Brent's variant of Pollard's rho method, multiplying the
+   * differences of a batch of iterates together so a single gcd covers the whole batch.
+   * @param n odd composite value that is not a perfect square
+   * @return a divisor of n strictly between 1 and n
+   */
+  private static BigInteger pollardBrent(BigInteger n) {
+    final int batch = 128;
+    
+    for (long c = 1; ; c++) {
+      final BigInteger increment = BigInteger.valueOf(c);
+      BigInteger y = BigInteger.valueOf(2);
+      BigInteger x = y;
+      BigInteger saved = y;
+      BigInteger product = BigInteger.ONE;
+      BigInteger divisor = BigInteger.ONE;
+      
+      for (long range = 1; divisor.equals(BigInteger.ONE); range <<= 1) {
+        x = y;
+        
+        for (long i = 0; i < range; i++) {
+          y = y.multiply(y).add(increment).mod(n);
+        }
+        
+        for (long k = 0; k < range && divisor.equals(BigInteger.ONE); k += batch) {
+          saved = y;
+          
+          for (long i = 0; i < Math.min(batch, range - k); i++) {
+            y = y.multiply(y).add(increment).mod(n);
+            product = product.multiply(x.subtract(y).abs()).mod(n);
+          }
+          
+          divisor = product.gcd(n);
+        }
+      }
+      
+      if (divisor.equals(n)) {
+        // The batch overshot; step through it one iterate at a time.
+        do {
+          saved = saved.multiply(saved).add(increment).mod(n);
+          divisor = x.subtract(saved).abs().gcd(n);
+        } while (divisor.equals(BigInteger.ONE));
+      }
+      
+      if (!divisor.equals(n)) {
+        return divisor;
+      }
+    }
+  }
+  
+  /**
+   * @return every prime below limit, by the sieve of Eratosthenes
+   */
+  private static int[] sieve(int limit) {
+    final boolean[] composite = new boolean[limit];
+    int count = 0;
+    
+    for (int i = 2; i < limit; i++) {
+      if (!composite[i]) {
+        count++;
+        
+        for (long j = (long) i * i; j < limit; j += i) {
+          composite[(int) j] = true;
+        }
+      }
+    }
+    
+    final int[] primes = new int[count];
+    
+    for (int i = 2, next = 0; i < limit; i++) {
+      if (!composite[i]) {
+        primes[next++] = i;
+      }
+    }
+    
+    return primes;
+  }
+
+  /**
+   * Combines a range of values into their greatest common factor, splitting large ranges in half.
+   */
+  private static final class GcdTask extends RecursiveTask<BigInteger> {
+    
+    private static final long serialVersionUID = -4203858313066826367L;
+    
+    private final BigInteger[] values;
+    private final int from;
+    private final int to;
+    private final AtomicBoolean reachedOne;
+    
+    GcdTask(BigInteger[] values, int from, int to, AtomicBoolean reachedOne) {
+      this.values = values;
+      this.from = from;
+      this.to = to;
+      this.reachedOne = reachedOne;
+    }
+    
+    @Override
+    protected BigInteger compute() {
+      if (to - from <= LEAF_SIZE) {
+        BigInteger result = BigInteger.ZERO;
+        
+        for (int i = from; i < to && !reachedOne.get(); i++) {
+          result = Factors.greatestCommonFactor(result, values[i]);
+          
+          if (result.equals(BigInteger.ONE)) {
+            reachedOne.set(true);
+          }
+        }
+        
+        return reachedOne.get() ? BigInteger.ONE : result;
+      }
+      
+      final int middle = (from + to) >>> 1;
+      final GcdTask left = new GcdTask(values, from, middle, reachedOne);
+      final GcdTask right = new GcdTask(values, middle, to, reachedOne);
+      
+      if (to - from >= PARALLEL_THRESHOLD) {
+        right.fork();
+        
+        final BigInteger leftResult = left.compute();
+        
+        return reachedOne.get() ? BigInteger.ONE : Factors.greatestCommonFactor(leftResult, right.join());
+      }
+      
+      final BigInteger leftResult = left.compute();
+      
+      return reachedOne.get() ? BigInteger.ONE : Factors.greatestCommonFactor(leftResult, right.compute());
+    }
+    
+  }
+
+  /**
+   * A pair a &gt;= b &gt;= 0 and the unimodular matrix that takes the pair it started from to it, so that
+   * a = m00 * a<sub>0</sub> + m01 * b<sub>0</sub> and b = m10 * a<sub>0</sub> + m11 * b<sub>0</sub>. Since the matrix is
+   * invertible over the integers, every pair along the way has the same greatest common factor.
+   */
+  static final class HalfGcd {
+    
+    BigInteger a;
+    BigInteger b;
+    BigInteger m00 = BigInteger.ONE;
+    BigInteger m01 = BigInteger.ZERO;
+    BigInteger m10 = BigInteger.ZERO;
+    BigInteger m11 = BigInteger.ONE;
+    
+    HalfGcd(BigInteger a, BigInteger b) {
+      this.a = a;
+      this.b = b;
+      normalize();
+    }
+    
+    /**
+     * Takes one Euclidean step, replacing (a, b) by (b, a mod b).
+     */
+    void step() {
+      final BigInteger[] qr = a.divideAndRemainder(b);
+      final BigInteger n10 = m00.subtract(qr[0].multiply(m10));
+      final BigInteger n11 = m01.subtract(qr[0].multiply(m11));
+      
+      a = b;
+      b = qr[1];
+      m00 = m10;
+      m01 = m11;
+      m10 = n10;
+      m11 = n11;
+    }
+    
+    /**
+     * Applies the matrix of a reduction found on the leading bits of this pair to the whole of it.
+     */
+    void apply(HalfGcd other) {
+      final BigInteger newA = other.m00.multiply(a).add(other.m01.multiply(b));
+      final BigInteger newB = other.m10.multiply(a).add(other.m11.multiply(b));
+      final BigInteger n00 = other.m00.multiply(m00).add(other.m01.multiply(m10));
+      final BigInteger n01 = other.m00.multiply(m01).add(other.m01.multiply(m11));
+      final BigInteger n10 = other.m10.multiply(m00).add(other.m11.multiply(m10));
+      final BigInteger n11 = other.m10.multiply(m01).add(other.m11.multiply(m11));
+      
+      a = newA;
+      b = newB;
+      m00 = n00;
+      m01 = n01;
+      m10 = n10;
+      m11 = n11;
+      normalize();
+    }
+    
+    /**
+     * Restores a &gt;= b &gt;= 0 by negating or swapping, which keeps the matrix unimodular.
+     */
+    private void normalize() {
+      if (a.signum() < 0) {
+        a = a.negate();
+        m00 = m00.negate();
+        m01 = m01.negate();
+      }
+      
+      if (b.signum() < 0) {
+        b = b.negate();
+        m10 = m10.negate();
+        m11 = m11.negate();
+      }
+      
+      if (a.compareTo(b) < 0) {
+        final BigInteger swap = a;
+        final BigInteger swap0 = m00;
+        final BigInteger swap1 = m01;
+        
+        a = b;
+        m00 = m10;
+        m01 = m11;
+        b = swap;
+        m10 = swap0;
+        m11 = swap1;
+      }
+    }
+    
+  }
+  
 }
@@ -0,0 +1,198 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * An optional, bounded memo of greatest common factors of pairs of values that fit in a <code>long</code>, for data in
+ * which a small set of denominators such as 100, 360 or 3600 keeps recurring. Once enabled, {@link Rational#add(Rational)}
+ * looks up the greatest common factor of its two denominators here, and {@link Rational#reduce()} that of the numerator
+ * and denominator it reduces. The other reductions do not use it.
+ * <p>
+ * The memo is a fixed-size table indexed by a hash of the pair, rather than a least recently used list, so that a lookup
+ * takes no lock and a hit allocates nothing. A pair that lands in a slot already holding another pair replaces it, which
+ * counts as an eviction. {@link Factors#greatestCommonFactor(BigInteger, BigInteger)} already works in <code>long</code>
+ * arithmetic for such pairs, so a hit saves only the Euclidean steps and the {@link BigInteger} result; it pays when pairs
+ * recur far more often than they change. It is disabled by default, and costs a single volatile read while disabled.
+ * </p>
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public abstract class GcdCache {
+  
+  private static volatile AtomicReferenceArray<Entry> table;
+  
+  private static final LongAdder HITS = new LongAdder();
+  private static final LongAdder MISSES = new LongAdder();
+  private static final LongAdder EVICTIONS = new LongAdder();
+  
+  /**
+   * Enables the memo, discarding anything remembered so far.
+   * @param capacity the most pairs remembered, rounded down to a power of two
+   * @throws IllegalArgumentException if capacity is not positive.
+   */
+  public static void enable(final int capacity) throws IllegalArgumentException {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive.");
+    }
+    
+    table = new AtomicReferenceArray<Entry>(Integer.highestOneBit(capacity));
+  }
+  
+  /**
+   * Disables the memo and discards anything remembered. The statistics are kept.
+   */
+  public static void disable() {
+    table = null;
+  }
+  
+  /**
+   * @return whether the memo is enabled.
+   */
+  public static boolean isEnabled() {
+    return table != null;
+  }
+  
+  /**
+   * Counts the pairs remembered by scanning the whole table, so it is meant for monitoring rather than for hot paths.
+   * @return the number of pairs remembered.
+   */
+  public static int size() {
+    final AtomicReferenceArray<Entry> current = table;
+    
+    if (current == null) {
+      return 0;
+    }
+    
+    int size = 0;
+    
+    for (int i = 0; i < current.length(); i++) {
+      if (current.get(i) != null) {
+        size++;
+      }
+    }
+    
+    return size;
+  }
+  
+  /**
+   * @return the number of lookups answered from the memo.
+   */
+  public static long hits() {
+    return HITS.sum();
+  }
+  
+  /**
+   * @return the number of lookups of pairs that fit in a <code>long</code> but were not remembered.
+   */
+  public static long misses() {
+    return MISSES.sum();
+  }
+  
+  /**
+   * @return the number of pairs replaced by another pair landing in the same slot.
+   */
+  public static long evictions() {
+    return EVICTIONS.sum();
+  }
+  
+  /**
+   * Sets the hit, miss and eviction counts back to zero.
+   */
+  public static void resetStatistics() {
+    HITS.reset();
+    MISSES.reset();
+    EVICTIONS.reset();
+  }
+  
+  /**
+   * Finds the greatest common factor of two values, from the memo if it is enabled and both values fit in a
+   * <code>long</code>.
+   * @return the non-negative greatest common factor
+   */
+  static BigInteger greatestCommonFactor(BigInteger left, BigInteger right) {
+    final AtomicReferenceArray<Entry> current = table;
+    
+    if (current == null || left.bitLength() >= Long.SIZE - 1 || right.bitLength() >= Long.SIZE - 1) {
+      return Factors.greatestCommonFactor(left, right);
+    }
+    
+    final long absLeft = Math.abs(left.longValue());
+    final long absRight = Math.abs(right.longValue());
+    final long larger = Math.max(absLeft, absRight);
+    final long smaller = Math.min(absLeft, absRight);
+    final long mixed = larger * 0x9E3779B97F4A7C15L + smaller;
+    final int slot = (int) (mixed ^ (mixed >>> 32)) & (current.length() - 1);
+    final Entry remembered = current.get(slot);
+    
+    if (remembered != null && remembered.larger == larger && remembered.smaller == smaller) {
+      HITS.increment();
+      return remembered.gcf;
+    }
+    
+    MISSES.increment();
+    
+    final BigInteger gcf = BigInteger.valueOf(Factors.gcd(larger, smaller));
+    
+    if (remembered != null) {
+      EVICTIONS.increment();
+    }
+    
+    current.set(slot, new Entry(larger, smaller, gcf));
+    
+    return gcf;
+  }
+  
+  /**
+   * Finds the least common multiple of two denominators, taking their greatest common factor from the memo if it is
+   * enabled.
+   * @return the least common multiple, negative if exactly one value is negative
+   */
+  static BigInteger leastCommonMultiple(BigInteger left, BigInteger right) {
+    return left.divide(GcdCache.greatestCommonFactor(left, right)).multiply(right);
+  }
+  
+  /**
+   * An unordered pair of absolute values and their greatest common factor.
+   */
+  private static final class Entry {
+    
+    private final long larger;
+    private final long smaller;
+    private final BigInteger gcf;
+    
+    Entry(long larger, long smaller, BigInteger gcf) {
+      this.larger = larger;
+      this.smaller = smaller;
+      this.gcf = gcf;
+    }
+    
+  }
+  
+}
@@ -0,0 +1,59 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * A computation over {@link Rational} values that can be carried out in <code>long</code> arithmetic modulo a prime, for
+ * use with {@link ModularEngine}. The same computation is run independently, and possibly concurrently, modulo many
+ * primes, so implementations must not keep mutable state between calls.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public interface ModularComputation {
+
+  /**
+   * Carries out the computation modulo a prime.
+   * @param inputs the inputs, each in [0, prime)
+   * @param prime a prime less than 2<sup>31</sup>, so the product of two residues fits in a <code>long</code>
+   * @return the outputs, each in [0, prime), always as many for the same inputs, or <code>null</code> if the computation
+   * cannot be carried out modulo this prime, for example because it divides by a value that is zero only modulo prime
+   */
+  long[] compute(long[] inputs, long prime);
+
+  /**
+   * Optionally checks a candidate answer exactly. A candidate that passes is returned at once; otherwise
+   * {@link ModularEngine} keeps adding primes until the candidate stops changing.
+   * @param inputs the original inputs
+   * @param candidate the outputs recovered from the primes used so far
+   * @return whether candidate is certainly the exact answer
+   */
+  default boolean verify(Rational[] inputs, Rational[] candidate) {
+    return false;
+  }
+
+}
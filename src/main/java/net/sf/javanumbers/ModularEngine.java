@@ -0,0 +1,400 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * Carries out large exact computations over {@link Rational} values by multi-modular arithmetic. The inputs are mapped
+ * into the residues modulo several primes just below 2<sup>31</sup>, a {@link ModularComputation} is run in
+ * <code>long</code> arithmetic independently, and in parallel, for each prime, and the exact outputs are recovered from
+ * the residues by the Chinese remainder theorem and rational reconstruction.
+ *
+ * Primes are added in rounds until the recovered outputs either pass the computation's own exact check or stay the same
+ * for two rounds in a row. Primes that divide an input denominator, or for which the computation returns
+ * <code>null</code>, are skipped.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public final class ModularEngine {
+
+  /**
+   * The most primes used before giving up, enough to recover fractions of about 60,000 bits.
+   */
+  private static final int MAX_PRIMES = 4096;
+
+  /**
+   * The most primes skipped in a row before deciding no prime will do.
+   */
+  private static final int MAX_SKIPPED_PRIMES = 8;
+
+  private static final List<Long> PRIMES = new ArrayList<Long>();
+
+  private final ForkJoinPool pool;
+
+  /**
+   * Creates an engine running on the common {@link ForkJoinPool}.
+   */
+  public ModularEngine() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param pool {@link ForkJoinPool} on which the primes are worked on in parallel
+   */
+  public ModularEngine(ForkJoinPool pool) {
+    if (pool == null) {
+      throw new NullPointerException("Pool may not be null.");
+    }
+
+    this.pool = pool;
+  }
+
+  /**
+   * Runs a computation modulo as many primes as needed to recover its exact outputs.
+   * @param inputs {@link Rational} inputs
+   * @param computation {@link ModularComputation} to run
+   * @throws ArithmeticException if no prime can be used or the outputs cannot be recovered within the prime budget.
+   * @return the exact outputs
+   */
+  public Rational[] compute(final Rational[] inputs, final ModularComputation computation) throws ArithmeticException {
+    final BigInteger[][] parts = new BigInteger[inputs.length][];
+
+    for (int i = 0; i < inputs.length; i++) {
+      parts[i] = inputs[i].integerParts();
+    }
+
+    final int batch = Math.max(pool.getParallelism(), 2);
+    BigInteger modulus = BigInteger.ONE;
+    BigInteger[] residues = null;
+    Rational[] previous = null;
+    int skipped = 0;
+
+    for (int next = 0; next < MAX_PRIMES; next += batch) {
+      final List<Callable<long[]>> tasks = new ArrayList<Callable<long[]>>();
+
+      for (int i = next; i < next + batch; i++) {
+        final long prime = ModularEngine.prime(i);
+
+        tasks.add(new Callable<long[]>() {
+          @Override
+          public long[] call() {
+            final long[] reduced = ModularEngine.residues(parts, prime);
+
+            return reduced == null ? null : computation.compute(reduced, prime);
+          }
+        });
+      }
+
+      final List<Future<long[]>> results = pool.invokeAll(tasks);
+
+      for (int i = 0; i < results.size(); i++) {
+        final long[] outputs = ModularEngine.get(results.get(i));
+
+        if (outputs == null) {
+          if (++skipped >= MAX_SKIPPED_PRIMES && residues == null) {
+            throw new ArithmeticException("The computation fails modulo every prime tried.");
+          }
+
+          continue;
+        }
+
+        final long prime = ModularEngine.prime(next + i);
+
+        if (residues == null) {
+          residues = new BigInteger[outputs.length];
+
+          for (int j = 0; j < outputs.length; j++) {
+            residues[j] = BigInteger.valueOf(outputs[j]);
+          }
+        }
+        else {
+          if (outputs.length != residues.length) {
+            throw new IllegalStateException("The computation returned a different number of outputs for another prime.");
+          }
+
+          for (int j = 0; j < outputs.length; j++) {
+            residues[j] = Multiples.chineseRemainder(residues[j], modulus, outputs[j], prime);
+          }
+        }
+
+        modulus = modulus.multiply(BigInteger.valueOf(prime));
+        skipped = 0;
+      }
+
+      if (residues == null) {
+        continue;
+      }
+
+      final Rational[] candidate = ModularEngine.reconstruct(residues, modulus);
+
+      if (candidate != null) {
+        if (computation.verify(inputs, candidate) || ModularEngine.sameValues(candidate, previous)) {
+          return candidate;
+        }
+      }
+
+      previous = candidate;
+    }
+
+    throw new ArithmeticException("The outputs could not be recovered within " + MAX_PRIMES + " primes.");
+  }
+
+  /**
+   * Solves a * x = b by Gaussian elimination modulo each prime.
+   * @param a square {@link RationalMatrix}
+   * @param b {@link Rational} values, as many as a has rows
+   * @throws IllegalArgumentException if a is not square or b is of the wrong length.
+   * @throws ArithmeticException if a is singular.
+   * @return x
+   */
+  public Rational[] solve(final RationalMatrix a, final Rational[] b) throws IllegalArgumentException, ArithmeticException {
+    final int n = a.rows();
+
+    if (a.columns() != n || b.length != n) {
+      throw new IllegalArgumentException("Matrix must be square with as many rows as the right hand side.");
+    }
+
+    final Rational[] inputs = new Rational[n * (n + 1)];
+
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < n; j++) {
+        inputs[i * (n + 1) + j] = a.get(i, j);
+      }
+
+      inputs[i * (n + 1) + n] = b[i];
+    }
+
+    try {
+      return compute(inputs, new ModularComputation() {
+        @Override
+        public long[] compute(long[] m, long prime) {
+          return ModularEngine.solveModulo(m, n, prime);
+        }
+
+        @Override
+        public boolean verify(Rational[] ignored, Rational[] x) {
+          final Rational[] ax = a.multiply(x);
+
+          for (int i = 0; i < n; i++) {
+            if (Rational.compareExactly(ax[i], b[i]) != 0) {
+              return false;
+            }
+          }
+
+          return true;
+        }
+      });
+    }
+    catch (ArithmeticException e) {
+      if (a.rank() < n) {
+        throw new ArithmeticException("Matrix is singular.");
+      }
+
+      throw e;
+    }
+  }
+
+  /**
+   * Gauss-Jordan elimination of an n by n + 1 augmented matrix, stored by rows, modulo a prime.
+   * @return the solution modulo prime, or <code>null</code> if the matrix is singular modulo prime
+   */
+  static long[] solveModulo(long[] m, int n, long prime) {
+    final int width = n + 1;
+
+    for (int k = 0; k < n; k++) {
+      int pivot = k;
+
+      while (pivot < n && m[pivot * width + k] == 0) {
+        pivot++;
+      }
+
+      if (pivot == n) {
+        return null;
+      }
+
+      if (pivot != k) {
+        for (int j = k; j < width; j++) {
+          final long swap = m[pivot * width + j];
+
+          m[pivot * width + j] = m[k * width + j];
+          m[k * width + j] = swap;
+        }
+      }
+
+      final long inverse = Factors.modularInverse(m[k * width + k], prime);
+
+      for (int j = k; j < width; j++) {
+        m[k * width + j] = m[k * width + j] * inverse % prime;
+      }
+
+      for (int i = 0; i < n; i++) {
+        final long factor = m[i * width + k];
+
+        if (i == k || factor == 0) {
+          continue;
+        }
+
+        for (int j = k; j < width; j++) {
+          final long value = (m[i * width + j] - factor * m[k * width + j]) % prime;
+
+          m[i * width + j] = value < 0 ? value + prime : value;
+        }
+      }
+    }
+
+    final long[] x = new long[n];
+
+    for (int i = 0; i < n; i++) {
+      x[i] = m[i * width + n];
+    }
+
+    return x;
+  }
+
+  /**
+   * Finds the fraction a/b congruent to residue modulo modulus with |a| and b no more than the square root of half the
+   * modulus, by Wang's method of stopping the extended Euclidean algorithm half way.
+   * @param residue residue in [0, modulus)
+   * @param modulus positive modulus
+   * @return the fraction, or <code>null</code> if there is none small enough
+   */
+  static Rational rationalReconstruction(BigInteger residue, BigInteger modulus) {
+    final BigInteger bound = Factors.integerSquareRoot(modulus.shiftRight(1));
+    BigInteger r0 = modulus;
+    BigInteger r1 = residue;
+    BigInteger t0 = BigInteger.ZERO;
+    BigInteger t1 = BigInteger.ONE;
+
+    while (r1.compareTo(bound) > 0) {
+      final BigInteger[] qr = r0.divideAndRemainder(r1);
+      final BigInteger t = t0.subtract(qr[0].multiply(t1));
+
+      r0 = r1;
+      r1 = qr[1];
+      t0 = t1;
+      t1 = t;
+    }
+
+    if (t1.signum() == 0 || t1.abs().compareTo(bound) > 0 || !r1.gcd(t1).equals(BigInteger.ONE)) {
+      return null;
+    }
+
+    return Reducer.reduceWholeNumbers(r1, t1);
+  }
+
+  private static Rational[] reconstruct(BigInteger[] residues, BigInteger modulus) {
+    final Rational[] values = new Rational[residues.length];
+
+    for (int i = 0; i < residues.length; i++) {
+      values[i] = ModularEngine.rationalReconstruction(residues[i], modulus);
+
+      if (values[i] == null) {
+        return null;
+      }
+    }
+
+    return values;
+  }
+
+  private static boolean sameValues(Rational[] left, Rational[] right) {
+    if (right == null) {
+      return false;
+    }
+
+    for (int i = 0; i < left.length; i++) {
+      if (!left[i].toString().equals(right[i].toString())) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * @return the inputs modulo prime, or <code>null</code> if prime divides a denominator
+   */
+  private static long[] residues(BigInteger[][] parts, long prime) {
+    final BigInteger p = BigInteger.valueOf(prime);
+    final long[] reduced = new long[parts.length];
+
+    for (int i = 0; i < parts.length; i++) {
+      final long n = parts[i][0].mod(p).longValue();
+      final long d = parts[i][1].mod(p).longValue();
+
+      if (d == 0) {
+        return null;
+      }
+
+      reduced[i] = d == 1 ? n : n * Factors.modularInverse(d, prime) % prime;
+    }
+
+    return reduced;
+  }
+
+  private static long[] get(Future<long[]> future) {
+    try {
+      return future.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while computing modulo a prime.", e);
+    }
+    catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * @return the index-th largest prime below 2<sup>31</sup>
+   */
+  private static long prime(int index) {
+    synchronized (PRIMES) {
+      long candidate = PRIMES.isEmpty() ? Integer.MAX_VALUE : PRIMES.get(PRIMES.size() - 1) - 2;
+
+      while (PRIMES.size() <= index) {
+        if (BigInteger.valueOf(candidate).isProbablePrime(64)) {
+          PRIMES.add(candidate);
+        }
+
+        candidate -= 2;
+      }
+
+      return PRIMES.get(index);
+    }
+  }
+
+}
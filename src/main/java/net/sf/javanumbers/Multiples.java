@@ -2,6 +2,9 @@ package net.sf.javanumbers;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * <p>
@@ -36,13 +39,154 @@ import java.math.BigInteger;
 abstract class Multiples {
 
   /**
-   * Finds least common multiple of two values.
+   * Finds least common multiple of two values. One value is divided by the greatest common factor before multiplying, so
+   * the full product of the two values is never formed.
    * @param left {@link BigInteger} value
    * @param right {@link BigInteger} value
    * @return {@link BigInteger} value representing the least common multiple
    */
   public static BigInteger leastCommonMultiple(BigInteger left, BigInteger right) {
-    return left.multiply(right).divide(Factors.greatestCommonFactor(left, right));
+    return left.divide(Factors.greatestCommonFactor(left, right)).multiply(right);
   }
   
+  /**
+   * Finds the least common multiple of many values. The values are combined as a balanced tree, in parallel for large
+   * arrays, so the operands of each multiplication are of similar size.
+   * @param values {@link BigInteger} values
+   * @return the non-negative least common multiple, one if there are no values, or zero if any value is zero
+   */
+  public static BigInteger lcm(BigInteger... values) {
+    for (BigInteger value : values) {
+      if (value.signum() == 0) {
+        return BigInteger.ZERO;
+      }
+    }
+    
+    final LcmTask task = new LcmTask(values, 0, values.length);
+    
+    return values.length >= Factors.PARALLEL_THRESHOLD ? ForkJoinPool.commonPool().invoke(task) : task.compute();
+  }
+  
+  /**
+   * Finds the least common multiple of many values.
+   * @param values {@link BigInteger} values
+   * @return the non-negative least common multiple, one if there are no values, or zero if any value is zero
+   * @see #lcm(BigInteger...)
+   */
+  public static BigInteger lcm(Collection<BigInteger> values) {
+    return Multiples.lcm(values.toArray(new BigInteger[values.size()]));
+  }
+  
+  /**
+   * Finds the least common multiple of many long values, in <code>long</code> arithmetic while the result fits.
+   * @param values long values
+   * @return the non-negative least common multiple, one if there are no values, or zero if any value is zero
+   */
+  public static BigInteger lcm(long[] values) {
+    long result = 1;
+    
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == 0) {
+        return BigInteger.ZERO;
+      }
+      
+      final long gcd = Factors.gcd(result, values[i]);
+      final long factor = Math.abs(values[i] / gcd);
+      
+      if (factor < 0 || result > Long.MAX_VALUE / factor) {
+        final BigInteger[] rest = new BigInteger[values.length - i + 1];
+        
+        rest[0] = BigInteger.valueOf(result);
+        
+        for (int j = i; j < values.length; j++) {
+          rest[j - i + 1] = BigInteger.valueOf(values[j]);
+        }
+        
+        return Multiples.lcm(rest);
+      }
+      
+      result *= factor;
+    }
+    
+    return BigInteger.valueOf(result);
+  }
+  
+  /**
+   * Combines a range of non-zero values into their least common multiple, splitting large ranges in half.
+   */
+  private static final class LcmTask extends RecursiveTask<BigInteger> {
+    
+    private static final long serialVersionUID = 3169000416374562305L;
+    
+    private final BigInteger[] values;
+    private final int from;
+    private final int to;
+    
+    LcmTask(BigInteger[] values, int from, int to) {
+      this.values = values;
+      this.from = from;
+      this.to = to;
+    }
+    
+    @Override
+    protected BigInteger compute() {
+      if (to - from <= 2) {
+        BigInteger result = BigInteger.ONE;
+        
+        for (int i = from; i < to; i++) {
+          result = Multiples.lcmOfNonZero(result, values[i]);
+        }
+        
+        return result;
+      }
+      
+      final int middle = (from + to) >>> 1;
+      final LcmTask left = new LcmTask(values, from, middle);
+      final LcmTask right = new LcmTask(values, middle, to);
+      
+      if (to - from >= Factors.PARALLEL_THRESHOLD) {
+        right.fork();
+        
+        final BigInteger leftResult = left.compute();
+        
+        return Multiples.lcmOfNonZero(leftResult, right.join());
+      }
+      
+      return Multiples.lcmOfNonZero(left.compute(), right.compute());
+    }
+    
+  }
+  
+  private static BigInteger lcmOfNonZero(BigInteger left, BigInteger right) {
+    final BigInteger a = left.abs();
+    final BigInteger b = right.abs();
+    
+    if (a.equals(BigInteger.ONE)) {
+      return b;
+    }
+    
+    if (b.equals(BigInteger.ONE) || a.equals(b)) {
+      return a;
+    }
+    
+    return a.divide(Factors.greatestCommonFactor(a, b)).multiply(b);
+  }
+  
+  /**
+   * Combines a residue modulo a {@link BigInteger} modulus with a residue modulo a prime by the Chinese remainder theorem.
+   * @param residue residue in [0, modulus)
+   * @param modulus positive modulus, coprime to prime
+   * @param r residue in [0, prime)
+   * @param prime prime modulus, less than 2<sup>31</sup>
+   * @return the residue in [0, modulus * prime) congruent to residue modulo modulus and to r modulo prime
+   */
+  public static BigInteger chineseRemainder(BigInteger residue, BigInteger modulus, long r, long prime) {
+    final BigInteger p = BigInteger.valueOf(prime);
+    final long residueModPrime = residue.mod(p).longValue();
+    final long inverse = Factors.modularInverse(modulus.mod(p).longValue(), prime);
+    final long k = (((r - residueModPrime) % prime + prime) % prime) * inverse % prime;
+
+    return k == 0 ? residue : residue.add(modulus.multiply(BigInteger.valueOf(k)));
+  }
+
 }
@@ -1,5 +1,6 @@
 package net.sf.javanumbers;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
@@ -53,8 +54,18 @@ public class Rational extends Number implements Comparable<Rational> {
   private final boolean isRational;
   private final boolean isComplex;
 
-  private int scale;
-  private RoundingMode roundingMode;
+  private final int scale;
+  private final RoundingMode roundingMode;
+
+  /*
+   * Lazily computed values derived from the otherwise immutable state of this Rational. These use the racy single-check
+   * idiom: each slot is read once into a local, and a concurrent duplicate computation is harmless because the result is
+   * always the same. The objects stored are themselves immutable, so they are safely published through the race.
+   */
+  private transient Rational reduced;
+  private transient BigDecimal bigDecimalValue;
+  private transient Double doubleValue;
+  private transient int hash;
   
   public Rational(BigDecimal n, BigDecimal d) {
     if (n == null || d == null) {
@@ -105,6 +116,10 @@ public class Rational extends Number implements Comparable<Rational> {
     isComplex = r.isComplex;
     scale = r.scale;
     roundingMode = r.roundingMode;
+    reduced = r.reduced;
+    bigDecimalValue = r.bigDecimalValue;
+    doubleValue = r.doubleValue;
+    hash = r.hash;
   }
   
   /**
@@ -161,7 +176,7 @@ public class Rational extends Number implements Comparable<Rational> {
    * @return whether this Rational is less than zero.
    */
   public boolean isNegative() {
-    return numerator.compareTo(BigDecimal.ZERO) < 0;
+    return numerator.signum() < 0;
   }
   
   /**
@@ -177,9 +192,7 @@ public class Rational extends Number implements Comparable<Rational> {
    * @return A new Rational with the newly set scale.
    */
   public Rational setScale(int scale) {
-    this.scale = scale;
-    
-    return new Rational(this);
+    return new Rational(numerator, denominator, isRational, isComplex, scale, roundingMode);
   }
   
   /**
@@ -195,18 +208,24 @@ public class Rational extends Number implements Comparable<Rational> {
    * @return A new Rational with the newly set rounding mode.
    */
   public Rational setRoundingMode(RoundingMode roundingMode) {
-    final Rational newRational = new Rational(this);
-    newRational.roundingMode = roundingMode;
-    
-    return newRational;
+    return new Rational(numerator, denominator, isRational, isComplex, scale, roundingMode);
   }
   
   /**
-   * Reduces this Rational to an integer-based rational, and attempts to reduce by division.
+   * Reduces this Rational to an integer-based rational, and attempts to reduce by division. The reduced form is computed
+   * once and remembered, so repeated calls on the same Rational are cheap.
    * @return A new Rational reduced.
    */
   public Rational reduce() {
-    return Reducer.reduce(this);
+    Rational r = reduced;
+    
+    if (r == null) {
+      r = Reducer.reduce(this);
+      r.reduced = r;
+      reduced = r;
+    }
+    
+    return r;
   }
   
   /**
@@ -216,6 +235,10 @@ public class Rational extends Number implements Comparable<Rational> {
    */
   @Destructive("Uses LCM of the denominators which must be converted to BigIntegers in order to operate.")
   public Rational add(Rational r) {
+    if (RationalMetrics.isEnabled()) {
+      RationalMetrics.record(RationalMetrics.Operation.ADD, Math.max(bitLength(), r.bitLength()));
+    }
+    
     Rational newThis = this.reduce();
     Rational otherR = r.reduce();
     
@@ -227,7 +250,7 @@ public class Rational extends Number implements Comparable<Rational> {
       newThis = new Rational(newThis.numerator.multiply(otherR.denominator), newThis.denominator.multiply(otherR.denominator));
     }
     
-    final BigDecimal lcm = new BigDecimal(Multiples.leastCommonMultiple(newThis.denominator.toBigInteger(), otherR.denominator.toBigInteger()));
+    final BigDecimal lcm = new BigDecimal(GcdCache.leastCommonMultiple(newThis.denominator.toBigInteger(), otherR.denominator.toBigInteger()));
     final BigDecimal leftNumerator = newThis.numerator.multiply(lcm.divide(newThis.denominator));
     final BigDecimal rightNumerator = otherR.numerator.multiply(lcm.divide(otherR.denominator));
     
@@ -249,6 +272,10 @@ public class Rational extends Number implements Comparable<Rational> {
    * @return A new Rational containing the value of the product of this and r.
    */
   public Rational multiply(Rational r) {
+    if (RationalMetrics.isEnabled()) {
+      RationalMetrics.record(RationalMetrics.Operation.MULTIPLY, Math.max(bitLength(), r.bitLength()));
+    }
+    
     return new Rational(
       this.numerator.multiply(r.numerator),
       this.denominator.multiply(r.denominator),
@@ -270,6 +297,77 @@ public class Rational extends Number implements Comparable<Rational> {
     return multiply(invertedR);
   }
   
+  /**
+   * Adds the product of two Rational values to this, resulting in a single Rational value. The sum is formed over one
+   * common denominator and reduced once, rather than reducing after both the multiplication and the addition.
+   * @param a {@link Rational} value
+   * @param b {@link Rational} value
+   * @return A new Rational containing the value of this + a * b.
+   */
+  public Rational multiplyAdd(Rational a, Rational b) {
+    final BigInteger[] sum = integerParts();
+    
+    Rational.accumulateProduct(sum, a.integerParts(), b.integerParts());
+    
+    return Reducer.reduceWholeNumbers(sum[0], sum[1]);
+  }
+  
+  /**
+   * Finds the sum of the pairwise products of two arrays of Rational values, over one common denominator and with a
+   * single reduction at the end.
+   * @param xs {@link Rational} values
+   * @param ys {@link Rational} values, as many as xs
+   * @throws IllegalArgumentException if the arrays differ in length.
+   * @return A new Rational containing the value of xs[0] * ys[0] + xs[1] * ys[1] + ...
+   */
+  public static Rational dot(Rational[] xs, Rational[] ys) throws IllegalArgumentException {
+    if (xs.length != ys.length) {
+      throw new IllegalArgumentException("Arrays must be of equal length.");
+    }
+    
+    final BigInteger[] sum = new BigInteger[] { BigInteger.ZERO, BigInteger.ONE };
+    
+    for (int i = 0; i < xs.length; i++) {
+      Rational.accumulateProduct(sum, xs[i].integerParts(), ys[i].integerParts());
+    }
+    
+    return Reducer.reduceWholeNumbers(sum[0], sum[1]);
+  }
+  
+  /**
+   * Finds a1 * b1 + a2 * b2 over one common denominator and with a single reduction at the end.
+   * @return A new Rational containing the value of the linear combination.
+   */
+  public static Rational linearCombination(Rational a1, Rational b1, Rational a2, Rational b2) {
+    return Rational.dot(new Rational[] { a1, a2 }, new Rational[] { b1, b2 });
+  }
+  
+  /**
+   * Finds a1 * b1 + a2 * b2 + a3 * b3 over one common denominator and with a single reduction at the end.
+   * @return A new Rational containing the value of the linear combination.
+   */
+  public static Rational linearCombination(Rational a1, Rational b1, Rational a2, Rational b2, Rational a3, Rational b3) {
+    return Rational.dot(new Rational[] { a1, a2, a3 }, new Rational[] { b1, b2, b3 });
+  }
+  
+  /**
+   * Finds the least common denominator of many Rational values, as the least common multiple of their denominators in
+   * lowest terms.
+   * @param values {@link Rational} values
+   * @return the positive least common denominator, one if there are no values
+   */
+  public static BigInteger commonDenominator(Rational... values) {
+    final BigInteger[] denominators = new BigInteger[values.length];
+    
+    for (int i = 0; i < values.length; i++) {
+      final BigInteger[] parts = values[i].integerParts();
+      
+      denominators[i] = parts[1].divide(Factors.greatestCommonFactor(parts[0], parts[1]));
+    }
+    
+    return Multiples.lcm(denominators);
+  }
+  
   /**
    * Returns the square root of this Rational.
    * @throws IllegalStateException When precision is lost in converting between BigDecimal and double.
@@ -281,7 +379,11 @@ public class Rational extends Number implements Comparable<Rational> {
     
     if (new BigDecimal(r.numerator.doubleValue()).compareTo(r.numerator) == 0 &&
         new BigDecimal(r.denominator.doubleValue()).compareTo(r.denominator) == 0) {
-      return new Rational(Math.sqrt(r.numerator.doubleValue()), Math.sqrt(r.denominator.doubleValue()));
+      final Rational root = new Rational(Math.sqrt(r.numerator.doubleValue()), Math.sqrt(r.denominator.doubleValue()));
+      
+      RationalEvents.squareRoot(r, root);
+      
+      return root;
     }
     
     throw new IllegalStateException("Cannot maintain precision of number in calculating sqaure roots. "
@@ -309,6 +411,108 @@ public class Rational extends Number implements Comparable<Rational> {
     return new Rational(n, d);
   }
   
+  /**
+   * @return the greatest integer less than or equal to this Rational.
+   */
+  public BigInteger floor() {
+    return round(RoundingMode.FLOOR);
+  }
+  
+  /**
+   * @return the least integer greater than or equal to this Rational.
+   */
+  public BigInteger ceil() {
+    return round(RoundingMode.CEILING);
+  }
+  
+  /**
+   * Rounds this Rational to an integer. The quotient and remainder of the numerator and denominator are found with a
+   * single integer division, in <code>long</code> arithmetic when both fit, and the remainder alone decides the rounding.
+   * @param mode {@link RoundingMode} to apply
+   * @throws ArithmeticException if mode is {@link RoundingMode#UNNECESSARY} and this Rational is not an integer.
+   * @return this Rational rounded to an integer.
+   */
+  public BigInteger round(RoundingMode mode) throws ArithmeticException {
+    final BigInteger[] parts = integerParts();
+    final BigInteger n = parts[0];
+    final BigInteger d = parts[1];
+    
+    final boolean fast = n.bitLength() < 63 && d.bitLength() < 63;
+    
+    RationalMetrics.recordPath(fast);
+    
+    if (fast) {
+      final long ln = n.longValue();
+      final long ld = d.longValue();
+      final long q = ln / ld;
+      final long r = Math.abs(ln % ld);
+      
+      if (r == 0) {
+        return BigInteger.valueOf(q);
+      }
+      
+      final long rest = ld - r;
+      final int halfComparison = r < rest ? -1 : (r == rest ? 0 : 1);
+      
+      return BigInteger.valueOf(q + Rational.roundingIncrement(mode, ln < 0 ? -1 : 1, halfComparison, (q & 1) != 0));
+    }
+    
+    final BigInteger[] qr = n.divideAndRemainder(d);
+    
+    if (qr[1].signum() == 0) {
+      return qr[0];
+    }
+    
+    final BigInteger r = qr[1].abs();
+    final int halfComparison = r.compareTo(d.subtract(r));
+    final int increment = Rational.roundingIncrement(mode, n.signum(), halfComparison, qr[0].testBit(0));
+    
+    return increment == 0 ? qr[0] : qr[0].add(BigInteger.valueOf(increment));
+  }
+  
+  /**
+   * @return this Rational less its {@link #floor()}, always at least zero and less than one.
+   */
+  public Rational fractionalPart() {
+    final BigInteger[] parts = integerParts();
+    
+    return new Rational(parts[0].subtract(floor().multiply(parts[1])), parts[1]);
+  }
+  
+  /**
+   * Divides this Rational by another, truncating the quotient to an integer in the same way as
+   * {@link BigInteger#divideAndRemainder(BigInteger)}.
+   * @param r {@link Rational} divisor
+   * @throws ArithmeticException if r is zero.
+   * @return an array of the integer quotient followed by the remainder, which has the sign of this Rational.
+   */
+  public Rational[] divideAndRemainder(Rational r) throws ArithmeticException {
+    final BigInteger[] left = integerParts();
+    final BigInteger[] right = r.integerParts();
+    final BigInteger[] qr = Rational.divideAndRemainder(left, right);
+    
+    return new Rational[] { Rational.valueOf(qr[0]), new Rational(qr[1], left[1].multiply(right[1])) };
+  }
+  
+  /**
+   * Finds this Rational modulo a positive Rational in the same way as {@link BigInteger#mod(BigInteger)}.
+   * @param m {@link Rational} modulus
+   * @throws ArithmeticException if m is not positive.
+   * @return a Rational at least zero and less than m.
+   */
+  public Rational mod(Rational m) throws ArithmeticException {
+    if (m.numerator.signum() * m.denominator.signum() <= 0) {
+      throw new ArithmeticException("Modulus must be positive.");
+    }
+    
+    final BigInteger[] left = integerParts();
+    final BigInteger[] right = m.integerParts();
+    final BigInteger[] qr = Rational.divideAndRemainder(left, right);
+    final BigInteger remainder = qr[1].signum() < 0 ? qr[1].add(right[0].multiply(left[1])) : qr[1];
+    
+    return new Rational(remainder, left[1].multiply(right[1]));
+  }
+  
   @Override
   public int compareTo(Rational r) {
     final BigDecimal subtractionResult = reduce().subtract(r.reduce()).bigDecimalValue();
@@ -318,18 +522,23 @@ public class Rational extends Number implements Comparable<Rational> {
   
   @Destructive("This will truncate to the number of decimal places set by the scale the quotient of the numerator and the denominator.")
   public BigDecimal bigDecimalValue() {
-    try {
-      return numerator.divide(denominator);
-    } catch (ArithmeticException e) {
-      return numerator.divide(denominator, scale, roundingMode);
-    }
+    recordConversion();
+    
+    final BigDecimal value = quotient();
+    
+    RationalEvents.conversion("bigDecimalValue", this, value);
+    
+    return value;
   }
   
   @Destructive("This will truncate any decimal portion of the quotient of the numerator and the denominator.")
   public BigInteger bigIntegerValue() {
+    recordConversion();
+    
     try {
       return numerator.divide(denominator).toBigInteger();
     } catch (ArithmeticException e) {
+      RationalMetrics.recordFallback();
       return numerator.divide(denominator, scale, roundingMode).toBigInteger();
     }
   }
@@ -337,25 +546,41 @@ public class Rational extends Number implements Comparable<Rational> {
   @Destructive("This will truncate any decimal portion to the limit of decimal places set by the JVM for double values.")
   @Override
   public double doubleValue() {
-    try {
-      return numerator.divide(denominator).doubleValue();
-    } catch (ArithmeticException e) {
-      return numerator.divide(denominator, scale, roundingMode).doubleValue();
+    recordConversion();
+    
+    Double value = doubleValue;
+    
+    if (value == null) {
+      value = Double.valueOf(quotient().doubleValue());
+      doubleValue = value;
     }
+    
+    RationalEvents.conversion("doubleValue", this, value.doubleValue());
+    
+    return value.doubleValue();
   }
   
   @Destructive("This will truncate any decimal portion to the limit of decimal places set by the JVM for float values.")
   @Override
   public float floatValue() {
-    return numerator.divide(denominator, scale, roundingMode).floatValue();
+    recordConversion();
+    
+    final float value = numerator.divide(denominator, scale, roundingMode).floatValue();
+    
+    RationalEvents.conversion("floatValue", this, value);
+    
+    return value;
   }
   
   @Destructive("This will truncate any decimal portion of the quotient of the numerator and the denominator.")
   @Override
   public int intValue() {
+    recordConversion();
+    
     try {
       return numerator.divide(denominator).intValue();
     } catch (ArithmeticException e) {
+      RationalMetrics.recordFallback();
       return numerator.divide(denominator, scale, roundingMode).intValue();
     }
   }
@@ -363,13 +588,49 @@ public class Rational extends Number implements Comparable<Rational> {
   @Destructive("This will truncate any decimal portion of the quotient of the numerator and the denominator.")
   @Override
   public long longValue() {
+    recordConversion();
+    
     try {
       return numerator.divide(denominator).longValue();
     } catch (ArithmeticException e) {
+      RationalMetrics.recordFallback();
       return numerator.divide(denominator, scale, roundingMode).longValue();
     }
   }
   
+  /**
+   * @return the largest of the bit lengths of the unscaled numerator and denominator.
+   */
+  int bitLength() {
+    return Math.max(numerator.unscaledValue().bitLength(), denominator.unscaledValue().bitLength());
+  }
+  
+  /**
+   * The exact quotient if it terminates, otherwise the quotient rounded to scale, computed once and remembered.
+   */
+  private BigDecimal quotient() {
+    BigDecimal value = bigDecimalValue;
+    
+    if (value == null) {
+      try {
+        value = numerator.divide(denominator);
+      } catch (ArithmeticException e) {
+        RationalMetrics.recordFallback();
+        value = numerator.divide(denominator, scale, roundingMode);
+      }
+      
+      bigDecimalValue = value;
+    }
+    
+    return value;
+  }
+  
+  private void recordConversion() {
+    if (RationalMetrics.isEnabled()) {
+      RationalMetrics.record(RationalMetrics.Operation.CONVERSION, bitLength());
+    }
+  }
+  
   /**
    * Ensures that the negative value is in the numerator if it is currently in the denominator, and that -x/-y 
    * is transformed into x/y.
@@ -383,6 +644,140 @@ public class Rational extends Number implements Comparable<Rational> {
     return new Pair<BigDecimal, BigDecimal>(n, d);
   }
   
+  /**
+   * Scales the numerator and denominator of this Rational to a common scale so that both are whole numbers, without
+   * reducing, and moves any negative sign to the numerator.
+   * @return an array of the whole number numerator followed by the positive whole number denominator
+   */
+  BigInteger[] integerParts() {
+    final int commonScale = Math.max(Math.max(numerator.scale(), denominator.scale()), 0);
+    final BigInteger n = numerator.setScale(commonScale).unscaledValue();
+    final BigInteger d = denominator.setScale(commonScale).unscaledValue();
+    
+    return d.signum() < 0 ? new BigInteger[] { n.negate(), d.negate() } : new BigInteger[] { n, d };
+  }
+  
+  /**
+   * @return an array of the numerator and positive denominator of this Rational in lowest terms, the same for every
+   * Rational of the same value
+   */
+  BigInteger[] lowestTerms() {
+    final BigInteger[] parts = integerParts();
+    final BigInteger gcf = Factors.greatestCommonFactor(parts[0], parts[1]);
+    
+    if (!gcf.equals(BigInteger.ONE)) {
+      parts[0] = parts[0].divide(gcf);
+      parts[1] = parts[1].divide(gcf);
+    }
+    
+    return parts;
+  }
+  
+  /**
+   * Divides one fraction, given as whole number parts, by another, truncating the quotient.
+   * @param left numerator and positive denominator of the dividend
+   * @param right numerator and positive denominator of the divisor
+   * @return the integer quotient followed by the numerator of the remainder over left[1] * right[1]
+   */
+  static BigInteger[] divideAndRemainder(BigInteger[] left, BigInteger[] right) {
+    if (right[0].signum() == 0) {
+      throw new ArithmeticException("Division by zero.");
+    }
+    
+    final boolean fast = left[0].bitLength() + right[1].bitLength() < 63 && left[1].bitLength() + right[0].bitLength() < 63;
+    
+    RationalMetrics.recordPath(fast);
+    
+    if (fast) {
+      final long n = left[0].longValue() * right[1].longValue();
+      final long d = left[1].longValue() * right[0].longValue();
+      
+      return new BigInteger[] { BigInteger.valueOf(n / d), BigInteger.valueOf(n % d) };
+    }
+    
+    return left[0].multiply(right[1]).divideAndRemainder(left[1].multiply(right[0]));
+  }
+  
+  /**
+   * Adds the product of two fractions, given as whole number parts, into a running sum without reducing.
+   * @param sum numerator and positive denominator of the running sum, updated in place
+   * @param x numerator and positive denominator of the first factor
+   * @param y numerator and positive denominator of the second factor
+   */
+  static void accumulateProduct(BigInteger[] sum, BigInteger[] x, BigInteger[] y) {
+    final BigInteger n = x[0].multiply(y[0]);
+    
+    if (n.signum() != 0) {
+      Rational.accumulate(sum, n, x[1].multiply(y[1]));
+    }
+  }
+  
+  /**
+   * Adds a fraction, given as whole number parts, into a running sum without reducing. The sum's denominator is kept at
+   * the least common multiple of the denominators seen so far.
+   * @param sum numerator and positive denominator of the running sum, updated in place
+   * @param n whole number numerator
+   * @param d positive whole number denominator
+   */
+  static void accumulate(BigInteger[] sum, BigInteger n, BigInteger d) {
+    if (n.signum() == 0) {
+      return;
+    }
+    
+    if (d.equals(sum[1])) {
+      sum[0] = sum[0].add(n);
+      return;
+    }
+    
+    final BigInteger gcf = Factors.greatestCommonFactor(sum[1], d);
+    final BigInteger sumFactor = d.divide(gcf);
+    
+    sum[0] = sum[0].multiply(sumFactor).add(n.multiply(sum[1].divide(gcf)));
+    sum[1] = sum[1].multiply(sumFactor);
+  }
+  
+  /**
+   * Decides whether a quotient truncated toward zero must move one further away from zero to honor a rounding mode. The
+   * remainder is known to be non-zero.
+   * @param mode {@link RoundingMode} to apply
+   * @param sign the sign of the exact value
+   * @param halfComparison the comparison of the absolute remainder with its distance from the denominator, negative
+   * when the value is nearer the truncated quotient and zero when it is exactly halfway
+   * @param oddQuotient whether the truncated quotient is odd
+   * @return <code>sign</code> if the quotient must move away from zero, otherwise <code>0</code>
+   */
+  static int roundingIncrement(RoundingMode mode, int sign, int halfComparison, boolean oddQuotient) {
+    final boolean away;
+    
+    switch (mode) {
+      case UP:
+        away = true;
+        break;
+      case DOWN:
+        away = false;
+        break;
+      case CEILING:
+        away = sign > 0;
+        break;
+      case FLOOR:
+        away = sign < 0;
+        break;
+      case HALF_UP:
+        away = halfComparison >= 0;
+        break;
+      case HALF_DOWN:
+        away = halfComparison > 0;
+        break;
+      case HALF_EVEN:
+        away = halfComparison > 0 || (halfComparison == 0 && oddQuotient);
+        break;
+      default:
+        throw new ArithmeticException("Rounding necessary.");
+    }
+    
+    return away ? sign : 0;
+  }
+  
   /**
    * Compares two values for equality.
    * 
@@ -402,6 +797,23 @@ public class Rational extends Number implements Comparable<Rational> {
         (reducedLeft.doubleValue() == reducedRight.doubleValue());
   }
   
+  /**
+   * Compares two values exactly by cross-multiplying their whole number numerators and denominators.
+   * @param left {@link Rational} value
+   * @param right {@link Rational} value
+   * @return a negative number, zero or a positive number as left is less than, equal to or greater than right
+   */
+  static int compareExactly(Rational left, Rational right) {
+    final BigInteger[] l = left.integerParts();
+    final BigInteger[] r = right.integerParts();
+    
+    if (l[0].signum() != r[0].signum()) {
+      return l[0].signum() - r[0].signum();
+    }
+    
+    return l[1].equals(r[1]) ? l[0].compareTo(r[0]) : l[0].multiply(r[1]).compareTo(r[0].multiply(l[1]));
+  }
+  
   /**
    * If the denominator of a Rational is zero then throw an {@link ArithmeticExcetion}.
    * @param d
@@ -497,16 +909,44 @@ public class Rational extends Number implements Comparable<Rational> {
     throw new NumberFormatException("Rational value was not well formatted as [-]x/[-]y.");
   }
   
+  /**
+   * Writes this Rational in the same n/d form as {@link #toString()} directly to out.
+   * @param out {@link Appendable} to write to
+   * @return out
+   * @throws IOException if out does
+   */
+  public <A extends Appendable> A appendTo(A out) throws IOException {
+    out.append(numerator.toString()).append('/').append(denominator.toString());
+    
+    return out;
+  }
+  
+  /**
+   * Streams the decimal expansion of this Rational digit by digit, detecting the repeating block, so that any number of
+   * digits can be produced without choosing a scale up front.
+   * @return a new {@link DecimalDigits} positioned at the first fractional digit.
+   */
+  public DecimalDigits decimalDigits() {
+    return new DecimalDigits(this);
+  }
+  
   @Override
   public String toString() {
-    return String.format("%1$s/%2$s", numerator, denominator);
+    final String n = numerator.toString();
+    final String d = denominator.toString();
+    
+    return new StringBuilder(n.length() + d.length() + 1).append(n).append('/').append(d).toString();
   }
   
   @Override
   public int hashCode() {
-    int result = 53;
+    int result = hash;
     
-    result = (int) (37 * result + Double.doubleToLongBits(this.doubleValue()));
+    if (result == 0) {
+      result = 53;
+      result = (int) (37 * result + Double.doubleToLongBits(this.doubleValue()));
+      hash = result;
+    }
     
     return result;
   }
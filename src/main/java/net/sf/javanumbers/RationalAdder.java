@@ -0,0 +1,244 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * An exact running total of {@link Rational} values that many threads can add to at once, modeled on
+ * {@link java.util.concurrent.atomic.LongAdder}. While threads do not contend, additions go to a single base cell; once
+ * they do, each thread is spread over a set of striped cells, one per processor, so that threads rarely update the same
+ * cell. Each cell holds an unreduced fraction in <code>long</code> arithmetic, replaced by compare-and-set, and moves to
+ * {@link BigInteger} arithmetic only when a sum no longer fits. {@link #sum()} merges the cells over their least common
+ * denominator and reduces once.
+ *
+ * The sum is exact, but like {@link java.util.concurrent.atomic.LongAdder#sum()} it is not an atomic snapshot when
+ * additions are made while it is taken.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public final class RationalAdder {
+  
+  private static final int STRIPES = Integer.highestOneBit(Math.max(Runtime.getRuntime().availableProcessors() * 2 - 1, 1));
+  
+  /**
+   * Each thread's current stripe, moved on whenever a compare-and-set fails.
+   */
+  private static final ThreadLocal<int[]> PROBE = new ThreadLocal<int[]>() {
+    @Override
+    protected int[] initialValue() {
+      final int hash = (int) (Thread.currentThread().getId() * 0x9E3779B97F4A7C15L >>> 32);
+      
+      return new int[] { hash == 0 ? 1 : hash };
+    }
+  };
+  
+  private final AtomicReference<Cell> base = new AtomicReference<Cell>(Cell.ZERO);
+  private volatile AtomicReferenceArray<Cell> cells;
+  
+  /**
+   * Adds a value to the total.
+   * @param value {@link Rational} value
+   */
+  public void add(Rational value) {
+    final BigInteger[] parts = value.integerParts();
+    
+    if (parts[0].signum() == 0) {
+      return;
+    }
+    
+    AtomicReferenceArray<Cell> stripes = cells;
+    
+    if (stripes == null) {
+      final Cell current = base.get();
+      
+      if (base.compareAndSet(current, current.plus(parts[0], parts[1]))) {
+        return;
+      }
+      
+      stripes = stripes();
+    }
+    
+    final int[] probe = PROBE.get();
+    
+    for (;;) {
+      final int i = probe[0] & (stripes.length() - 1);
+      final Cell current = stripes.get(i);
+      
+      if (stripes.compareAndSet(i, current, current.plus(parts[0], parts[1]))) {
+        return;
+      }
+      
+      probe[0] ^= probe[0] << 13;
+      probe[0] ^= probe[0] >>> 17;
+      probe[0] ^= probe[0] << 5;
+    }
+  }
+  
+  /**
+   * @return the exact, reduced total of the values added since creation or the last reset.
+   */
+  public Rational sum() {
+    final BigInteger[] sum = new BigInteger[] { BigInteger.ZERO, BigInteger.ONE };
+    final AtomicReferenceArray<Cell> stripes = cells;
+    
+    base.get().addTo(sum);
+    
+    if (stripes != null) {
+      for (int i = 0; i < stripes.length(); i++) {
+        stripes.get(i).addTo(sum);
+      }
+    }
+    
+    return Reducer.reduceWholeNumbers(sum[0], sum[1]);
+  }
+  
+  /**
+   * Sets the total back to zero. Additions made while resetting may be lost.
+   */
+  public void reset() {
+    sumThenReset();
+  }
+  
+  /**
+   * Finds the total and sets it back to zero, as if by {@link #sum()} followed by {@link #reset()}, except that every
+   * addition is counted either in the returned total or in the next one.
+   * @return the exact, reduced total before the reset.
+   */
+  public Rational sumThenReset() {
+    final BigInteger[] sum = new BigInteger[] { BigInteger.ZERO, BigInteger.ONE };
+    final AtomicReferenceArray<Cell> stripes = cells;
+    
+    base.getAndSet(Cell.ZERO).addTo(sum);
+    
+    if (stripes != null) {
+      for (int i = 0; i < stripes.length(); i++) {
+        stripes.getAndSet(i, Cell.ZERO).addTo(sum);
+      }
+    }
+    
+    return Reducer.reduceWholeNumbers(sum[0], sum[1]);
+  }
+  
+  @Override
+  public String toString() {
+    return sum().toString();
+  }
+  
+  private synchronized AtomicReferenceArray<Cell> stripes() {
+    if (cells == null) {
+      final AtomicReferenceArray<Cell> stripes = new AtomicReferenceArray<Cell>(STRIPES);
+      
+      for (int i = 0; i < STRIPES; i++) {
+        stripes.set(i, Cell.ZERO);
+      }
+      
+      cells = stripes;
+    }
+    
+    return cells;
+  }
+  
+  /**
+   * An immutable, unreduced fraction with a positive denominator, held in <code>long</code> arithmetic while it fits and
+   * otherwise in {@link BigInteger} arithmetic.
+   */
+  private static final class Cell {
+    
+    static final Cell ZERO = new Cell(0, 1);
+    
+    private final long n;
+    private final long d;
+    private final BigInteger bigN;
+    private final BigInteger bigD;
+    
+    Cell(long n, long d) {
+      this.n = n;
+      this.d = d;
+      this.bigN = null;
+      this.bigD = null;
+    }
+    
+    Cell(BigInteger n, BigInteger d) {
+      this.n = 0;
+      this.d = 0;
+      this.bigN = n;
+      this.bigD = d;
+    }
+    
+    Cell plus(BigInteger addN, BigInteger addD) {
+      if (bigN == null && addN.bitLength() < Long.SIZE && addD.bitLength() < Long.SIZE) {
+        final Cell sum = plus(addN.longValue(), addD.longValue());
+        
+        if (sum != null) {
+          return sum;
+        }
+      }
+      
+      final BigInteger[] sum = bigN == null
+        ? new BigInteger[] { BigInteger.valueOf(n), BigInteger.valueOf(d) }
+        : new BigInteger[] { bigN, bigD };
+      
+      Rational.accumulate(sum, addN, addD);
+      
+      return new Cell(sum[0], sum[1]);
+    }
+    
+    /**
+     * @return the sum in <code>long</code> arithmetic, or <code>null</code> if it overflows
+     */
+    private Cell plus(long addN, long addD) {
+      try {
+        if (addD == d) {
+          return new Cell(Math.addExact(n, addN), d);
+        }
+        
+        final long gcf = Factors.gcd(d, addD);
+        final long sumN = Math.addExact(Math.multiplyExact(n, addD / gcf), Math.multiplyExact(addN, d / gcf));
+        final long sumD = Math.multiplyExact(d / gcf, addD);
+        final long common = Factors.gcd(sumN, gcf);
+        
+        return common > 1 ? new Cell(sumN / common, sumD / common) : new Cell(sumN, sumD);
+      }
+      catch (ArithmeticException e) {
+        return null;
+      }
+    }
+    
+    void addTo(BigInteger[] sum) {
+      if (bigN == null) {
+        Rational.accumulate(sum, BigInteger.valueOf(n), BigInteger.valueOf(d));
+      }
+      else {
+        Rational.accumulate(sum, bigN, bigD);
+      }
+    }
+    
+  }
+  
+}
@@ -0,0 +1,228 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * Internal class that emits Java Flight Recorder events: one whenever a {@link Destructive} conversion or square root
+ * actually loses precision, and one whenever a reduction or a greatest common factor of large values takes longer than
+ * a threshold, 10 ms unless the recording says otherwise. Deciding whether precision was lost costs an exact comparison,
+ * which is made only while a recording has the event enabled. On a JVM without <code>jdk.jfr</code> nothing is emitted.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+abstract class RationalEvents {
+  
+  static final boolean AVAILABLE = RationalEvents.jfrAvailable();
+  
+  /**
+   * Emits a precision loss event if a recording wants one and the quotient is not exactly value.
+   * @param method the name of the lossy method
+   * @param value {@link Rational} that was converted
+   * @param quotient the result of the conversion
+   */
+  static void conversion(String method, Rational value, BigDecimal quotient) {
+    if (AVAILABLE) {
+      final PrecisionLoss event = new PrecisionLoss();
+      
+      if (event.isEnabled() && Rational.compareExactly(Rational.valueOf(quotient), value) != 0) {
+        event.commit(method, value);
+      }
+    }
+  }
+  
+  /**
+   * Emits a precision loss event if a recording wants one and the quotient is not exactly value.
+   * @param method the name of the lossy method
+   * @param value {@link Rational} that was converted
+   * @param quotient the result of the conversion; an infinite or NaN quotient, from a value beyond the range of the
+   * floating point type, always counts as a loss
+   */
+  static void conversion(String method, Rational value, double quotient) {
+    if (AVAILABLE) {
+      final PrecisionLoss event = new PrecisionLoss();
+      
+      if (event.isEnabled() && (Double.isInfinite(quotient) || Double.isNaN(quotient)
+          || Rational.compareExactly(Rational.valueOf(new BigDecimal(quotient)), value) != 0)) {
+        event.commit(method, value);
+      }
+    }
+  }
+  
+  /**
+   * Emits a precision loss event if a recording wants one and root squared is not exactly value.
+   */
+  static void squareRoot(Rational value, Rational root) {
+    if (AVAILABLE) {
+      final PrecisionLoss event = new PrecisionLoss();
+      
+      if (event.isEnabled() && Rational.compareExactly(root.multiply(root), value) != 0) {
+        event.commit("sqrt", value);
+      }
+    }
+  }
+  
+  /**
+   * @return a started slow reduction event, or <code>null</code> on a JVM without <code>jdk.jfr</code>
+   */
+  static SlowReduce beginReduce() {
+    if (AVAILABLE) {
+      final SlowReduce event = new SlowReduce();
+      
+      event.begin();
+      
+      return event;
+    }
+    
+    return null;
+  }
+  
+  /**
+   * Commits a slow reduction event, which the recording drops unless it took longer than the threshold.
+   */
+  static void endReduce(SlowReduce event, Rational value) {
+    if (event != null && event.shouldCommit()) {
+      event.bitLength = value.bitLength();
+      event.commit();
+    }
+  }
+  
+  /**
+   * Commits a slow reduction event, which the recording drops unless it took longer than the threshold.
+   */
+  static void endReduce(SlowReduce event, BigInteger n, BigInteger d) {
+    if (event != null && event.shouldCommit()) {
+      event.bitLength = Math.max(n.bitLength(), d.bitLength());
+      event.commit();
+    }
+  }
+  
+  /**
+   * @return a started slow greatest common factor event, or <code>null</code> on a JVM without <code>jdk.jfr</code>
+   */
+  static SlowGcd beginGcd() {
+    if (AVAILABLE) {
+      final SlowGcd event = new SlowGcd();
+      
+      event.begin();
+      
+      return event;
+    }
+    
+    return null;
+  }
+  
+  /**
+   * Commits a slow greatest common factor event, which the recording drops unless it took longer than the threshold.
+   */
+  static void endGcd(SlowGcd event, BigInteger left, BigInteger right) {
+    if (event != null && event.shouldCommit()) {
+      event.leftBitLength = left.bitLength();
+      event.rightBitLength = right.bitLength();
+      event.commit();
+    }
+  }
+  
+  private static boolean jfrAvailable() {
+    try {
+      Class.forName("jdk.jfr.Event");
+      return true;
+    }
+    catch (ClassNotFoundException e) {
+      return false;
+    }
+    catch (LinkageError e) {
+      return false;
+    }
+  }
+  
+  @Name("net.sf.javanumbers.PrecisionLoss")
+  @Label("Precision Loss")
+  @Description("A lossy Rational operation returned a value different from the exact one")
+  @Category("Java Numbers")
+  @StackTrace(false)
+  static final class PrecisionLoss extends Event {
+    
+    @Label("Method")
+    String method;
+    
+    @Label("Numerator Bits")
+    int numeratorBitLength;
+    
+    @Label("Denominator Bits")
+    int denominatorBitLength;
+    
+    @Label("Scale")
+    int scale;
+    
+    void commit(String method, Rational value) {
+      this.method = method;
+      this.numeratorBitLength = value.getNumerator().unscaledValue().bitLength();
+      this.denominatorBitLength = value.getDenominator().unscaledValue().bitLength();
+      this.scale = value.scale();
+      commit();
+    }
+    
+  }
+  
+  @Name("net.sf.javanumbers.SlowReduce")
+  @Label("Slow Reduce")
+  @Description("Reducing a Rational to lowest terms took longer than the threshold")
+  @Category("Java Numbers")
+  @Threshold("10 ms")
+  static final class SlowReduce extends Event {
+    
+    @Label("Bit Length")
+    @Description("The larger of the bit lengths of the numerator and denominator")
+    int bitLength;
+    
+  }
+  
+  @Name("net.sf.javanumbers.SlowGcd")
+  @Label("Slow GCD")
+  @Description("A greatest common factor took longer than the threshold")
+  @Category("Java Numbers")
+  @Threshold("10 ms")
+  static final class SlowGcd extends Event {
+    
+    @Label("Left Bits")
+    int leftBitLength;
+    
+    @Label("Right Bits")
+    int rightBitLength;
+    
+  }
+  
+}
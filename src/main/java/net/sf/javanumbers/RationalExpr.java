@@ -0,0 +1,389 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * A lazily evaluated arithmetic expression over {@link Rational} values, built fluently, for example
+ * <code>RationalExpr.parameter(0).plus(x).times(y).minus(z)</code>. Building an expression only records its shape, so a
+ * fixed formula can be built once and evaluated against many sets of parameter values.
+ *
+ * Evaluation works on whole number numerators and denominators and never reduces an intermediate value. Chains of sums
+ * are flattened and added over one common denominator, chains of products are multiplied with common factors cancelled
+ * across numerators and denominators, and the result is reduced once at the end. An operand used in several places is
+ * evaluated once per evaluation. Independent operands of large expressions may be evaluated in parallel on a
+ * {@link ForkJoinPool}.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public final class RationalExpr {
+
+  /**
+   * Expressions with at least this many nodes are forked as separate tasks during parallel evaluation.
+   */
+  private static final int PARALLEL_THRESHOLD = 32;
+
+  private static final RationalExpr[] NO_OPERANDS = new RationalExpr[0];
+
+  private enum Kind {
+    CONSTANT, PARAMETER, NEGATE, RECIPROCAL, SUM, PRODUCT
+  }
+
+  private final Kind kind;
+  private final RationalExpr[] operands;
+  private final BigInteger[] constant;
+  private final int index;
+  private final int size;
+
+  private RationalExpr(Kind kind, RationalExpr[] operands, BigInteger[] constant, int index) {
+    int nodes = 1;
+
+    for (RationalExpr operand : operands) {
+      nodes += operand.size;
+    }
+
+    this.kind = kind;
+    this.operands = operands;
+    this.constant = constant;
+    this.index = index;
+    this.size = nodes < 0 ? Integer.MAX_VALUE : nodes;
+  }
+
+  /**
+   * @param value {@link Rational} value
+   * @return an expression that always evaluates to value.
+   */
+  public static RationalExpr constant(Rational value) {
+    return new RationalExpr(Kind.CONSTANT, NO_OPERANDS, value.reduce().integerParts(), -1);
+  }
+
+  /**
+   * @param index position of the value in the arguments given to {@link #evaluate(Rational...)}
+   * @return an expression that evaluates to the argument at index.
+   */
+  public static RationalExpr parameter(int index) {
+    if (index < 0) {
+      throw new IllegalArgumentException("Parameter index must not be negative.");
+    }
+
+    return new RationalExpr(Kind.PARAMETER, NO_OPERANDS, null, index);
+  }
+
+  public RationalExpr plus(RationalExpr e) {
+    return RationalExpr.combine(Kind.SUM, this, e);
+  }
+
+  public RationalExpr plus(Rational r) {
+    return plus(RationalExpr.constant(r));
+  }
+
+  public RationalExpr minus(RationalExpr e) {
+    return RationalExpr.combine(Kind.SUM, this, e.negate());
+  }
+
+  public RationalExpr minus(Rational r) {
+    return minus(RationalExpr.constant(r));
+  }
+
+  public RationalExpr times(RationalExpr e) {
+    return RationalExpr.combine(Kind.PRODUCT, this, e);
+  }
+
+  public RationalExpr times(Rational r) {
+    return times(RationalExpr.constant(r));
+  }
+
+  public RationalExpr dividedBy(RationalExpr e) {
+    return RationalExpr.combine(Kind.PRODUCT, this, e.unary(Kind.RECIPROCAL));
+  }
+
+  public RationalExpr dividedBy(Rational r) {
+    return dividedBy(RationalExpr.constant(r));
+  }
+
+  public RationalExpr negate() {
+    return unary(Kind.NEGATE);
+  }
+
+  /**
+   * Evaluates this expression on the calling thread.
+   * @param arguments values of the parameters, by index
+   * @throws IllegalArgumentException if a parameter has no argument.
+   * @throws ArithmeticException on division by zero.
+   * @return the reduced value of this expression.
+   */
+  public Rational evaluate(Rational... arguments) throws IllegalArgumentException, ArithmeticException {
+    final BigInteger[] value = evaluate(arguments, new IdentityHashMap<RationalExpr, BigInteger[]>(), null);
+
+    return Reducer.reduceWholeNumbers(value[0], value[1]);
+  }
+
+  /**
+   * Evaluates this expression on a {@link ForkJoinPool}, evaluating large independent operands in parallel.
+   * @param pool {@link ForkJoinPool} to evaluate on
+   * @param arguments values of the parameters, by index
+   * @throws IllegalArgumentException if a parameter has no argument.
+   * @throws ArithmeticException on division by zero.
+   * @return the reduced value of this expression.
+   */
+  public Rational evaluate(ForkJoinPool pool, Rational... arguments) throws IllegalArgumentException, ArithmeticException {
+    final Map<RationalExpr, BigInteger[]> memo = new ConcurrentHashMap<RationalExpr, BigInteger[]>();
+    final BigInteger[] value = pool.invoke(new EvaluationTask(this, arguments, memo));
+
+    return Reducer.reduceWholeNumbers(value[0], value[1]);
+  }
+
+  @Override
+  public String toString() {
+    switch (kind) {
+      case CONSTANT:
+        return constant[1].equals(BigInteger.ONE) ? constant[0].toString() : constant[0] + "/" + constant[1];
+      case PARAMETER:
+        return "$" + index;
+      case NEGATE:
+        return "-(" + operands[0] + ")";
+      case RECIPROCAL:
+        return "1/(" + operands[0] + ")";
+      default:
+        final StringBuilder sb = new StringBuilder("(");
+
+        for (int i = 0; i < operands.length; i++) {
+          if (i > 0) {
+            sb.append(kind == Kind.SUM ? " + " : " * ");
+          }
+
+          sb.append(operands[i]);
+        }
+
+        return sb.append(')').toString();
+    }
+  }
+
+  /**
+   * Builds a sum or product, flattening operands that are themselves sums or products of the same kind.
+   */
+  private static RationalExpr combine(Kind kind, RationalExpr left, RationalExpr right) {
+    final List<RationalExpr> flattened = new ArrayList<RationalExpr>();
+
+    for (RationalExpr e : new RationalExpr[] { left, right }) {
+      if (e.kind == kind) {
+        for (RationalExpr operand : e.operands) {
+          flattened.add(operand);
+        }
+      }
+      else {
+        flattened.add(e);
+      }
+    }
+
+    return new RationalExpr(kind, flattened.toArray(NO_OPERANDS), null, -1);
+  }
+
+  /**
+   * Builds a negation or reciprocal, cancelling it against an enclosing operation of the same kind. A reciprocal of a
+   * reciprocal is only cancelled when its operand is a non-zero constant, so that division by a zero operand still throws
+   * when the expression is evaluated.
+   */
+  private RationalExpr unary(Kind unaryKind) {
+    if (kind == unaryKind && (kind == Kind.NEGATE || operands[0].isNonZeroConstant())) {
+      return operands[0];
+    }
+
+    return new RationalExpr(unaryKind, new RationalExpr[] { this }, null, -1);
+  }
+
+  private boolean isNonZeroConstant() {
+    return kind == Kind.CONSTANT && constant[0].signum() != 0;
+  }
+
+  /**
+   * Evaluates this expression to an unreduced whole number numerator and positive denominator.
+   * @param arguments values of the parameters
+   * @param memo values of the operation nodes evaluated so far
+   * @param operandValues values of this node's operands if they were already evaluated, otherwise <code>null</code>
+   */
+  private BigInteger[] evaluate(Rational[] arguments, Map<RationalExpr, BigInteger[]> memo, BigInteger[][] operandValues) {
+    switch (kind) {
+      case CONSTANT:
+        return constant;
+      case PARAMETER:
+        if (index >= arguments.length) {
+          throw new IllegalArgumentException("No argument was given for parameter " + index + ".");
+        }
+
+        return arguments[index].integerParts();
+      default:
+        break;
+    }
+
+    BigInteger[] value = memo.get(this);
+
+    if (value != null) {
+      return value;
+    }
+
+    if (operandValues == null) {
+      operandValues = new BigInteger[operands.length][];
+
+      for (int i = 0; i < operands.length; i++) {
+        operandValues[i] = operands[i].evaluate(arguments, memo, null);
+      }
+    }
+
+    switch (kind) {
+      case NEGATE:
+        value = new BigInteger[] { operandValues[0][0].negate(), operandValues[0][1] };
+        break;
+      case RECIPROCAL:
+        final BigInteger[] operand = operandValues[0];
+
+        if (operand[0].signum() == 0) {
+          throw new ArithmeticException("Division by zero.");
+        }
+
+        value = operand[0].signum() < 0
+          ? new BigInteger[] { operand[1].negate(), operand[0].negate() }
+          : new BigInteger[] { operand[1], operand[0] };
+        break;
+      case SUM:
+        value = new BigInteger[] { BigInteger.ZERO, BigInteger.ONE };
+
+        for (BigInteger[] term : operandValues) {
+          Rational.accumulate(value, term[0], term[1]);
+        }
+        break;
+      default:
+        value = new BigInteger[] { BigInteger.ONE, BigInteger.ONE };
+
+        for (BigInteger[] factor : operandValues) {
+          RationalExpr.multiplyInto(value, factor);
+        }
+        break;
+    }
+
+    memo.put(this, value);
+
+    return value;
+  }
+
+  /**
+   * Multiplies a running product by a fraction, cancelling the factors the fraction's numerator shares with the product's
+   * denominator and the product's numerator shares with the fraction's denominator before multiplying.
+   * @param product numerator and positive denominator of the running product, updated in place
+   * @param factor numerator and positive denominator of the fraction
+   */
+  private static void multiplyInto(BigInteger[] product, BigInteger[] factor) {
+    if (product[0].signum() == 0 || factor[0].signum() == 0) {
+      product[0] = BigInteger.ZERO;
+      product[1] = BigInteger.ONE;
+      return;
+    }
+
+    BigInteger n = factor[0];
+    BigInteger d = factor[1];
+    final BigInteger crossLeft = Factors.greatestCommonFactor(product[0], d);
+    final BigInteger crossRight = Factors.greatestCommonFactor(n, product[1]);
+
+    if (!crossLeft.equals(BigInteger.ONE)) {
+      product[0] = product[0].divide(crossLeft);
+      d = d.divide(crossLeft);
+    }
+
+    if (!crossRight.equals(BigInteger.ONE)) {
+      product[1] = product[1].divide(crossRight);
+      n = n.divide(crossRight);
+    }
+
+    product[0] = product[0].multiply(n);
+    product[1] = product[1].multiply(d);
+  }
+
+  /**
+   * Evaluates an expression, forking its large operands as separate tasks.
+   */
+  private static final class EvaluationTask extends RecursiveTask<BigInteger[]> {
+
+    private static final long serialVersionUID = 4419825236640513179L;
+
+    private final RationalExpr expr;
+    private final Rational[] arguments;
+    private final Map<RationalExpr, BigInteger[]> memo;
+
+    EvaluationTask(RationalExpr expr, Rational[] arguments, Map<RationalExpr, BigInteger[]> memo) {
+      this.expr = expr;
+      this.arguments = arguments;
+      this.memo = memo;
+    }
+
+    @Override
+    protected BigInteger[] compute() {
+      if (expr.size < PARALLEL_THRESHOLD) {
+        return expr.evaluate(arguments, memo, null);
+      }
+
+      final BigInteger[] known = memo.get(expr);
+
+      if (known != null) {
+        return known;
+      }
+
+      final RationalExpr[] operands = expr.operands;
+      final BigInteger[][] operandValues = new BigInteger[operands.length][];
+      final EvaluationTask[] forked = new EvaluationTask[operands.length];
+
+      for (int i = 0; i < operands.length; i++) {
+        if (operands[i].size >= PARALLEL_THRESHOLD) {
+          forked[i] = new EvaluationTask(operands[i], arguments, memo);
+          forked[i].fork();
+        }
+      }
+
+      for (int i = 0; i < operands.length; i++) {
+        if (forked[i] == null) {
+          operandValues[i] = operands[i].evaluate(arguments, memo, null);
+        }
+      }
+
+      for (int i = operands.length - 1; i >= 0; i--) {
+        if (forked[i] != null) {
+          operandValues[i] = forked[i].join();
+        }
+      }
+
+      return expr.evaluate(arguments, memo, operandValues);
+    }
+
+  }
+
+}
@@ -0,0 +1,378 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * A hash map keyed by the exact value of {@link Rational} keys, so that 1/2, 2/4 and 0.5 are the same key. Keys whose
+ * lowest terms fit in <code>long</code> values are stored inline as numerator and denominator pairs in an open addressing
+ * table with linear probing, and can be looked up by numerator and denominator without creating a Rational at all;
+ * larger keys fall back to a {@link HashMap}. Lookups never call {@link Rational#hashCode()} or
+ * {@link Rational#equals(Object)}.
+ *
+ * This map is not safe for use by several threads at once without external synchronization.
+ *
+ * @param <V> the type of the values
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public final class RationalHashMap<V> {
+  
+  private static final int INITIAL_CAPACITY = 16;
+  
+  /**
+   * A denominator no key can have, marking an empty slot.
+   */
+  private static final long EMPTY = 0;
+  
+  private long[] keys;
+  private Object[] values;
+  private int size;
+  private final Map<BigKey, V> big = new HashMap<BigKey, V>();
+  
+  public RationalHashMap() {
+    this(INITIAL_CAPACITY);
+  }
+  
+  /**
+   * @param expectedSize the number of small keys to make room for
+   */
+  public RationalHashMap(int expectedSize) {
+    final int capacity = Integer.highestOneBit(Math.max(expectedSize * 2 - 1, INITIAL_CAPACITY - 1)) << 1;
+    
+    keys = new long[capacity * 2];
+    values = new Object[capacity];
+  }
+  
+  /**
+   * @param key {@link Rational} key
+   * @return the value of the key, or <code>null</code> if there is none
+   */
+  public V get(Rational key) {
+    final BigInteger[] parts = key.lowestTerms();
+    
+    if (RationalHashMap.fits(parts)) {
+      return getSmall(parts[0].longValue(), parts[1].longValue());
+    }
+    
+    return big.get(new BigKey(parts[0], parts[1]));
+  }
+  
+  /**
+   * @param numerator numerator of the key
+   * @param denominator non-zero denominator of the key
+   * @throws ArithmeticException if denominator is zero.
+   * @return the value of the key numerator / denominator, or <code>null</code> if there is none
+   */
+  public V get(long numerator, long denominator) throws ArithmeticException {
+    final long[] lowest = RationalHashMap.lowestTerms(numerator, denominator);
+    
+    if (lowest == null) {
+      return get(Reducer.reduceWholeNumbers(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator)));
+    }
+    
+    return getSmall(lowest[0], lowest[1]);
+  }
+  
+  /**
+   * @param key {@link Rational} key
+   * @return whether the key has a value
+   */
+  public boolean containsKey(Rational key) {
+    return get(key) != null;
+  }
+  
+  /**
+   * @param key {@link Rational} key
+   * @param value non-null value
+   * @return the previous value of the key, or <code>null</code> if there was none
+   */
+  public V put(Rational key, V value) {
+    if (value == null) {
+      throw new NullPointerException("Value may not be null.");
+    }
+    
+    final BigInteger[] parts = key.lowestTerms();
+    
+    if (RationalHashMap.fits(parts)) {
+      return putSmall(parts[0].longValue(), parts[1].longValue(), value);
+    }
+    
+    final V previous = big.put(new BigKey(parts[0], parts[1]), value);
+    
+    if (previous == null) {
+      size++;
+    }
+    
+    return previous;
+  }
+  
+  /**
+   * @param numerator numerator of the key
+   * @param denominator non-zero denominator of the key
+   * @param value non-null value
+   * @throws ArithmeticException if denominator is zero.
+   * @return the previous value of the key numerator / denominator, or <code>null</code> if there was none
+   */
+  public V put(long numerator, long denominator, V value) throws ArithmeticException {
+    if (value == null) {
+      throw new NullPointerException("Value may not be null.");
+    }
+    
+    final long[] lowest = RationalHashMap.lowestTerms(numerator, denominator);
+    
+    if (lowest == null) {
+      return put(Reducer.reduceWholeNumbers(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator)), value);
+    }
+    
+    return putSmall(lowest[0], lowest[1], value);
+  }
+  
+  /**
+   * @param key {@link Rational} key
+   * @return the value the key had, or <code>null</code> if there was none
+   */
+  public V remove(Rational key) {
+    final BigInteger[] parts = key.lowestTerms();
+    
+    if (RationalHashMap.fits(parts)) {
+      return removeSmall(parts[0].longValue(), parts[1].longValue());
+    }
+    
+    final V previous = big.remove(new BigKey(parts[0], parts[1]));
+    
+    if (previous != null) {
+      size--;
+    }
+    
+    return previous;
+  }
+  
+  /**
+   * @return the number of keys.
+   */
+  public int size() {
+    return size;
+  }
+  
+  /**
+   * @return whether there are no keys.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+  
+  /**
+   * Removes every key.
+   */
+  public void clear() {
+    Arrays.fill(keys, EMPTY);
+    Arrays.fill(values, null);
+    big.clear();
+    size = 0;
+  }
+  
+  /**
+   * Passes every key, in lowest terms, and its value to action, in no particular order.
+   * @param action {@link BiConsumer} to call
+   */
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<Rational, ? super V> action) {
+    for (int i = 0; i < values.length; i++) {
+      if (keys[2 * i + 1] != EMPTY) {
+        action.accept(new Rational(BigInteger.valueOf(keys[2 * i]), BigInteger.valueOf(keys[2 * i + 1])), (V) values[i]);
+      }
+    }
+    
+    for (Map.Entry<BigKey, V> entry : big.entrySet()) {
+      action.accept(new Rational(entry.getKey().n, entry.getKey().d), entry.getValue());
+    }
+  }
+  
+  @SuppressWarnings("unchecked")
+  private V getSmall(long n, long d) {
+    final int mask = values.length - 1;
+    
+    for (int i = RationalHashMap.hash(n, d) & mask; keys[2 * i + 1] != EMPTY; i = (i + 1) & mask) {
+      if (keys[2 * i] == n && keys[2 * i + 1] == d) {
+        return (V) values[i];
+      }
+    }
+    
+    return null;
+  }
+  
+  @SuppressWarnings("unchecked")
+  private V putSmall(long n, long d, V value) {
+    final int mask = values.length - 1;
+    int i = RationalHashMap.hash(n, d) & mask;
+    
+    for (; keys[2 * i + 1] != EMPTY; i = (i + 1) & mask) {
+      if (keys[2 * i] == n && keys[2 * i + 1] == d) {
+        final V previous = (V) values[i];
+        
+        values[i] = value;
+        
+        return previous;
+      }
+    }
+    
+    keys[2 * i] = n;
+    keys[2 * i + 1] = d;
+    values[i] = value;
+    size++;
+    
+    if ((size - big.size()) * 2 > values.length) {
+      resize();
+    }
+    
+    return null;
+  }
+  
+  /**
+   * Removes by shifting later entries of the same probe run back, so that no tombstones are left.
+   */
+  @SuppressWarnings("unchecked")
+  private V removeSmall(long n, long d) {
+    final int mask = values.length - 1;
+    int i = RationalHashMap.hash(n, d) & mask;
+    
+    while (keys[2 * i + 1] != EMPTY && (keys[2 * i] != n || keys[2 * i + 1] != d)) {
+      i = (i + 1) & mask;
+    }
+    
+    if (keys[2 * i + 1] == EMPTY) {
+      return null;
+    }
+    
+    final V previous = (V) values[i];
+    int hole = i;
+    
+    for (int j = (i + 1) & mask; keys[2 * j + 1] != EMPTY; j = (j + 1) & mask) {
+      final int home = RationalHashMap.hash(keys[2 * j], keys[2 * j + 1]) & mask;
+      
+      // Move the entry at j into the hole unless its home lies cyclically after the hole, up to j.
+      if (((j - home) & mask) >= ((j - hole) & mask)) {
+        keys[2 * hole] = keys[2 * j];
+        keys[2 * hole + 1] = keys[2 * j + 1];
+        values[hole] = values[j];
+        hole = j;
+      }
+    }
+    
+    keys[2 * hole] = 0;
+    keys[2 * hole + 1] = EMPTY;
+    values[hole] = null;
+    size--;
+    
+    return previous;
+  }
+  
+  @SuppressWarnings("unchecked")
+  private void resize() {
+    final long[] oldKeys = keys;
+    final Object[] oldValues = values;
+    
+    keys = new long[oldKeys.length * 2];
+    values = new Object[oldValues.length * 2];
+    size = big.size();
+    
+    for (int i = 0; i < oldValues.length; i++) {
+      if (oldKeys[2 * i + 1] != EMPTY) {
+        putSmall(oldKeys[2 * i], oldKeys[2 * i + 1], (V) oldValues[i]);
+      }
+    }
+  }
+  
+  private static boolean fits(BigInteger[] parts) {
+    return parts[0].bitLength() < Long.SIZE && parts[1].bitLength() < Long.SIZE;
+  }
+  
+  /**
+   * @return numerator and positive denominator in lowest terms, or <code>null</code> if negating either overflows
+   */
+  private static long[] lowestTerms(long n, long d) throws ArithmeticException {
+    if (d == 0) {
+      throw new ArithmeticException("Division by zero.");
+    }
+    
+    if (n == Long.MIN_VALUE || d == Long.MIN_VALUE) {
+      return null;
+    }
+    
+    final long gcf = n == 0 ? Math.abs(d) : Factors.gcd(n, d);
+    final long sign = d < 0 ? -1 : 1;
+    
+    return new long[] { sign * n / gcf, sign * d / gcf };
+  }
+  
+  private static int hash(long n, long d) {
+    long h = n * 0x9E3779B97F4A7C15L + d;
+    
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    
+    return (int) h;
+  }
+  
+  /**
+   * A key in lowest terms too large for <code>long</code> values.
+   */
+  private static final class BigKey {
+    
+    private final BigInteger n;
+    private final BigInteger d;
+    
+    BigKey(BigInteger n, BigInteger d) {
+      this.n = n;
+      this.d = d;
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof BigKey)) {
+        return false;
+      }
+      
+      final BigKey that = (BigKey) other;
+      
+      return n.equals(that.n) && d.equals(that.d);
+    }
+    
+    @Override
+    public int hashCode() {
+      return 31 * n.hashCode() + d.hashCode();
+    }
+    
+  }
+  
+}
@@ -0,0 +1,920 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * A linear program over {@link Rational} values, optimizing a linear objective over non-negative variables subject to
+ * linear constraints, with an exact optimum.
+ *
+ * It is solved by the two-phase revised simplex method with Bland's rule, which cannot cycle. None of the arithmetic is on
+ * {@link Rational} values. Each constraint is multiplied by the least common multiple of its denominators, and the basis is
+ * kept in integer-preserving form as its determinant and its adjugate, the determinant times its inverse, which are updated
+ * at each pivot by the same exactly dividing step as Bareiss elimination in {@link RationalMatrix}. The adjugate, the basic
+ * values and the determinant are kept in <code>long</code> values until one overflows, and in {@link BigInteger} values
+ * from then on, and nothing is reduced until the optimum is read off.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public final class RationalLinearProgram {
+  
+  public enum Relation { LESS_OR_EQUAL, GREATER_OR_EQUAL, EQUAL }
+  
+  public enum Status { OPTIMAL, INFEASIBLE, UNBOUNDED }
+  
+  private final Rational[] objective;
+  private final List<Rational[]> coefficients = new ArrayList<Rational[]>();
+  private final List<Relation> relations = new ArrayList<Relation>();
+  private final List<Rational> bounds = new ArrayList<Rational>();
+  
+  /**
+   * @param objective the coefficients of the objective, one for each variable, every variable being at least zero
+   * @throws IllegalArgumentException if there are no variables.
+   */
+  public RationalLinearProgram(Rational... objective) throws IllegalArgumentException {
+    if (objective.length == 0) {
+      throw new IllegalArgumentException("There must be at least one variable.");
+    }
+    
+    this.objective = objective.clone();
+  }
+  
+  /**
+   * Adds the constraint coefficients * x relation bound.
+   * @param coefficients one coefficient for each variable
+   * @param relation {@link Relation} of the two sides
+   * @param bound {@link Rational} right hand side
+   * @throws IllegalArgumentException if there are not as many coefficients as variables.
+   * @return this
+   */
+  public RationalLinearProgram addConstraint(Rational[] coefficients, Relation relation, Rational bound) throws IllegalArgumentException {
+    if (coefficients.length != objective.length) {
+      throw new IllegalArgumentException("There must be one coefficient for each variable.");
+    }
+    
+    if (relation == null || bound == null) {
+      throw new NullPointerException("Relation and bound may not be null.");
+    }
+    
+    this.coefficients.add(coefficients.clone());
+    this.relations.add(relation);
+    this.bounds.add(bound);
+    
+    return this;
+  }
+  
+  /**
+   * @return the greatest value of the objective subject to the constraints.
+   */
+  public Solution maximize() {
+    return solve(true);
+  }
+  
+  /**
+   * @return the least value of the objective subject to the constraints.
+   */
+  public Solution minimize() {
+    return solve(false);
+  }
+  
+  private Solution solve(boolean maximize) {
+    final int n = objective.length;
+    final int m = coefficients.size();
+    final BigInteger[][] rows = new BigInteger[m][];
+    final Relation[] rowRelations = new Relation[m];
+    int slacks = 0;
+    int artificials = 0;
+    
+    for (int i = 0; i < m; i++) {
+      final Rational[] row = coefficients.get(i);
+      final Rational[] values = new Rational[n + 1];
+      
+      System.arraycopy(row, 0, values, 0, n);
+      values[n] = bounds.get(i);
+      rows[i] = RationalLinearProgram.wholeNumbers(values);
+      rowRelations[i] = relations.get(i);
+      
+      // A negative bound is made positive so that the slack or artificial variable starts the basis at a feasible value.
+      if (rows[i][n].signum() < 0) {
+        for (int j = 0; j <= n; j++) {
+          rows[i][j] = rows[i][j].negate();
+        }
+        
+        rowRelations[i] = rowRelations[i] == Relation.LESS_OR_EQUAL ? Relation.GREATER_OR_EQUAL
+          : (rowRelations[i] == Relation.GREATER_OR_EQUAL ? Relation.LESS_OR_EQUAL : Relation.EQUAL);
+      }
+      
+      if (rowRelations[i] != Relation.EQUAL) {
+        slacks++;
+      }
+      
+      if (rowRelations[i] != Relation.LESS_OR_EQUAL) {
+        artificials++;
+      }
+    }
+    
+    // Columns are the variables, then a slack or surplus variable for each inequality, then an artificial variable for
+    // each row not starting with its slack variable in the basis.
+    final int width = n + slacks + artificials;
+    final BigInteger[][] columns = new BigInteger[width][m];
+    final BigInteger[] rhs = new BigInteger[m];
+    final int[] basis = new int[m];
+    int slack = n;
+    int artificial = n + slacks;
+    
+    for (int j = 0; j < width; j++) {
+      for (int i = 0; i < m; i++) {
+        columns[j][i] = j < n ? rows[i][j] : BigInteger.ZERO;
+      }
+    }
+    
+    for (int i = 0; i < m; i++) {
+      rhs[i] = rows[i][n];
+      
+      if (rowRelations[i] == Relation.LESS_OR_EQUAL) {
+        columns[slack][i] = BigInteger.ONE;
+        basis[i] = slack++;
+      }
+      else {
+        if (rowRelations[i] == Relation.GREATER_OR_EQUAL) {
+          columns[slack++][i] = BigInteger.ONE.negate();
+        }
+        
+        columns[artificial][i] = BigInteger.ONE;
+        basis[i] = artificial++;
+      }
+    }
+    
+    final Solver solver = new Solver(Engine.of(columns, rhs, basis));
+    final boolean[] excluded = new boolean[width];
+    
+    if (artificials > 0) {
+      final BigInteger[] phaseOne = new BigInteger[width];
+      
+      for (int j = 0; j < width; j++) {
+        phaseOne[j] = j < n + slacks ? BigInteger.ZERO : BigInteger.ONE.negate();
+      }
+      
+      solver.run(phaseOne, excluded);
+      
+      for (int i = 0; i < m; i++) {
+        if (solver.engine.basis[i] >= n + slacks && solver.engine.betaSignum(i) != 0) {
+          return new Solution(Status.INFEASIBLE, null, null, solver.iterations);
+        }
+      }
+      
+      for (int j = n + slacks; j < width; j++) {
+        excluded[j] = true;
+      }
+      
+      solver.removeArtificials(n + slacks);
+    }
+    
+    final BigInteger[] objectiveRow = RationalLinearProgram.wholeNumbers(objective);
+    final BigInteger[] phaseTwo = new BigInteger[width];
+    
+    for (int j = 0; j < width; j++) {
+      phaseTwo[j] = j < n ? (maximize ? objectiveRow[j] : objectiveRow[j].negate()) : BigInteger.ZERO;
+    }
+    
+    if (!solver.run(phaseTwo, excluded)) {
+      return new Solution(Status.UNBOUNDED, null, null, solver.iterations);
+    }
+    
+    final BigInteger[] values = solver.engine.values();
+    final BigInteger det = values[m];
+    final BigInteger[] x = new BigInteger[n];
+    
+    for (int j = 0; j < n; j++) {
+      x[j] = BigInteger.ZERO;
+    }
+    
+    for (int i = 0; i < m; i++) {
+      if (solver.engine.basis[i] < n) {
+        x[solver.engine.basis[i]] = values[i];
+      }
+    }
+    
+    final Rational[] point = new Rational[n];
+    final BigInteger[] parts = new BigInteger[] { BigInteger.ZERO, BigInteger.ONE };
+    
+    for (int j = 0; j < n; j++) {
+      point[j] = Reducer.reduceWholeNumbers(x[j], det);
+      
+      final BigInteger[] c = objective[j].integerParts();
+      
+      // value += c_j * x_j / det, over the running denominator
+      parts[0] = parts[0].multiply(c[1]).add(c[0].multiply(x[j]).multiply(parts[1]));
+      parts[1] = parts[1].multiply(c[1]);
+    }
+    
+    return new Solution(Status.OPTIMAL, Reducer.reduceWholeNumbers(parts[0], parts[1].multiply(det)), point, solver.iterations);
+  }
+  
+  /**
+   * @return the values multiplied by the least common multiple of their denominators
+   */
+  private static BigInteger[] wholeNumbers(Rational[] values) {
+    final BigInteger[][] parts = new BigInteger[values.length][];
+    BigInteger lcm = BigInteger.ONE;
+    
+    for (int j = 0; j < values.length; j++) {
+      parts[j] = values[j].integerParts();
+      
+      final BigInteger d = parts[j][1];
+      
+      if (parts[j][0].signum() != 0 && !d.equals(BigInteger.ONE) && !d.equals(lcm)) {
+        lcm = lcm.multiply(d.divide(Factors.greatestCommonFactor(lcm, d)));
+      }
+    }
+    
+    final BigInteger[] whole = new BigInteger[values.length];
+    
+    for (int j = 0; j < values.length; j++) {
+      whole[j] = parts[j][1].equals(lcm) ? parts[j][0] : parts[j][0].multiply(lcm.divide(parts[j][1]));
+    }
+    
+    return whole;
+  }
+  
+  /**
+   * The outcome of solving a linear program.
+   */
+  public static final class Solution {
+    
+    private final Status status;
+    private final Rational value;
+    private final Rational[] point;
+    private final int iterations;
+    
+    Solution(Status status, Rational value, Rational[] point, int iterations) {
+      this.status = status;
+      this.value = value;
+      this.point = point;
+      this.iterations = iterations;
+    }
+    
+    public Status status() {
+      return status;
+    }
+    
+    /**
+     * @throws IllegalStateException if there is no optimum.
+     * @return the optimal value of the objective.
+     */
+    public Rational value() throws IllegalStateException {
+      assertOptimal();
+      
+      return value;
+    }
+    
+    /**
+     * @throws IllegalStateException if there is no optimum.
+     * @return the values of the variables at an optimal vertex.
+     */
+    public Rational[] point() throws IllegalStateException {
+      assertOptimal();
+      
+      return point.clone();
+    }
+    
+    /**
+     * @return the number of pivots taken over both phases.
+     */
+    public int iterations() {
+      return iterations;
+    }
+    
+    private void assertOptimal() throws IllegalStateException {
+      if (status != Status.OPTIMAL) {
+        throw new IllegalStateException("There is no optimum: " + status + ".");
+      }
+    }
+    
+  }
+  
+  /**
+   * Runs the simplex method on an {@link Engine}, moving it to {@link BigInteger} values when <code>long</code> values
+   * overflow.
+   */
+  private static final class Solver {
+    
+    Engine engine;
+    int iterations;
+    
+    Solver(Engine engine) {
+      this.engine = engine;
+    }
+    
+    /**
+     * Pivots until no column may enter, maximizing the costs.
+     * @return false if the objective is unbounded
+     */
+    boolean run(BigInteger[] costs, boolean[] excluded) {
+      setCosts(costs);
+      
+      while (true) {
+        try {
+          final int q = engine.entering(excluded);
+          
+          if (q < 0) {
+            return true;
+          }
+          
+          final int r = engine.leaving(q);
+          
+          if (r < 0) {
+            return false;
+          }
+          
+          engine.pivot(r, q);
+          iterations++;
+        }
+        catch (ArithmeticException overflow) {
+          engine = engine.promote();
+          setCosts(costs);
+        }
+      }
+    }
+    
+    /**
+     * Pivots artificial variables left in the basis at zero out of it wherever a real column can take their place. An
+     * artificial variable that cannot be pivoted out stands for a redundant constraint, and stays at zero.
+     */
+    void removeArtificials(int firstArtificial) {
+      for (int r = 0; r < engine.basis.length; r++) {
+        if (engine.basis[r] < firstArtificial) {
+          continue;
+        }
+        
+        for (int q = 0; q < firstArtificial; q++) {
+          if (engine.isBasic[q]) {
+            continue;
+          }
+          
+          try {
+            if (engine.entrySignum(r, q) != 0) {
+              engine.pivot(r, q);
+              iterations++;
+              break;
+            }
+          }
+          catch (ArithmeticException overflow) {
+            engine = engine.promote();
+            q--;
+          }
+        }
+      }
+    }
+    
+    private void setCosts(BigInteger[] costs) {
+      try {
+        engine.setCosts(costs);
+      }
+      catch (ArithmeticException overflow) {
+        engine = engine.promote();
+        engine.setCosts(costs);
+      }
+    }
+    
+  }
+  
+  /**
+   * The basis of a revised simplex method in integer-preserving form: its determinant det, kept positive, the adjugate
+   * det * B<sup>-1</sup> and the basic values det * B<sup>-1</sup> b. Every operation either completes or throws
+   * {@link ArithmeticException} on overflow leaving the state as it was, so that it can be promoted and retried.
+   */
+  private abstract static class Engine {
+    
+    final int[] basis;
+    final boolean[] isBasic;
+    
+    Engine(int[] basis, int width) {
+      this.basis = basis;
+      this.isBasic = new boolean[width];
+      
+      for (int b : basis) {
+        isBasic[b] = true;
+      }
+    }
+    
+    static Engine of(BigInteger[][] columns, BigInteger[] rhs, int[] basis) {
+      final BigEngine big = new BigEngine(columns, rhs, basis);
+      
+      try {
+        return new LongEngine(big);
+      }
+      catch (ArithmeticException overflow) {
+        return big;
+      }
+    }
+    
+    abstract void setCosts(BigInteger[] costs);
+    
+    /**
+     * @return the least column not excluded with a positive reduced cost, or -1 if there is none
+     */
+    abstract int entering(boolean[] excluded);
+    
+    /**
+     * @return the row of the ratio test for column q, ties going to the least basic variable, or -1 if q is unbounded
+     */
+    abstract int leaving(int q);
+    
+    /**
+     * Brings column q into the basis in place of row r.
+     */
+    abstract void pivot(int r, int q);
+    
+    /**
+     * @return the sign of the entry in row r of det * B<sup>-1</sup> times column q
+     */
+    abstract int entrySignum(int r, int q);
+    
+    abstract int betaSignum(int i);
+    
+    /**
+     * @return the basic values followed by the determinant
+     */
+    abstract BigInteger[] values();
+    
+    abstract Engine promote();
+    
+    void enter(int r, int q) {
+      isBasic[basis[r]] = false;
+      isBasic[q] = true;
+      basis[r] = q;
+    }
+    
+  }
+  
+  private static final class LongEngine extends Engine {
+    
+    private final long[][] columns;
+    private final int m;
+    private long[] costs;
+    private long[][] adjugate;
+    private long[][] nextAdjugate;
+    private long[] beta;
+    private long[] nextBeta;
+    private long det;
+    private final long[] alpha;
+    private int alphaColumn = -1;
+    
+    LongEngine(BigEngine big) throws ArithmeticException {
+      super(big.basis, big.isBasic.length);
+      
+      this.m = big.basis.length;
+      this.columns = new long[big.columns.length][m];
+      this.adjugate = new long[m][m];
+      this.nextAdjugate = new long[m][m];
+      this.beta = new long[m];
+      this.nextBeta = new long[m];
+      this.alpha = new long[m];
+      this.det = big.det.longValueExact();
+      
+      for (int j = 0; j < columns.length; j++) {
+        for (int i = 0; i < m; i++) {
+          columns[j][i] = big.columns[j][i].longValueExact();
+        }
+      }
+      
+      for (int i = 0; i < m; i++) {
+        beta[i] = big.beta[i].longValueExact();
+        
+        for (int k = 0; k < m; k++) {
+          adjugate[i][k] = big.adjugate[i][k].longValueExact();
+        }
+      }
+    }
+    
+    @Override
+    void setCosts(BigInteger[] costs) {
+      final long[] values = new long[costs.length];
+      
+      for (int j = 0; j < costs.length; j++) {
+        values[j] = costs[j].longValueExact();
+      }
+      
+      this.costs = values;
+    }
+    
+    @Override
+    int entering(boolean[] excluded) {
+      // w = c_B * adjugate, so that the reduced cost of column j times det is det * c_j - w * a_j.
+      final long[] w = new long[m];
+      
+      for (int i = 0; i < m; i++) {
+        final long cost = costs[basis[i]];
+        
+        if (cost != 0) {
+          for (int k = 0; k < m; k++) {
+            w[k] = Math.addExact(w[k], Math.multiplyExact(cost, adjugate[i][k]));
+          }
+        }
+      }
+      
+      for (int j = 0; j < columns.length; j++) {
+        if (excluded[j] || isBasic[j]) {
+          continue;
+        }
+        
+        long reduced = Math.multiplyExact(det, costs[j]);
+        
+        for (int i = 0; i < m; i++) {
+          if (columns[j][i] != 0) {
+            reduced = Math.subtractExact(reduced, Math.multiplyExact(w[i], columns[j][i]));
+          }
+        }
+        
+        if (reduced > 0) {
+          return j;
+        }
+      }
+      
+      return -1;
+    }
+    
+    @Override
+    int leaving(int q) {
+      computeAlpha(q);
+      
+      int r = -1;
+      
+      for (int i = 0; i < m; i++) {
+        if (alpha[i] <= 0) {
+          continue;
+        }
+        
+        if (r < 0) {
+          r = i;
+          continue;
+        }
+        
+        final int comparison = Long.compare(Math.multiplyExact(beta[i], alpha[r]), Math.multiplyExact(beta[r], alpha[i]));
+        
+        if (comparison < 0 || (comparison == 0 && basis[i] < basis[r])) {
+          r = i;
+        }
+      }
+      
+      return r;
+    }
+    
+    @Override
+    void pivot(int r, int q) {
+      computeAlpha(q);
+      
+      final long pivot = alpha[r];
+      final long sign = pivot < 0 ? -1 : 1;
+      
+      for (int i = 0; i < m; i++) {
+        if (i == r) {
+          for (int k = 0; k < m; k++) {
+            nextAdjugate[i][k] = Math.multiplyExact(sign, adjugate[i][k]);
+          }
+          
+          nextBeta[i] = Math.multiplyExact(sign, beta[i]);
+          continue;
+        }
+        
+        for (int k = 0; k < m; k++) {
+          nextAdjugate[i][k] = Math.multiplyExact(sign, LongEngine.update(pivot, adjugate[i][k], alpha[i], adjugate[r][k], det));
+        }
+        
+        nextBeta[i] = Math.multiplyExact(sign, LongEngine.update(pivot, beta[i], alpha[i], beta[r], det));
+      }
+      
+      final long nextDet = Math.multiplyExact(sign, pivot);
+      
+      final long[][] swapAdjugate = adjugate;
+      final long[] swapBeta = beta;
+      
+      adjugate = nextAdjugate;
+      nextAdjugate = swapAdjugate;
+      beta = nextBeta;
+      nextBeta = swapBeta;
+      det = nextDet;
+      alphaColumn = -1;
+      enter(r, q);
+    }
+    
+    @Override
+    int entrySignum(int r, int q) {
+      long entry = 0;
+      
+      for (int k = 0; k < m; k++) {
+        entry = Math.addExact(entry, Math.multiplyExact(adjugate[r][k], columns[q][k]));
+      }
+      
+      return Long.signum(entry);
+    }
+    
+    @Override
+    int betaSignum(int i) {
+      return Long.signum(beta[i]);
+    }
+    
+    @Override
+    BigInteger[] values() {
+      final BigInteger[] values = new BigInteger[m + 1];
+      
+      for (int i = 0; i < m; i++) {
+        values[i] = BigInteger.valueOf(beta[i]);
+      }
+      
+      values[m] = BigInteger.valueOf(det);
+      
+      return values;
+    }
+    
+    @Override
+    Engine promote() {
+      return new BigEngine(this);
+    }
+    
+    private void computeAlpha(int q) {
+      if (alphaColumn == q) {
+        return;
+      }
+      
+      alphaColumn = -1;
+      
+      for (int i = 0; i < m; i++) {
+        long sum = 0;
+        
+        for (int k = 0; k < m; k++) {
+          if (columns[q][k] != 0) {
+            sum = Math.addExact(sum, Math.multiplyExact(adjugate[i][k], columns[q][k]));
+          }
+        }
+        
+        alpha[i] = sum;
+      }
+      
+      alphaColumn = q;
+    }
+    
+    /**
+     * @return (pivot * value - factor * pivotValue) / det, which divides exactly
+     */
+    private static long update(long pivot, long value, long factor, long pivotValue, long det) {
+      final long product = Math.multiplyExact(pivot, value);
+      
+      return (factor == 0 ? product : Math.subtractExact(product, Math.multiplyExact(factor, pivotValue))) / det;
+    }
+    
+  }
+  
+  private static final class BigEngine extends Engine {
+    
+    final BigInteger[][] columns;
+    private final int m;
+    private BigInteger[] costs;
+    BigInteger[][] adjugate;
+    BigInteger[] beta;
+    BigInteger det;
+    private final BigInteger[] alpha;
+    private int alphaColumn = -1;
+    
+    BigEngine(BigInteger[][] columns, BigInteger[] rhs, int[] basis) {
+      super(basis, columns.length);
+      
+      this.m = basis.length;
+      this.columns = columns;
+      this.adjugate = new BigInteger[m][m];
+      this.beta = rhs.clone();
+      this.det = BigInteger.ONE;
+      this.alpha = new BigInteger[m];
+      
+      for (int i = 0; i < m; i++) {
+        for (int k = 0; k < m; k++) {
+          adjugate[i][k] = i == k ? BigInteger.ONE : BigInteger.ZERO;
+        }
+      }
+    }
+    
+    BigEngine(LongEngine engine) {
+      super(engine.basis, engine.isBasic.length);
+      
+      final BigInteger[] values = engine.values();
+      
+      this.m = engine.basis.length;
+      this.columns = new BigInteger[engine.columns.length][m];
+      this.adjugate = new BigInteger[m][m];
+      this.beta = new BigInteger[m];
+      this.det = values[m];
+      this.alpha = new BigInteger[m];
+      
+      for (int j = 0; j < columns.length; j++) {
+        for (int i = 0; i < m; i++) {
+          columns[j][i] = BigInteger.valueOf(engine.columns[j][i]);
+        }
+      }
+      
+      for (int i = 0; i < m; i++) {
+        beta[i] = values[i];
+        
+        for (int k = 0; k < m; k++) {
+          adjugate[i][k] = BigInteger.valueOf(engine.adjugate[i][k]);
+        }
+      }
+    }
+    
+    @Override
+    void setCosts(BigInteger[] costs) {
+      this.costs = costs;
+    }
+    
+    @Override
+    int entering(boolean[] excluded) {
+      final BigInteger[] w = new BigInteger[m];
+      
+      for (int k = 0; k < m; k++) {
+        w[k] = BigInteger.ZERO;
+      }
+      
+      for (int i = 0; i < m; i++) {
+        final BigInteger cost = costs[basis[i]];
+        
+        if (cost.signum() != 0) {
+          for (int k = 0; k < m; k++) {
+            w[k] = w[k].add(cost.multiply(adjugate[i][k]));
+          }
+        }
+      }
+      
+      for (int j = 0; j < columns.length; j++) {
+        if (excluded[j] || isBasic[j]) {
+          continue;
+        }
+        
+        BigInteger reduced = det.multiply(costs[j]);
+        
+        for (int i = 0; i < m; i++) {
+          if (columns[j][i].signum() != 0) {
+            reduced = reduced.subtract(w[i].multiply(columns[j][i]));
+          }
+        }
+        
+        if (reduced.signum() > 0) {
+          return j;
+        }
+      }
+      
+      return -1;
+    }
+    
+    @Override
+    int leaving(int q) {
+      computeAlpha(q);
+      
+      int r = -1;
+      
+      for (int i = 0; i < m; i++) {
+        if (alpha[i].signum() <= 0) {
+          continue;
+        }
+        
+        if (r < 0) {
+          r = i;
+          continue;
+        }
+        
+        final int comparison = beta[i].multiply(alpha[r]).compareTo(beta[r].multiply(alpha[i]));
+        
+        if (comparison < 0 || (comparison == 0 && basis[i] < basis[r])) {
+          r = i;
+        }
+      }
+      
+      return r;
+    }
+    
+    @Override
+    void pivot(int r, int q) {
+      computeAlpha(q);
+      
+      final BigInteger pivot = alpha[r];
+      final boolean negate = pivot.signum() < 0;
+      final BigInteger[][] nextAdjugate = new BigInteger[m][];
+      final BigInteger[] nextBeta = new BigInteger[m];
+      
+      for (int i = 0; i < m; i++) {
+        if (i == r) {
+          nextAdjugate[i] = adjugate[i].clone();
+          nextBeta[i] = beta[i];
+        }
+        else {
+          nextAdjugate[i] = new BigInteger[m];
+          
+          for (int k = 0; k < m; k++) {
+            nextAdjugate[i][k] = BigEngine.update(pivot, adjugate[i][k], alpha[i], adjugate[r][k], det);
+          }
+          
+          nextBeta[i] = BigEngine.update(pivot, beta[i], alpha[i], beta[r], det);
+        }
+        
+        if (negate) {
+          for (int k = 0; k < m; k++) {
+            nextAdjugate[i][k] = nextAdjugate[i][k].negate();
+          }
+          
+          nextBeta[i] = nextBeta[i].negate();
+        }
+      }
+      
+      adjugate = nextAdjugate;
+      beta = nextBeta;
+      det = pivot.abs();
+      alphaColumn = -1;
+      enter(r, q);
+    }
+    
+    @Override
+    int entrySignum(int r, int q) {
+      BigInteger entry = BigInteger.ZERO;
+      
+      for (int k = 0; k < m; k++) {
+        entry = entry.add(adjugate[r][k].multiply(columns[q][k]));
+      }
+      
+      return entry.signum();
+    }
+    
+    @Override
+    int betaSignum(int i) {
+      return beta[i].signum();
+    }
+    
+    @Override
+    BigInteger[] values() {
+      final BigInteger[] values = new BigInteger[m + 1];
+      
+      System.arraycopy(beta, 0, values, 0, m);
+      values[m] = det;
+      
+      return values;
+    }
+    
+    @Override
+    Engine promote() {
+      return this;
+    }
+    
+    private void computeAlpha(int q) {
+      if (alphaColumn == q) {
+        return;
+      }
+      
+      for (int i = 0; i < m; i++) {
+        BigInteger sum = BigInteger.ZERO;
+        
+        for (int k = 0; k < m; k++) {
+          if (columns[q][k].signum() != 0) {
+            sum = sum.add(adjugate[i][k].multiply(columns[q][k]));
+          }
+        }
+        
+        alpha[i] = sum;
+      }
+      
+      alphaColumn = q;
+    }
+    
+    private static BigInteger update(BigInteger pivot, BigInteger value, BigInteger factor, BigInteger pivotValue, BigInteger det) {
+      final BigInteger product = pivot.multiply(value);
+      final BigInteger numerator = factor.signum() == 0 ? product : product.subtract(factor.multiply(pivotValue));
+      
+      return det.equals(BigInteger.ONE) ? numerator : numerator.divide(det);
+    }
+    
+  }
+  
+}
@@ -0,0 +1,567 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * Elementary functions of {@link Rational} values, each returning a Rational within a given tolerance of the exact
+ * result. Every result is certified: it is computed as an interval of dyadic fractions that is known to contain the exact
+ * value, with every rounding directed outward and every series truncation bounded, and the working precision is raised
+ * until the interval is at most twice the tolerance wide, at which point its midpoint is returned.
+ *
+ * The constants pi, e and ln 2 are computed by {@link BinarySplitting} and kept in a cache shared by all threads, which
+ * grows to the highest precision asked for so far; requests for lower precision round the cached value rather than
+ * computing it again. Other arguments are reduced exactly, or by intervals of the cached constants, to a small range, and
+ * then summed as fixed point Taylor series.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public abstract class RationalMath {
+  
+  /**
+   * Bits of precision beyond the tolerance that the first attempt works with, enough to absorb the rounding errors of
+   * series of up to some 2<sup>28</sup> terms.
+   */
+  private static final int GUARD_BITS = 32;
+  
+  /**
+   * The largest magnitude of argument whose multiple of ln 2 or pi / 2 is found for argument reduction.
+   */
+  private static final double MAX_REDUCTION = 1 << 30;
+  
+  private static final BigInteger TWO = BigInteger.valueOf(2);
+  
+  private static final Constant PI = new Constant(new Approximation() {
+    @Override
+    public Interval at(int w) {
+      final BigInteger[] first = RationalMath.inverseAtan(5, RationalMath.terms(w + 6, Math.log(5) / Math.log(2) * 2));
+      final BigInteger[] second = RationalMath.inverseAtan(239, RationalMath.terms(w + 4, Math.log(239) / Math.log(2) * 2));
+      final BigInteger n = first[0].multiply(second[1]).shiftLeft(4).subtract(second[0].multiply(first[1]).shiftLeft(2));
+      
+      // 16 atan(1/5) - 4 atan(1/239), each series truncated to within 2^-(w + 2).
+      return Interval.of(n, first[1].multiply(second[1]), w).widen(BigInteger.ONE);
+    }
+  });
+  
+  private static final Constant LN2 = new Constant(new Approximation() {
+    @Override
+    public Interval at(int w) {
+      final BigInteger[] split = BinarySplitting.split(new SeriesTerms() {
+        @Override
+        public BigInteger p(long k) {
+          return k == 0 ? TWO : BigInteger.ONE;
+        }
+        
+        @Override
+        public BigInteger q(long k) {
+          return BigInteger.valueOf(k == 0 ? 3 : 9);
+        }
+        
+        @Override
+        public BigInteger b(long k) {
+          return BigInteger.valueOf(2 * k + 1);
+        }
+      }, 0, RationalMath.terms(w + 2, Math.log(3) / Math.log(2) * 2), ForkJoinPool.commonPool());
+      
+      // 2 atanh(1/3), whose positive tail is below 2^-(w + 2).
+      return Interval.of(split[3], split[2].multiply(split[1]), w).widen(BigInteger.ONE);
+    }
+  });
+  
+  private static final Constant E = new Constant(new Approximation() {
+    @Override
+    public Interval at(int w) {
+      long n = 1;
+      double log2Factorial = 0;
+      
+      while (log2Factorial < w + 2) {
+        n++;
+        log2Factorial += Math.log(n) / Math.log(2);
+      }
+      
+      final BigInteger[] split = BinarySplitting.split(new SeriesTerms() {
+        @Override
+        public BigInteger p(long k) {
+          return BigInteger.ONE;
+        }
+        
+        @Override
+        public BigInteger q(long k) {
+          return BigInteger.valueOf(Math.max(k, 1));
+        }
+      }, 0, n + 1, ForkJoinPool.commonPool());
+      
+      // The sum of 1/k! for k up to n, whose positive tail is below 2 / n! < 2^-(w + 1).
+      return Interval.of(split[3], split[2].multiply(split[1]), w).widen(BigInteger.ONE);
+    }
+  });
+  
+  /**
+   * @param tolerance positive tolerance
+   * @throws IllegalArgumentException if tolerance is not positive.
+   * @return pi to within tolerance.
+   */
+  public static Rational pi(Rational tolerance) throws IllegalArgumentException {
+    return RationalMath.within(tolerance, 0, PI);
+  }
+  
+  /**
+   * @param tolerance positive tolerance
+   * @throws IllegalArgumentException if tolerance is not positive.
+   * @return e to within tolerance.
+   */
+  public static Rational e(Rational tolerance) throws IllegalArgumentException {
+    return RationalMath.within(tolerance, 0, E);
+  }
+  
+  /**
+   * @param x {@link Rational} exponent, of magnitude below 2<sup>30</sup>
+   * @param tolerance positive tolerance
+   * @throws IllegalArgumentException if tolerance is not positive.
+   * @throws ArithmeticException if x is too large.
+   * @return e<sup>x</sup> to within tolerance.
+   */
+  public static Rational exp(final Rational x, Rational tolerance) throws IllegalArgumentException, ArithmeticException {
+    final BigInteger[] parts = x.integerParts();
+    final long k = RationalMath.nearestMultiple(x, Math.log(2));
+    
+    return RationalMath.within(tolerance, (int) Math.max(k, 0), new Approximation() {
+      @Override
+      public Interval at(int w) {
+        final Interval ln2 = LN2.at(w + RationalMath.bitLength(k) + 2).multiply(BigInteger.valueOf(k)).toPrecision(w);
+        final Interval r = Interval.of(parts[0], parts[1], w).subtract(ln2);
+        
+        // |r| is about ln 2 / 2 at most, where exp is below 2, so moving across the interval moves exp by at most twice as much.
+        return RationalMath.expSeries(r.lo, w).widen(r.width().shiftLeft(1)).shift((int) k);
+      }
+    });
+  }
+  
+  /**
+   * @param x positive {@link Rational} value
+   * @param tolerance positive tolerance
+   * @throws IllegalArgumentException if tolerance is not positive.
+   * @throws ArithmeticException if x is not positive.
+   * @return the natural logarithm of x to within tolerance.
+   */
+  public static Rational log(Rational x, Rational tolerance) throws IllegalArgumentException, ArithmeticException {
+    final BigInteger[] parts = x.integerParts();
+    
+    if (parts[0].signum() <= 0) {
+      throw new ArithmeticException("Logarithm of a value that is not positive.");
+    }
+    
+    // x = 2^k * y with y between 1/2 and 2, and log y = 2 atanh(z) with |z| < 1/3.
+    final int k = parts[0].bitLength() - parts[1].bitLength();
+    final BigInteger yn = k < 0 ? parts[0].shiftLeft(-k) : parts[0];
+    final BigInteger yd = k > 0 ? parts[1].shiftLeft(k) : parts[1];
+    final BigInteger zn = yn.subtract(yd);
+    final BigInteger zd = yn.add(yd);
+    
+    return RationalMath.within(tolerance, 0, new Approximation() {
+      @Override
+      public Interval at(int w) {
+        final Interval z = Interval.of(zn, zd, w);
+        final Interval ln2 = LN2.at(w + RationalMath.bitLength(k) + 2).multiply(BigInteger.valueOf(k)).toPrecision(w);
+        
+        // The slope of atanh is below 9/8 for |z| < 1/3.
+        return RationalMath.atanSeries(z.lo, w, false).widen(z.width().shiftLeft(1)).shift(1).add(ln2);
+      }
+    });
+  }
+  
+  /**
+   * @param x {@link Rational} angle in radians, of magnitude below 2<sup>30</sup>
+   * @param tolerance positive tolerance
+   * @throws IllegalArgumentException if tolerance is not positive.
+   * @throws ArithmeticException if x is too large.
+   * @return the sine of x to within tolerance.
+   */
+  public static Rational sin(Rational x, Rational tolerance) throws IllegalArgumentException, ArithmeticException {
+    return RationalMath.sinOrCos(x, tolerance, 0);
+  }
+  
+  /**
+   * @param x {@link Rational} angle in radians, of magnitude below 2<sup>30</sup>
+   * @param tolerance positive tolerance
+   * @throws IllegalArgumentException if tolerance is not positive.
+   * @throws ArithmeticException if x is too large.
+   * @return the cosine of x to within tolerance.
+   */
+  public static Rational cos(Rational x, Rational tolerance) throws IllegalArgumentException, ArithmeticException {
+    return RationalMath.sinOrCos(x, tolerance, 1);
+  }
+  
+  /**
+   * @param x {@link Rational} value
+   * @param tolerance positive tolerance
+   * @throws IllegalArgumentException if tolerance is not positive.
+   * @return the arctangent of x, between -pi/2 and pi/2, to within tolerance.
+   */
+  public static Rational atan(Rational x, Rational tolerance) throws IllegalArgumentException {
+    final BigInteger[] parts = x.integerParts();
+    final boolean negative = parts[0].signum() < 0;
+    BigInteger n = parts[0].abs();
+    BigInteger d = parts[1];
+    
+    // atan(x) = pi/2 - atan(1/x) for x > 1, then atan(x) = pi/4 + atan((x - 1)/(x + 1)) for 1/2 < x <= 1.
+    final boolean inverted = n.compareTo(d) > 0;
+    
+    if (inverted) {
+      final BigInteger swap = n;
+      
+      n = d;
+      d = swap;
+    }
+    
+    final boolean shifted = n.shiftLeft(1).compareTo(d) > 0;
+    final BigInteger zn = shifted ? n.subtract(d) : n;
+    final BigInteger zd = shifted ? n.add(d) : d;
+    
+    return RationalMath.within(tolerance, 0, new Approximation() {
+      @Override
+      public Interval at(int w) {
+        final Interval z = Interval.of(zn, zd, w);
+        Interval result = RationalMath.atanSeries(z.lo, w, true).widen(z.width());
+        
+        if (shifted) {
+          result = result.add(PI.at(w).shift(-2));
+        }
+        
+        if (inverted) {
+          result = PI.at(w).shift(-1).subtract(result);
+        }
+        
+        return negative ? result.negate() : result;
+      }
+    });
+  }
+  
+  private static Rational sinOrCos(Rational x, Rational tolerance, final int quarterTurns) {
+    final BigInteger[] parts = x.integerParts();
+    final long k = RationalMath.nearestMultiple(x, Math.PI / 2);
+    
+    return RationalMath.within(tolerance, 0, new Approximation() {
+      @Override
+      public Interval at(int w) {
+        final Interval halfPis = PI.at(w + RationalMath.bitLength(k) + 2).multiply(BigInteger.valueOf(k)).shift(-1).toPrecision(w);
+        final Interval r = Interval.of(parts[0], parts[1], w).subtract(halfPis);
+        
+        // sin(r + k pi/2) and cos(r + k pi/2) = sin(r + (k + 1) pi/2) cycle through sin r, cos r, -sin r and -cos r.
+        switch ((int) Math.floorMod(k + quarterTurns, 4L)) {
+          case 0:
+            return RationalMath.sinSeries(r.lo, w).widen(r.width());
+          case 1:
+            return RationalMath.cosSeries(r.lo, w).widen(r.width());
+          case 2:
+            return RationalMath.sinSeries(r.lo, w).widen(r.width()).negate();
+          default:
+            return RationalMath.cosSeries(r.lo, w).widen(r.width()).negate();
+        }
+      }
+    });
+  }
+  
+  /**
+   * Raises the working precision until the interval is narrow enough, then returns its midpoint.
+   */
+  private static Rational within(Rational tolerance, int extraBits, Approximation approximation) throws IllegalArgumentException {
+    final BigInteger[] parts = tolerance.integerParts();
+    
+    if (parts[0].signum() <= 0) {
+      throw new IllegalArgumentException("Tolerance must be positive.");
+    }
+    
+    // 2^-bits is no more than the tolerance.
+    final int bits = parts[1].add(parts[0]).subtract(BigInteger.ONE).divide(parts[0]).bitLength();
+    
+    for (int w = bits + extraBits + GUARD_BITS; ; w += w / 2) {
+      final Interval result = approximation.at(w);
+      
+      // width / 2^w <= 2 * tolerance
+      if (result.width().multiply(parts[1]).compareTo(parts[0].shiftLeft(w + 1)) <= 0) {
+        return Reducer.reduceWholeNumbers(result.lo.add(result.hi), BigInteger.ONE.shiftLeft(w + 1));
+      }
+    }
+  }
+  
+  /**
+   * @return the sum of x^k / k! at fixed point c / 2^w, for |c| / 2^w no more than 1/2.
+   */
+  private static Interval expSeries(BigInteger c, int w) {
+    BigInteger sum = BigInteger.ZERO;
+    BigInteger term = BigInteger.ONE.shiftLeft(w);
+    long k = 0;
+    
+    while (term.signum() != 0) {
+      sum = sum.add(term);
+      k++;
+      term = RationalMath.multiply(term, c, w).divide(BigInteger.valueOf(k));
+    }
+    
+    return RationalMath.seriesInterval(sum, k, w);
+  }
+  
+  /**
+   * @return the sum of (-1)^k x^(2k + 1) / (2k + 1)! at fixed point c / 2^w, for |c| / 2^w no more than 4/5.
+   */
+  private static Interval sinSeries(BigInteger c, int w) {
+    final BigInteger square = RationalMath.multiply(c, c, w);
+    BigInteger sum = BigInteger.ZERO;
+    BigInteger term = c;
+    long k = 0;
+    
+    while (term.signum() != 0) {
+      sum = sum.add(term);
+      k++;
+      term = RationalMath.multiply(term, square, w).divide(BigInteger.valueOf((2 * k) * (2 * k + 1))).negate();
+    }
+    
+    return RationalMath.seriesInterval(sum, k, w);
+  }
+  
+  /**
+   * @return the sum of (-1)^k x^(2k) / (2k)! at fixed point c / 2^w, for |c| / 2^w no more than 4/5.
+   */
+  private static Interval cosSeries(BigInteger c, int w) {
+    final BigInteger square = RationalMath.multiply(c, c, w);
+    BigInteger sum = BigInteger.ZERO;
+    BigInteger term = BigInteger.ONE.shiftLeft(w);
+    long k = 0;
+    
+    while (term.signum() != 0) {
+      sum = sum.add(term);
+      k++;
+      term = RationalMath.multiply(term, square, w).divide(BigInteger.valueOf((2 * k - 1) * (2 * k))).negate();
+    }
+    
+    return RationalMath.seriesInterval(sum, k, w);
+  }
+  
+  /**
+   * @return the sum of (-1)^k x^(2k + 1) / (2k + 1) if alternating, which is atan, otherwise of x^(2k + 1) / (2k + 1),
+   * which is atanh, at fixed point c / 2^w, for |c| / 2^w no more than 1/2.
+   */
+  private static Interval atanSeries(BigInteger c, int w, boolean alternating) {
+    final BigInteger square = RationalMath.multiply(c, c, w);
+    BigInteger sum = BigInteger.ZERO;
+    BigInteger power = c;
+    long k = 0;
+    
+    while (power.signum() != 0) {
+      sum = sum.add(power.divide(BigInteger.valueOf(2 * k + 1)));
+      k++;
+      power = RationalMath.multiply(power, square, w);
+      
+      if (alternating) {
+        power = power.negate();
+      }
+    }
+    
+    return RationalMath.seriesInterval(sum, k, w);
+  }
+  
+  /**
+   * @return the fixed point product of a / 2^w and b / 2^w, rounded toward zero so that a series of them reaches zero
+   */
+  private static BigInteger multiply(BigInteger a, BigInteger b, int w) {
+    final BigInteger product = a.multiply(b);
+    
+    return product.signum() < 0 ? product.negate().shiftRight(w).negate() : product.shiftRight(w);
+  }
+  
+  /**
+   * Bounds a fixed point series of k terms, each at most half the one before it. Each term is off by at most 4 units in
+   * the last place, having been rounded twice from a term off by at most half as much, and once a term rounds to zero the
+   * exact tail is at most twice the 4 units that term may be off by.
+   */
+  private static Interval seriesInterval(BigInteger sum, long k, int w) {
+    return new Interval(sum, sum, w).widen(BigInteger.valueOf(4 * k + 16));
+  }
+  
+  /**
+   * @return the number of terms of 1/(m^(2k + 1)) past which the tail is below 2^-bits, where log2Ratio = log2(m^2)
+   */
+  private static long terms(int bits, double log2Ratio) {
+    return (long) Math.ceil(bits / log2Ratio) + 1;
+  }
+  
+  /**
+   * @return the partial sum of atan(1/m) over n terms, as a numerator and a denominator
+   */
+  private static BigInteger[] inverseAtan(final long m, long n) {
+    final BigInteger[] split = BinarySplitting.split(new SeriesTerms() {
+      @Override
+      public BigInteger p(long k) {
+        return k == 0 ? BigInteger.ONE : BigInteger.ONE.negate();
+      }
+      
+      @Override
+      public BigInteger q(long k) {
+        return BigInteger.valueOf(k == 0 ? m : m * m);
+      }
+      
+      @Override
+      public BigInteger b(long k) {
+        return BigInteger.valueOf(2 * k + 1);
+      }
+    }, 0, n, ForkJoinPool.commonPool());
+    
+    return new BigInteger[] { split[3], split[2].multiply(split[1]) };
+  }
+  
+  /**
+   * @return the multiple k of period nearest x, so that |x - k * period| is about period / 2 at most
+   */
+  private static long nearestMultiple(Rational x, double period) throws ArithmeticException {
+    final double value = x.doubleValue();
+    
+    if (!(Math.abs(value) < MAX_REDUCTION)) {
+      throw new ArithmeticException("Argument is too large.");
+    }
+    
+    return Math.round(value / period);
+  }
+  
+  private static int bitLength(long k) {
+    return Long.SIZE - Long.numberOfLeadingZeros(Math.abs(k));
+  }
+  
+  /**
+   * Computes an interval containing an exact value, with endpoints that are multiples of 2^-w.
+   */
+  private interface Approximation {
+    
+    Interval at(int w);
+    
+  }
+  
+  /**
+   * A constant whose interval at the highest precision asked for so far is remembered.
+   */
+  private static final class Constant implements Approximation {
+    
+    private final Approximation approximation;
+    private Interval cached;
+    
+    Constant(Approximation approximation) {
+      this.approximation = approximation;
+    }
+    
+    @Override
+    public synchronized Interval at(int w) {
+      if (cached == null || cached.w < w) {
+        cached = approximation.at(cached == null ? w : Math.max(w, cached.w + cached.w / 2));
+      }
+      
+      return cached.toPrecision(w);
+    }
+    
+  }
+  
+  /**
+   * The interval [lo / 2^w, hi / 2^w].
+   */
+  private static final class Interval {
+    
+    final BigInteger lo;
+    final BigInteger hi;
+    final int w;
+    
+    Interval(BigInteger lo, BigInteger hi, int w) {
+      this.lo = lo;
+      this.hi = hi;
+      this.w = w;
+    }
+    
+    /**
+     * @return the narrowest interval containing n / d, for positive d
+     */
+    static Interval of(BigInteger n, BigInteger d, int w) {
+      final BigInteger[] qr = n.shiftLeft(w).divideAndRemainder(d);
+      
+      if (qr[1].signum() == 0) {
+        return new Interval(qr[0], qr[0], w);
+      }
+      
+      return qr[1].signum() < 0
+        ? new Interval(qr[0].subtract(BigInteger.ONE), qr[0], w)
+        : new Interval(qr[0], qr[0].add(BigInteger.ONE), w);
+    }
+    
+    BigInteger width() {
+      return hi.subtract(lo);
+    }
+    
+    Interval widen(BigInteger units) {
+      return new Interval(lo.subtract(units), hi.add(units), w);
+    }
+    
+    Interval add(Interval other) {
+      return new Interval(lo.add(other.lo), hi.add(other.hi), w);
+    }
+    
+    Interval subtract(Interval other) {
+      return add(other.negate());
+    }
+    
+    Interval negate() {
+      return new Interval(hi.negate(), lo.negate(), w);
+    }
+    
+    Interval multiply(BigInteger k) {
+      return k.signum() < 0
+        ? new Interval(hi.multiply(k), lo.multiply(k), w)
+        : new Interval(lo.multiply(k), hi.multiply(k), w);
+    }
+    
+    /**
+     * @return this multiplied by 2^s, rounded outward
+     */
+    Interval shift(int s) {
+      if (s >= 0) {
+        return new Interval(lo.shiftLeft(s), hi.shiftLeft(s), w);
+      }
+      
+      return new Interval(lo.shiftRight(-s), hi.negate().shiftRight(-s).negate(), w);
+    }
+    
+    /**
+     * @return the same interval with endpoints that are multiples of 2^-precision, rounded outward
+     */
+    Interval toPrecision(int precision) {
+      if (precision >= w) {
+        return new Interval(lo.shiftLeft(precision - w), hi.shiftLeft(precision - w), precision);
+      }
+      
+      return new Interval(lo.shiftRight(w - precision), hi.negate().shiftRight(w - precision).negate(), precision);
+    }
+    
+  }
+  
+}
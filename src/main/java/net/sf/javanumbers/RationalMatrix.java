@@ -0,0 +1,449 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * An immutable matrix of {@link Rational} values with exact determinants, solutions of linear systems, inverses and ranks.
+ *
+ * None of these operations do arithmetic on {@link Rational} values. Each row is first multiplied by the least common
+ * multiple of its denominators, and the resulting whole number matrix is brought to echelon form by fraction-free Bareiss
+ * elimination, in which every division is exact and every intermediate entry is a minor of the original matrix, so entries
+ * grow only linearly in size. Solutions are found by fraction-free back-substitution and reduced once each. When the part
+ * of the matrix still being eliminated is large, its rows are updated in parallel on the common {@link ForkJoinPool}.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public final class RationalMatrix {
+
+  /**
+   * Row updates touching at least this many entries are split across the common {@link ForkJoinPool}.
+   */
+  private static final int PARALLEL_THRESHOLD = 4096;
+
+  private final Rational[][] entries;
+  private final int rows;
+  private final int columns;
+
+  /**
+   * @param entries the rows of the matrix, all of the same length, which are copied
+   * @throws IllegalArgumentException if there are no rows or columns, or if the rows differ in length.
+   */
+  public RationalMatrix(Rational[][] entries) throws IllegalArgumentException {
+    if (entries.length == 0 || entries[0].length == 0) {
+      throw new IllegalArgumentException("Matrix must have at least one row and one column.");
+    }
+
+    this.rows = entries.length;
+    this.columns = entries[0].length;
+    this.entries = new Rational[rows][];
+
+    for (int i = 0; i < rows; i++) {
+      if (entries[i].length != columns) {
+        throw new IllegalArgumentException("Matrix rows must all be of the same length.");
+      }
+
+      for (Rational entry : entries[i]) {
+        if (entry == null) {
+          throw new NullPointerException("Matrix entries may not be null.");
+        }
+      }
+
+      this.entries[i] = entries[i].clone();
+    }
+  }
+
+  /**
+   * @param size number of rows and columns
+   * @return the identity matrix of the given size.
+   */
+  public static RationalMatrix identity(int size) {
+    final Rational[][] entries = new Rational[size][size];
+
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        entries[i][j] = i == j ? Rational.ONE : Rational.ZERO;
+      }
+    }
+
+    return new RationalMatrix(entries);
+  }
+
+  public int rows() {
+    return rows;
+  }
+
+  public int columns() {
+    return columns;
+  }
+
+  /**
+   * @param row zero-based row
+   * @param column zero-based column
+   * @return the entry at row and column.
+   */
+  public Rational get(int row, int column) {
+    return entries[row][column];
+  }
+
+  /**
+   * @param vector {@link Rational} values, as many as this matrix has columns
+   * @return the product of this matrix and vector.
+   */
+  public Rational[] multiply(Rational[] vector) {
+    if (vector.length != columns) {
+      throw new IllegalArgumentException("Vector length must equal the number of columns.");
+    }
+
+    final Rational[] product = new Rational[rows];
+
+    for (int i = 0; i < rows; i++) {
+      product[i] = Rational.dot(entries[i], vector);
+    }
+
+    return product;
+  }
+
+  /**
+   * @throws IllegalArgumentException if this matrix is not square.
+   * @return the determinant of this matrix.
+   */
+  public Rational determinant() throws IllegalArgumentException {
+    assertSquare();
+
+    final BigInteger[] multipliers = new BigInteger[rows];
+    final Echelon echelon = new Echelon(integerRows(null, multipliers), columns);
+
+    if (echelon.rank < rows) {
+      return Rational.ZERO;
+    }
+
+    BigInteger scale = BigInteger.ONE;
+
+    for (BigInteger multiplier : multipliers) {
+      scale = scale.multiply(multiplier);
+    }
+
+    final BigInteger last = echelon.m[rows - 1][columns - 1];
+
+    return Reducer.reduceWholeNumbers(echelon.sign < 0 ? last.negate() : last, scale);
+  }
+
+  /**
+   * @return the number of linearly independent rows of this matrix.
+   */
+  public int rank() {
+    return new Echelon(integerRows(null, new BigInteger[rows]), columns).rank;
+  }
+
+  /**
+   * Solves this * x = b.
+   * @param b {@link Rational} values, as many as this matrix has rows
+   * @throws IllegalArgumentException if this matrix is not square or b is of the wrong length.
+   * @throws ArithmeticException if this matrix is singular.
+   * @return x
+   */
+  public Rational[] solve(Rational[] b) throws IllegalArgumentException, ArithmeticException {
+    final Rational[][] column = new Rational[b.length][1];
+
+    for (int i = 0; i < b.length; i++) {
+      column[i][0] = b[i];
+    }
+
+    final RationalMatrix x = solve(new RationalMatrix(column));
+    final Rational[] solution = new Rational[rows];
+
+    for (int i = 0; i < rows; i++) {
+      solution[i] = x.entries[i][0];
+    }
+
+    return solution;
+  }
+
+  /**
+   * Solves this * X = B for every column of B at once.
+   * @param b {@link RationalMatrix} with as many rows as this matrix
+   * @throws IllegalArgumentException if this matrix is not square or b has the wrong number of rows.
+   * @throws ArithmeticException if this matrix is singular.
+   * @return X
+   */
+  public RationalMatrix solve(RationalMatrix b) throws IllegalArgumentException, ArithmeticException {
+    assertSquare();
+
+    if (b.rows != rows) {
+      throw new IllegalArgumentException("Right hand side must have as many rows as the matrix.");
+    }
+
+    final Echelon echelon = new Echelon(integerRows(b, new BigInteger[rows]), columns);
+
+    if (echelon.rank < rows) {
+      throw new ArithmeticException("Matrix is singular.");
+    }
+
+    final BigInteger[][] m = echelon.m;
+    final BigInteger determinant = m[rows - 1][columns - 1];
+    final Rational[][] x = new Rational[rows][b.columns];
+    final BigInteger[] y = new BigInteger[rows];
+
+    // Cramer's rule makes determinant * x a whole number vector, so each step of back-substitution divides exactly.
+    for (int c = 0; c < b.columns; c++) {
+      for (int i = rows - 1; i >= 0; i--) {
+        BigInteger sum = determinant.multiply(m[i][columns + c]);
+
+        for (int j = i + 1; j < rows; j++) {
+          sum = sum.subtract(m[i][j].multiply(y[j]));
+        }
+
+        y[i] = sum.divide(m[i][i]);
+        x[i][c] = Reducer.reduceWholeNumbers(y[i], determinant);
+      }
+    }
+
+    return new RationalMatrix(x);
+  }
+
+  /**
+   * @throws IllegalArgumentException if this matrix is not square.
+   * @throws ArithmeticException if this matrix is singular.
+   * @return the inverse of this matrix.
+   */
+  public RationalMatrix inverse() throws IllegalArgumentException, ArithmeticException {
+    return solve(RationalMatrix.identity(rows));
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof RationalMatrix)) {
+      return false;
+    }
+
+    final RationalMatrix that = (RationalMatrix) other;
+
+    if (that.rows != rows || that.columns != columns) {
+      return false;
+    }
+
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < columns; j++) {
+        if (!entries[i][j].equals(that.entries[i][j])) {
+          return false;
+        }
+      }
+    }
+
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 53;
+
+    for (Rational[] row : entries) {
+      for (Rational entry : row) {
+        result = 37 * result + entry.hashCode();
+      }
+    }
+
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("[");
+
+    for (int i = 0; i < rows; i++) {
+      sb.append(i == 0 ? "[" : ", [");
+
+      for (int j = 0; j < columns; j++) {
+        if (j > 0) {
+          sb.append(", ");
+        }
+
+        sb.append(entries[i][j]);
+      }
+
+      sb.append(']');
+    }
+
+    return sb.append(']').toString();
+  }
+
+  private void assertSquare() {
+    if (rows != columns) {
+      throw new IllegalArgumentException("Matrix must be square.");
+    }
+  }
+
+  /**
+   * Clears the denominators of this matrix, augmented on the right by rhs, one row at a time.
+   * @param rhs augmenting columns, or <code>null</code>
+   * @param multipliers receives the positive multiplier applied to each row
+   * @return whole number rows
+   */
+  private BigInteger[][] integerRows(RationalMatrix rhs, BigInteger[] multipliers) {
+    final int width = columns + (rhs == null ? 0 : rhs.columns);
+    final BigInteger[][] m = new BigInteger[rows][width];
+    final BigInteger[][] parts = new BigInteger[width][];
+
+    for (int i = 0; i < rows; i++) {
+      BigInteger lcm = BigInteger.ONE;
+
+      for (int j = 0; j < width; j++) {
+        parts[j] = (j < columns ? entries[i][j] : rhs.entries[i][j - columns]).integerParts();
+
+        final BigInteger d = parts[j][1];
+
+        if (parts[j][0].signum() != 0 && !d.equals(BigInteger.ONE) && !d.equals(lcm)) {
+          lcm = lcm.multiply(d.divide(Factors.greatestCommonFactor(lcm, d)));
+        }
+      }
+
+      for (int j = 0; j < width; j++) {
+        m[i][j] = parts[j][1].equals(lcm) ? parts[j][0] : parts[j][0].multiply(lcm.divide(parts[j][1]));
+      }
+
+      multipliers[i] = lcm;
+    }
+
+    return m;
+  }
+
+  /**
+   * The fraction-free row echelon form of a whole number matrix, computed in place by Bareiss elimination with row
+   * swaps. Pivots are searched for in the leading columns only, so augmenting columns are carried along.
+   */
+  private static final class Echelon {
+
+    final BigInteger[][] m;
+    int rank;
+    int sign;
+
+    Echelon(BigInteger[][] m, int pivotColumns) {
+      this.m = m;
+      this.sign = 1;
+
+      final int height = m.length;
+      final int width = m[0].length;
+      BigInteger previousPivot = BigInteger.ONE;
+
+      for (int k = 0; k < pivotColumns && rank < height; k++) {
+        int pivotRow = rank;
+
+        while (pivotRow < height && m[pivotRow][k].signum() == 0) {
+          pivotRow++;
+        }
+
+        if (pivotRow == height) {
+          continue;
+        }
+
+        if (pivotRow != rank) {
+          final BigInteger[] swap = m[pivotRow];
+
+          m[pivotRow] = m[rank];
+          m[rank] = swap;
+          sign = -sign;
+        }
+
+        final RowReduction reduction = new RowReduction(m, rank, k, previousPivot, rank + 1, height);
+
+        if ((long) (height - rank - 1) * (width - k) >= PARALLEL_THRESHOLD) {
+          ForkJoinPool.commonPool().invoke(reduction);
+        }
+        else {
+          reduction.compute();
+        }
+
+        previousPivot = m[rank][k];
+        rank++;
+      }
+    }
+
+  }
+
+  /**
+   * Eliminates one pivot column from a range of rows below the pivot row, splitting the range while it is large.
+   */
+  private static final class RowReduction extends RecursiveAction {
+
+    private static final long serialVersionUID = -2470215371529436188L;
+
+    private final BigInteger[][] m;
+    private final int pivotRow;
+    private final int pivotColumn;
+    private final BigInteger previousPivot;
+    private final int from;
+    private final int to;
+
+    RowReduction(BigInteger[][] m, int pivotRow, int pivotColumn, BigInteger previousPivot, int from, int to) {
+      this.m = m;
+      this.pivotRow = pivotRow;
+      this.pivotColumn = pivotColumn;
+      this.previousPivot = previousPivot;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      final int width = m[0].length - pivotColumn;
+
+      if (to - from > 1 && (long) (to - from) * width >= PARALLEL_THRESHOLD) {
+        final int middle = (from + to) >>> 1;
+
+        invokeAll(new RowReduction(m, pivotRow, pivotColumn, previousPivot, from, middle),
+          new RowReduction(m, pivotRow, pivotColumn, previousPivot, middle, to));
+        return;
+      }
+
+      final BigInteger[] pivots = m[pivotRow];
+      final BigInteger pivot = pivots[pivotColumn];
+      final boolean divide = !previousPivot.equals(BigInteger.ONE);
+
+      for (int i = from; i < to; i++) {
+        final BigInteger[] row = m[i];
+        final BigInteger factor = row[pivotColumn];
+
+        for (int j = pivotColumn + 1; j < row.length; j++) {
+          BigInteger value = pivot.multiply(row[j]);
+
+          if (factor.signum() != 0) {
+            value = value.subtract(factor.multiply(pivots[j]));
+          }
+
+          row[j] = divide ? value.divide(previousPivot) : value;
+        }
+
+        row[pivotColumn] = BigInteger.ZERO;
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,349 @@
+package net.sf.javanumbers;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * Optional counters of where the library spends its time and how large its operands grow: operations by type, with a
+ * histogram of operand bit lengths for each, conversions that had to fall back to the rounded quotient, and how often
+ * <code>long</code> fast paths were taken rather than {@link BigInteger} arithmetic. Counting is disabled by default, and
+ * costs a single volatile read per operation while disabled. The counters can be read with {@link #snapshot()} or over
+ * JMX once {@link #registerMBean()} has been called.
+ *
+ * Subtraction is counted as addition and division as multiplication, since that is how they are carried out.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public abstract class RationalMetrics {
+  
+  /**
+   * The types of operation counted.
+   */
+  public enum Operation {
+    ADD, MULTIPLY, REDUCE, GCD, CONVERSION
+  }
+  
+  /**
+   * Bucket 0 holds bit length 0, and bucket i &gt; 0 holds bit lengths from 2<sup>i - 1</sup> to 2<sup>i</sup> - 1.
+   */
+  static final int BUCKETS = Integer.SIZE + 1;
+  
+  static final String OBJECT_NAME = "net.sf.javanumbers:type=RationalMetrics";
+  
+  private static volatile boolean enabled;
+  
+  private static final LongAdder[] COUNTS = RationalMetrics.adders(Operation.values().length);
+  private static final LongAdder[] HISTOGRAMS = RationalMetrics.adders(Operation.values().length * BUCKETS);
+  private static final LongAdder FALLBACKS = new LongAdder();
+  private static final LongAdder FAST_PATHS = new LongAdder();
+  private static final LongAdder BIG_PATHS = new LongAdder();
+  
+  /**
+   * Starts counting.
+   */
+  public static void enable() {
+    enabled = true;
+  }
+  
+  /**
+   * Stops counting. The counts so far are kept.
+   */
+  public static void disable() {
+    enabled = false;
+  }
+  
+  /**
+   * @return whether counting is enabled.
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+  
+  /**
+   * Sets every count back to zero.
+   */
+  public static void reset() {
+    for (LongAdder adder : COUNTS) {
+      adder.reset();
+    }
+    
+    for (LongAdder adder : HISTOGRAMS) {
+      adder.reset();
+    }
+    
+    FALLBACKS.reset();
+    FAST_PATHS.reset();
+    BIG_PATHS.reset();
+  }
+  
+  /**
+   * @return a copy of the counts as they are now.
+   */
+  public static Snapshot snapshot() {
+    final long[] counts = new long[COUNTS.length];
+    final long[] histograms = new long[HISTOGRAMS.length];
+    
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = COUNTS[i].sum();
+    }
+    
+    for (int i = 0; i < histograms.length; i++) {
+      histograms[i] = HISTOGRAMS[i].sum();
+    }
+    
+    return new Snapshot(counts, histograms, FALLBACKS.sum(), FAST_PATHS.sum(), BIG_PATHS.sum());
+  }
+  
+  /**
+   * Registers a {@link RationalMetricsMXBean} with the platform MBean server, under the name
+   * <code>net.sf.javanumbers:type=RationalMetrics</code>, unless one is registered already.
+   * @throws IllegalStateException if it cannot be registered.
+   * @return the name it is registered under
+   */
+  public static synchronized ObjectName registerMBean() throws IllegalStateException {
+    try {
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      final ObjectName name = new ObjectName(OBJECT_NAME);
+      
+      if (!server.isRegistered(name)) {
+        server.registerMBean(new MXBean(), name);
+      }
+      
+      return name;
+    }
+    catch (JMException e) {
+      throw new IllegalStateException("Could not register the metrics MBean.", e);
+    }
+  }
+  
+  /**
+   * Removes the {@link RationalMetricsMXBean} from the platform MBean server, if it is registered.
+   * @throws IllegalStateException if it cannot be removed.
+   */
+  public static synchronized void unregisterMBean() throws IllegalStateException {
+    try {
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      final ObjectName name = new ObjectName(OBJECT_NAME);
+      
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+    }
+    catch (JMException e) {
+      throw new IllegalStateException("Could not unregister the metrics MBean.", e);
+    }
+  }
+  
+  /**
+   * Counts an operation on operands of up to bitLength bits, if counting is enabled.
+   */
+  static void record(Operation operation, int bitLength) {
+    if (enabled) {
+      COUNTS[operation.ordinal()].increment();
+      HISTOGRAMS[operation.ordinal() * BUCKETS + RationalMetrics.bucket(bitLength)].increment();
+    }
+  }
+  
+  /**
+   * Counts a conversion whose exact quotient did not terminate, if counting is enabled.
+   */
+  static void recordFallback() {
+    if (enabled) {
+      FALLBACKS.increment();
+    }
+  }
+  
+  /**
+   * Counts whether a <code>long</code> fast path or {@link BigInteger} arithmetic was used, if counting is enabled.
+   */
+  static void recordPath(boolean fast) {
+    if (enabled) {
+      (fast ? FAST_PATHS : BIG_PATHS).increment();
+    }
+  }
+  
+  static int bucket(int bitLength) {
+    return Integer.SIZE - Integer.numberOfLeadingZeros(bitLength);
+  }
+  
+  private static LongAdder[] adders(int length) {
+    final LongAdder[] adders = new LongAdder[length];
+    
+    for (int i = 0; i < length; i++) {
+      adders[i] = new LongAdder();
+    }
+    
+    return adders;
+  }
+  
+  /**
+   * The counts at one moment.
+   */
+  public static final class Snapshot {
+    
+    private final long[] counts;
+    private final long[] histograms;
+    private final long fallbacks;
+    private final long fastPaths;
+    private final long bigPaths;
+    
+    Snapshot(long[] counts, long[] histograms, long fallbacks, long fastPaths, long bigPaths) {
+      this.counts = counts;
+      this.histograms = histograms;
+      this.fallbacks = fallbacks;
+      this.fastPaths = fastPaths;
+      this.bigPaths = bigPaths;
+    }
+    
+    /**
+     * @param operation {@link Operation} type
+     * @return how many operations of the type were carried out.
+     */
+    public long count(Operation operation) {
+      return counts[operation.ordinal()];
+    }
+    
+    /**
+     * @param operation {@link Operation} type
+     * @return how many operations of the type had operands of up to 0, 1, 3, 7, 15, ... 2<sup>32</sup> - 1 bits, by
+     * the largest of their numerators and denominators.
+     */
+    public long[] bitLengthHistogram(Operation operation) {
+      final long[] histogram = new long[BUCKETS];
+      
+      System.arraycopy(histograms, operation.ordinal() * BUCKETS, histogram, 0, BUCKETS);
+      
+      return histogram;
+    }
+    
+    /**
+     * @return how many conversions found the exact quotient did not terminate and fell back to rounding it.
+     */
+    public long fallbacks() {
+      return fallbacks;
+    }
+    
+    /**
+     * @return how many times <code>long</code> arithmetic sufficed.
+     */
+    public long fastPaths() {
+      return fastPaths;
+    }
+    
+    /**
+     * @return how many times {@link BigInteger} arithmetic was needed where a <code>long</code> fast path exists.
+     */
+    public long bigPaths() {
+      return bigPaths;
+    }
+    
+    @Override
+    public String toString() {
+      final StringBuilder sb = new StringBuilder();
+      
+      for (Operation operation : Operation.values()) {
+        sb.append(operation).append('=').append(count(operation)).append(", ");
+      }
+      
+      return sb.append("fallbacks=").append(fallbacks).append(", fastPaths=").append(fastPaths)
+        .append(", bigPaths=").append(bigPaths).toString();
+    }
+    
+  }
+  
+  private static final class MXBean implements RationalMetricsMXBean {
+    
+    @Override
+    public boolean isEnabled() {
+      return RationalMetrics.isEnabled();
+    }
+    
+    @Override
+    public void setEnabled(boolean enabled) {
+      if (enabled) {
+        RationalMetrics.enable();
+      }
+      else {
+        RationalMetrics.disable();
+      }
+    }
+    
+    @Override
+    public Map<String, Long> getOperationCounts() {
+      final Snapshot snapshot = RationalMetrics.snapshot();
+      final Map<String, Long> counts = new LinkedHashMap<String, Long>();
+      
+      for (Operation operation : Operation.values()) {
+        counts.put(operation.name(), snapshot.count(operation));
+      }
+      
+      return counts;
+    }
+    
+    @Override
+    public Map<String, long[]> getBitLengthHistograms() {
+      final Snapshot snapshot = RationalMetrics.snapshot();
+      final Map<String, long[]> histograms = new LinkedHashMap<String, long[]>();
+      
+      for (Operation operation : Operation.values()) {
+        histograms.put(operation.name(), snapshot.bitLengthHistogram(operation));
+      }
+      
+      return histograms;
+    }
+    
+    @Override
+    public long getFallbackCount() {
+      return FALLBACKS.sum();
+    }
+    
+    @Override
+    public long getFastPathCount() {
+      return FAST_PATHS.sum();
+    }
+    
+    @Override
+    public long getBigPathCount() {
+      return BIG_PATHS.sum();
+    }
+    
+    @Override
+    public void reset() {
+      RationalMetrics.reset();
+    }
+    
+  }
+  
+}
@@ -0,0 +1,61 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * The JMX view of {@link RationalMetrics}, registered by {@link RationalMetrics#registerMBean()}.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public interface RationalMetricsMXBean {
+  
+  boolean isEnabled();
+  
+  void setEnabled(boolean enabled);
+  
+  /**
+   * @return the count of each {@link RationalMetrics.Operation}, by name.
+   */
+  Map<String, Long> getOperationCounts();
+  
+  /**
+   * @return the bit length histogram of each {@link RationalMetrics.Operation}, by name.
+   * @see RationalMetrics.Snapshot#bitLengthHistogram(RationalMetrics.Operation)
+   */
+  Map<String, long[]> getBitLengthHistograms();
+  
+  long getFallbackCount();
+  
+  long getFastPathCount();
+  
+  long getBigPathCount();
+  
+  void reset();
+  
+}
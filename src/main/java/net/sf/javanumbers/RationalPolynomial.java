@@ -0,0 +1,493 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * An immutable polynomial in one variable with {@link Rational} coefficients.
+ *
+ * The coefficients are held as whole number numerators over a single shared denominator, kept in lowest terms, so
+ * arithmetic is done on integer polynomials and no coefficient is reduced separately. Evaluation at u/v uses a Horner
+ * scheme on whole numbers, multiplying in powers of v instead of forming fractions, and reduces once at the end. Batches
+ * of points are evaluated in parallel on the common {@link ForkJoinPool}.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public final class RationalPolynomial {
+
+  public static final RationalPolynomial ZERO = new RationalPolynomial(new BigInteger[0], BigInteger.ONE);
+  public static final RationalPolynomial ONE = new RationalPolynomial(new BigInteger[] { BigInteger.ONE }, BigInteger.ONE);
+
+  /**
+   * Batches of at least this many points are split across the common {@link ForkJoinPool}.
+   */
+  private static final int PARALLEL_THRESHOLD = 256;
+
+  private final BigInteger[] numerators;
+  private final BigInteger denominator;
+
+  /**
+   * @param coefficients coefficients from the constant term upwards, so that coefficients[i] multiplies x<sup>i</sup>
+   */
+  public RationalPolynomial(Rational... coefficients) {
+    final BigInteger[][] parts = new BigInteger[coefficients.length][];
+    BigInteger common = BigInteger.ONE;
+
+    for (int i = 0; i < coefficients.length; i++) {
+      parts[i] = coefficients[i].integerParts();
+
+      if (parts[i][0].signum() != 0 && !parts[i][1].equals(common)) {
+        common = common.multiply(parts[i][1].divide(Factors.greatestCommonFactor(common, parts[i][1])));
+      }
+    }
+
+    final BigInteger[] n = new BigInteger[coefficients.length];
+
+    for (int i = 0; i < coefficients.length; i++) {
+      n[i] = parts[i][1].equals(common) ? parts[i][0] : parts[i][0].multiply(common.divide(parts[i][1]));
+    }
+
+    final RationalPolynomial normalized = new RationalPolynomial(n, common);
+
+    this.numerators = normalized.numerators;
+    this.denominator = normalized.denominator;
+  }
+
+  /**
+   * Builds a polynomial from whole number coefficients over a common non-zero denominator, bringing it to lowest terms.
+   */
+  private RationalPolynomial(BigInteger[] n, BigInteger d) {
+    int length = n.length;
+
+    while (length > 0 && n[length - 1].signum() == 0) {
+      length--;
+    }
+
+    if (length == 0) {
+      this.numerators = new BigInteger[0];
+      this.denominator = BigInteger.ONE;
+      return;
+    }
+
+    BigInteger gcf = d.abs();
+
+    for (int i = 0; i < length && !gcf.equals(BigInteger.ONE); i++) {
+      gcf = Factors.greatestCommonFactor(gcf, n[i]);
+    }
+
+    if (d.signum() < 0) {
+      gcf = gcf.negate();
+    }
+
+    final BigInteger[] reduced = new BigInteger[length];
+
+    for (int i = 0; i < length; i++) {
+      reduced[i] = gcf.equals(BigInteger.ONE) ? n[i] : n[i].divide(gcf);
+    }
+
+    this.numerators = reduced;
+    this.denominator = gcf.equals(BigInteger.ONE) ? d : d.divide(gcf);
+  }
+
+  /**
+   * @return the highest power with a non-zero coefficient, or -1 for the zero polynomial.
+   */
+  public int degree() {
+    return numerators.length - 1;
+  }
+
+  /**
+   * @param power power of x
+   * @return the coefficient of x<sup>power</sup>.
+   */
+  public Rational coefficient(int power) {
+    if (power < 0 || power >= numerators.length) {
+      return Rational.ZERO;
+    }
+
+    return Reducer.reduceWholeNumbers(numerators[power], denominator);
+  }
+
+  public RationalPolynomial add(RationalPolynomial p) {
+    if (p.numerators.length == 0) {
+      return this;
+    }
+
+    if (numerators.length == 0) {
+      return p;
+    }
+
+    final BigInteger gcf = Factors.greatestCommonFactor(denominator, p.denominator);
+    final BigInteger leftFactor = p.denominator.divide(gcf);
+    final BigInteger rightFactor = denominator.divide(gcf);
+    final BigInteger[] n = new BigInteger[Math.max(numerators.length, p.numerators.length)];
+
+    for (int i = 0; i < n.length; i++) {
+      final BigInteger left = i < numerators.length ? numerators[i].multiply(leftFactor) : BigInteger.ZERO;
+      final BigInteger right = i < p.numerators.length ? p.numerators[i].multiply(rightFactor) : BigInteger.ZERO;
+
+      n[i] = left.add(right);
+    }
+
+    return new RationalPolynomial(n, denominator.multiply(leftFactor));
+  }
+
+  public RationalPolynomial subtract(RationalPolynomial p) {
+    return add(p.negate());
+  }
+
+  public RationalPolynomial negate() {
+    final BigInteger[] n = new BigInteger[numerators.length];
+
+    for (int i = 0; i < n.length; i++) {
+      n[i] = numerators[i].negate();
+    }
+
+    return new RationalPolynomial(n, denominator);
+  }
+
+  public RationalPolynomial multiply(RationalPolynomial p) {
+    return new RationalPolynomial(RationalPolynomial.multiply(numerators, p.numerators), denominator.multiply(p.denominator));
+  }
+
+  /**
+   * Divides this polynomial by another, so that this = quotient * divisor + remainder with the degree of the remainder
+   * less than that of the divisor. The division is done by pseudo-division on the whole number numerators, dividing out
+   * the power of the divisor's leading coefficient afterwards.
+   * @param divisor non-zero {@link RationalPolynomial}
+   * @throws ArithmeticException if divisor is zero.
+   * @return an array of the quotient followed by the remainder
+   */
+  public RationalPolynomial[] divideAndRemainder(RationalPolynomial divisor) throws ArithmeticException {
+    if (divisor.numerators.length == 0) {
+      throw new ArithmeticException("Division by zero.");
+    }
+
+    if (numerators.length < divisor.numerators.length) {
+      return new RationalPolynomial[] { ZERO, this };
+    }
+
+    final BigInteger[][] qr = RationalPolynomial.pseudoDivide(numerators, divisor.numerators);
+    final BigInteger scale = divisor.numerators[divisor.numerators.length - 1].pow(numerators.length - divisor.numerators.length + 1);
+    final BigInteger[] q = qr[0];
+
+    for (int i = 0; i < q.length; i++) {
+      q[i] = q[i].multiply(divisor.denominator);
+    }
+
+    return new RationalPolynomial[] {
+      new RationalPolynomial(q, denominator.multiply(scale)),
+      new RationalPolynomial(qr[1], denominator.multiply(scale))
+    };
+  }
+
+  /**
+   * @return the derivative of this polynomial.
+   */
+  public RationalPolynomial derivative() {
+    if (numerators.length <= 1) {
+      return ZERO;
+    }
+
+    final BigInteger[] n = new BigInteger[numerators.length - 1];
+
+    for (int i = 1; i < numerators.length; i++) {
+      n[i - 1] = numerators[i].multiply(BigInteger.valueOf(i));
+    }
+
+    return new RationalPolynomial(n, denominator);
+  }
+
+  /**
+   * Finds the greatest common divisor by the primitive polynomial remainder sequence, which keeps coefficients small by
+   * dividing each remainder by the greatest common factor of its coefficients.
+   * @param p {@link RationalPolynomial} value
+   * @return the monic greatest common divisor of this and p, or zero if both are zero.
+   */
+  public RationalPolynomial gcd(RationalPolynomial p) {
+    BigInteger[] a = RationalPolynomial.primitivePart(numerators);
+    BigInteger[] b = RationalPolynomial.primitivePart(p.numerators);
+
+    if (a.length < b.length) {
+      final BigInteger[] swap = a;
+
+      a = b;
+      b = swap;
+    }
+
+    while (b.length > 0) {
+      final BigInteger[] r = RationalPolynomial.primitivePart(RationalPolynomial.pseudoDivide(a, b)[1]);
+
+      a = b;
+      b = r;
+    }
+
+    if (a.length == 0) {
+      return ZERO;
+    }
+
+    return new RationalPolynomial(a, a[a.length - 1]);
+  }
+
+  /**
+   * Evaluates this polynomial at a point.
+   * @param x {@link Rational} value
+   * @return the reduced value of this polynomial at x.
+   */
+  public Rational evaluate(Rational x) {
+    if (numerators.length == 0) {
+      return Rational.ZERO;
+    }
+
+    final BigInteger[] parts = x.integerParts();
+    final BigInteger u = parts[0];
+    final BigInteger v = parts[1];
+    final boolean whole = v.equals(BigInteger.ONE);
+    BigInteger acc = numerators[numerators.length - 1];
+    BigInteger vPower = BigInteger.ONE;
+
+    // With x = u/v, v^n * p(x) = (((a_n u + a_(n-1) v) u + a_(n-2) v^2) u + ...) + a_0 v^n, all in whole numbers.
+    for (int i = numerators.length - 2; i >= 0; i--) {
+      if (!whole) {
+        vPower = vPower.multiply(v);
+      }
+
+      acc = acc.multiply(u);
+
+      if (numerators[i].signum() != 0) {
+        acc = acc.add(whole ? numerators[i] : numerators[i].multiply(vPower));
+      }
+    }
+
+    return Reducer.reduceWholeNumbers(acc, denominator.multiply(vPower));
+  }
+
+  /**
+   * Evaluates this polynomial at many points, splitting large batches across the common {@link ForkJoinPool}.
+   * @param xs {@link Rational} values
+   * @return the values of this polynomial at each of xs, in order.
+   */
+  public Rational[] evaluate(Rational[] xs) {
+    final Rational[] values = new Rational[xs.length];
+    final Evaluation evaluation = new Evaluation(this, xs, values, 0, xs.length);
+
+    if (xs.length >= PARALLEL_THRESHOLD) {
+      ForkJoinPool.commonPool().invoke(evaluation);
+    }
+    else {
+      evaluation.compute();
+    }
+
+    return values;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof RationalPolynomial)) {
+      return false;
+    }
+
+    final RationalPolynomial that = (RationalPolynomial) other;
+
+    return denominator.equals(that.denominator) && Arrays.equals(numerators, that.numerators);
+  }
+
+  @Override
+  public int hashCode() {
+    return 37 * Arrays.hashCode(numerators) + denominator.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    if (numerators.length == 0) {
+      return "0";
+    }
+
+    final StringBuilder sb = new StringBuilder();
+
+    for (int i = numerators.length - 1; i >= 0; i--) {
+      if (numerators[i].signum() == 0) {
+        continue;
+      }
+
+      final boolean negative = numerators[i].signum() < 0;
+      final BigInteger magnitude = numerators[i].abs();
+      final BigInteger gcf = Factors.greatestCommonFactor(magnitude, denominator);
+      final BigInteger n = magnitude.divide(gcf);
+      final BigInteger d = denominator.divide(gcf);
+      final boolean unit = n.equals(BigInteger.ONE) && d.equals(BigInteger.ONE);
+
+      if (sb.length() > 0) {
+        sb.append(negative ? " - " : " + ");
+      }
+      else if (negative) {
+        sb.append('-');
+      }
+
+      if (!unit || i == 0) {
+        sb.append(n);
+
+        if (!d.equals(BigInteger.ONE)) {
+          sb.append('/').append(d);
+        }
+      }
+
+      if (i > 0) {
+        sb.append(unit ? "" : "*").append('x');
+
+        if (i > 1) {
+          sb.append('^').append(i);
+        }
+      }
+    }
+
+    return sb.toString();
+  }
+
+  private static BigInteger[] multiply(BigInteger[] a, BigInteger[] b) {
+    if (a.length == 0 || b.length == 0) {
+      return new BigInteger[0];
+    }
+
+    final BigInteger[] product = new BigInteger[a.length + b.length - 1];
+
+    Arrays.fill(product, BigInteger.ZERO);
+
+    for (int i = 0; i < a.length; i++) {
+      if (a[i].signum() == 0) {
+        continue;
+      }
+
+      for (int j = 0; j < b.length; j++) {
+        product[i + j] = product[i + j].add(a[i].multiply(b[j]));
+      }
+    }
+
+    return product;
+  }
+
+  /**
+   * Pseudo-divides whole number polynomials, finding q and r with lc(b)<sup>deg(a) - deg(b) + 1</sup> * a = q * b + r.
+   * @param a dividend, of degree at least that of b
+   * @param b non-zero divisor
+   * @return an array of q followed by r
+   */
+  private static BigInteger[][] pseudoDivide(BigInteger[] a, BigInteger[] b) {
+    final BigInteger lead = b[b.length - 1];
+    final int steps = a.length - b.length + 1;
+    final BigInteger[] r = a.clone();
+    final BigInteger[] q = new BigInteger[Math.max(steps, 0)];
+
+    Arrays.fill(q, BigInteger.ZERO);
+
+    for (int k = steps - 1; k >= 0; k--) {
+      final BigInteger top = r[k + b.length - 1];
+
+      for (int i = 0; i < q.length; i++) {
+        q[i] = q[i].multiply(lead);
+      }
+
+      for (int i = 0; i < k + b.length; i++) {
+        r[i] = r[i].multiply(lead);
+      }
+
+      q[k] = q[k].add(top);
+
+      for (int j = 0; j < b.length; j++) {
+        r[k + j] = r[k + j].subtract(top.multiply(b[j]));
+      }
+    }
+
+    return new BigInteger[][] { q, Arrays.copyOf(r, b.length - 1) };
+  }
+
+  /**
+   * @return a divided by the greatest common factor of its coefficients, with any trailing zero coefficients removed.
+   */
+  private static BigInteger[] primitivePart(BigInteger[] a) {
+    int length = a.length;
+
+    while (length > 0 && a[length - 1].signum() == 0) {
+      length--;
+    }
+
+    BigInteger content = BigInteger.ZERO;
+
+    for (int i = 0; i < length && !content.equals(BigInteger.ONE); i++) {
+      content = Factors.greatestCommonFactor(content, a[i]);
+    }
+
+    final BigInteger[] primitive = new BigInteger[length];
+
+    for (int i = 0; i < length; i++) {
+      primitive[i] = content.equals(BigInteger.ONE) ? a[i] : a[i].divide(content);
+    }
+
+    return primitive;
+  }
+
+  /**
+   * Evaluates a polynomial at a range of points, splitting the range while it is large.
+   */
+  private static final class Evaluation extends RecursiveAction {
+
+    private static final long serialVersionUID = 6243816052357921034L;
+
+    private final RationalPolynomial polynomial;
+    private final Rational[] xs;
+    private final Rational[] values;
+    private final int from;
+    private final int to;
+
+    Evaluation(RationalPolynomial polynomial, Rational[] xs, Rational[] values, int from, int to) {
+      this.polynomial = polynomial;
+      this.xs = xs;
+      this.values = values;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from >= PARALLEL_THRESHOLD) {
+        final int middle = (from + to) >>> 1;
+
+        invokeAll(new Evaluation(polynomial, xs, values, from, middle), new Evaluation(polynomial, xs, values, middle, to));
+        return;
+      }
+
+      for (int i = from; i < to; i++) {
+        values[i] = polynomial.evaluate(xs[i]);
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,350 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * Sorting and order statistics for arrays of {@link Rational} values that compare each value exactly but only rarely.
+ * The value of every element is rounded to the nearest double once, and the elements are ordered by those primitive keys.
+ * Rounding to nearest never reverses the order of two values, so only elements whose keys are equal, which for most data
+ * means equal values, are then compared exactly by cross-multiplication.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public abstract class RationalSorts {
+  
+  /**
+   * Ranges of at most this many elements are sorted by insertion.
+   */
+  private static final int INSERTION_THRESHOLD = 32;
+  
+  /**
+   * Ranges of at least this many elements are sorted in parallel.
+   */
+  private static final int PARALLEL_THRESHOLD = 8192;
+  
+  private static final Comparator<Rational> EXACT = new Comparator<Rational>() {
+    @Override
+    public int compare(Rational left, Rational right) {
+      return Rational.compareExactly(left, right);
+    }
+  };
+  
+  /**
+   * Sorts values into ascending order of their exact values.
+   * @param values {@link Rational} values, none of them <code>null</code>
+   */
+  public static void sort(Rational[] values) {
+    final double[] keys = RationalSorts.keys(values);
+    
+    RationalSorts.mergeSort(keys, values, new double[values.length], new Rational[values.length], 0, values.length);
+    RationalSorts.breakTies(keys, values, 0, values.length);
+  }
+  
+  /**
+   * Sorts values into ascending order of their exact values, computing keys and sorting in parallel on the common
+   * {@link ForkJoinPool}.
+   * @param values {@link Rational} values, none of them <code>null</code>
+   */
+  public static void parallelSort(Rational[] values) {
+    if (values.length < PARALLEL_THRESHOLD) {
+      RationalSorts.sort(values);
+      return;
+    }
+    
+    final double[] keys = new double[values.length];
+    
+    ForkJoinPool.commonPool().invoke(new ParallelSort(keys, values, new double[values.length], new Rational[values.length], 0, values.length));
+    RationalSorts.breakTies(keys, values, 0, values.length);
+  }
+  
+  /**
+   * Finds the k-th smallest value by introselect, reordering values so that it is at index k, no element before it is
+   * greater and no element after it is smaller.
+   * @param values {@link Rational} values, none of them <code>null</code>
+   * @param k zero-based rank
+   * @throws IndexOutOfBoundsException if k is not an index of values.
+   * @return the k-th smallest value
+   */
+  public static Rational select(Rational[] values, int k) throws IndexOutOfBoundsException {
+    if (k < 0 || k >= values.length) {
+      throw new IndexOutOfBoundsException(String.format("Rank %s is out of bounds for %s values.", k, values.length));
+    }
+    
+    final double[] keys = RationalSorts.keys(values);
+    
+    RationalSorts.select(keys, values, 0, values.length, k);
+    
+    return values[k];
+  }
+  
+  /**
+   * Finds the median exactly, reordering values as {@link #select(Rational[], int)} does.
+   * @param values {@link Rational} values, none of them <code>null</code>
+   * @throws IllegalArgumentException if values is empty.
+   * @return the middle value, or the mean of the two middle values if there are an even number
+   */
+  public static Rational median(Rational[] values) throws IllegalArgumentException {
+    if (values.length == 0) {
+      throw new IllegalArgumentException("The median of no values is undefined.");
+    }
+    
+    final int k = values.length / 2;
+    final double[] keys = RationalSorts.keys(values);
+    
+    RationalSorts.select(keys, values, 0, values.length, k);
+    
+    if (values.length % 2 == 1) {
+      return values[k];
+    }
+    
+    RationalSorts.select(keys, values, 0, k, k - 1);
+    
+    final BigInteger[] sum = values[k - 1].integerParts();
+    final BigInteger[] upper = values[k].integerParts();
+    
+    Rational.accumulate(sum, upper[0], upper[1]);
+    
+    return Reducer.reduceWholeNumbers(sum[0], sum[1].shiftLeft(1));
+  }
+  
+  /**
+   * Rounds a fraction to the nearest double, or to an infinity if it is too large.
+   * @param n numerator
+   * @param d positive denominator
+   */
+  static double toDouble(BigInteger n, BigInteger d) {
+    if (n.bitLength() <= 53 && d.bitLength() <= 53) {
+      return (double) n.longValue() / (double) d.longValue();
+    }
+    
+    final BigInteger magnitude = n.abs();
+    final int shift = 55 - (magnitude.bitLength() - d.bitLength());
+    final BigInteger[] qr = shift >= 0
+      ? magnitude.shiftLeft(shift).divideAndRemainder(d)
+      : magnitude.divideAndRemainder(d.shiftLeft(-shift));
+    
+    // The quotient has 55 or 56 bits, so folding the remainder into its lowest bit rounds it as the exact value would.
+    final long quotient = qr[0].longValue() | (qr[1].signum() == 0 ? 0 : 1);
+    final double value = Math.scalb((double) quotient, -shift);
+    
+    return n.signum() < 0 ? -value : value;
+  }
+  
+  private static double[] keys(Rational[] values) {
+    final double[] keys = new double[values.length];
+    
+    RationalSorts.fillKeys(keys, values, 0, values.length);
+    
+    return keys;
+  }
+  
+  private static void fillKeys(double[] keys, Rational[] values, int from, int to) {
+    for (int i = from; i < to; i++) {
+      final BigInteger[] parts = values[i].integerParts();
+      
+      keys[i] = RationalSorts.toDouble(parts[0], parts[1]);
+    }
+  }
+  
+  /**
+   * Sorts the runs of equal keys exactly.
+   */
+  private static void breakTies(double[] keys, Rational[] values, int from, int to) {
+    int start = from;
+    
+    for (int i = from + 1; i <= to; i++) {
+      if (i == to || keys[i] != keys[start]) {
+        if (i - start > 1) {
+          Arrays.sort(values, start, i, EXACT);
+        }
+        
+        start = i;
+      }
+    }
+  }
+  
+  private static void mergeSort(double[] keys, Rational[] values, double[] keyBuffer, Rational[] valueBuffer, int from, int to) {
+    if (to - from <= INSERTION_THRESHOLD) {
+      RationalSorts.insertionSort(keys, values, from, to);
+      return;
+    }
+    
+    final int middle = (from + to) >>> 1;
+    
+    RationalSorts.mergeSort(keys, values, keyBuffer, valueBuffer, from, middle);
+    RationalSorts.mergeSort(keys, values, keyBuffer, valueBuffer, middle, to);
+    RationalSorts.merge(keys, values, keyBuffer, valueBuffer, from, middle, to);
+  }
+  
+  private static void insertionSort(double[] keys, Rational[] values, int from, int to) {
+    for (int i = from + 1; i < to; i++) {
+      final double key = keys[i];
+      final Rational value = values[i];
+      int j = i - 1;
+      
+      while (j >= from && keys[j] > key) {
+        keys[j + 1] = keys[j];
+        values[j + 1] = values[j];
+        j--;
+      }
+      
+      keys[j + 1] = key;
+      values[j + 1] = value;
+    }
+  }
+  
+  private static void merge(double[] keys, Rational[] values, double[] keyBuffer, Rational[] valueBuffer, int from, int middle, int to) {
+    if (keys[middle - 1] <= keys[middle]) {
+      return;
+    }
+    
+    System.arraycopy(keys, from, keyBuffer, from, to - from);
+    System.arraycopy(values, from, valueBuffer, from, to - from);
+    
+    int i = from;
+    int j = middle;
+    
+    for (int k = from; k < to; k++) {
+      if (j >= to || (i < middle && keyBuffer[i] <= keyBuffer[j])) {
+        keys[k] = keyBuffer[i];
+        values[k] = valueBuffer[i++];
+      }
+      else {
+        keys[k] = keyBuffer[j];
+        values[k] = valueBuffer[j++];
+      }
+    }
+  }
+  
+  /**
+   * Moves the k-th smallest of the range to index k by three-way quickselect on the keys, sorting the range outright if
+   * the partitions keep coming out lopsided, and comparing exactly only within the block of keys equal to the k-th.
+   */
+  private static void select(double[] keys, Rational[] values, int from, int to, int k) {
+    int depth = 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(to - from));
+    
+    while (to - from > INSERTION_THRESHOLD) {
+      if (depth-- == 0) {
+        RationalSorts.mergeSort(keys, values, new double[keys.length], new Rational[keys.length], from, to);
+        RationalSorts.breakTies(keys, values, from, to);
+        return;
+      }
+      
+      final double pivot = RationalSorts.medianOfThree(keys[from], keys[(from + to) >>> 1], keys[to - 1]);
+      int less = from;
+      int greater = to;
+      int i = from;
+      
+      while (i < greater) {
+        if (keys[i] < pivot) {
+          RationalSorts.swap(keys, values, i++, less++);
+        }
+        else if (keys[i] > pivot) {
+          RationalSorts.swap(keys, values, i, --greater);
+        }
+        else {
+          i++;
+        }
+      }
+      
+      if (k < less) {
+        to = less;
+      }
+      else if (k >= greater) {
+        from = greater;
+      }
+      else {
+        Arrays.sort(values, less, greater, EXACT);
+        return;
+      }
+    }
+    
+    RationalSorts.insertionSort(keys, values, from, to);
+    RationalSorts.breakTies(keys, values, from, to);
+  }
+  
+  private static double medianOfThree(double a, double b, double c) {
+    return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+  }
+  
+  private static void swap(double[] keys, Rational[] values, int i, int j) {
+    final double key = keys[i];
+    final Rational value = values[i];
+    
+    keys[i] = keys[j];
+    values[i] = values[j];
+    keys[j] = key;
+    values[j] = value;
+  }
+  
+  /**
+   * Computes the keys of a range and merge sorts it, forking both halves while they are large.
+   */
+  private static final class ParallelSort extends RecursiveAction {
+    
+    private static final long serialVersionUID = -2473092305874381012L;
+    
+    private final double[] keys;
+    private final Rational[] values;
+    private final double[] keyBuffer;
+    private final Rational[] valueBuffer;
+    private final int from;
+    private final int to;
+    
+    ParallelSort(double[] keys, Rational[] values, double[] keyBuffer, Rational[] valueBuffer, int from, int to) {
+      this.keys = keys;
+      this.values = values;
+      this.keyBuffer = keyBuffer;
+      this.valueBuffer = valueBuffer;
+      this.from = from;
+      this.to = to;
+    }
+    
+    @Override
+    protected void compute() {
+      if (to - from < PARALLEL_THRESHOLD) {
+        RationalSorts.fillKeys(keys, values, from, to);
+        RationalSorts.mergeSort(keys, values, keyBuffer, valueBuffer, from, to);
+        return;
+      }
+      
+      final int middle = (from + to) >>> 1;
+      
+      RecursiveAction.invokeAll(
+        new ParallelSort(keys, values, keyBuffer, valueBuffer, from, middle),
+        new ParallelSort(keys, values, keyBuffer, valueBuffer, middle, to));
+      RationalSorts.merge(keys, values, keyBuffer, valueBuffer, from, middle, to);
+    }
+    
+  }
+  
+}
@@ -0,0 +1,325 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * Exact count, sum, mean, variance, minimum and maximum of a stream of {@link Rational} values, in the manner of
+ * {@link java.util.DoubleSummaryStatistics}. The sum and the sum of squares are kept as numerators over one common
+ * denominator and its square, so adding a value whose denominator divides the common one costs a few multiplications and
+ * no reduction, and the mean and variance are reduced once when asked for. While everything fits, the arithmetic is done
+ * in <code>long</code> values; it moves to {@link BigInteger} values for good on the first overflow.
+ *
+ * Statistics of parts of a stream can be merged with {@link #combine(RationalStatistics)}, for example by
+ * <code>stream.parallel().collect(RationalStatistics::new, RationalStatistics::accept, RationalStatistics::combine)</code>.
+ * This class is not safe for use by several threads at once.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public final class RationalStatistics implements Consumer<Rational> {
+  
+  private long count;
+  
+  // While fast, sum = sum / denominator and sum of squares = squares / denominator^2 in long values.
+  private boolean fast = true;
+  private long sum;
+  private long squares;
+  private long denominator = 1;
+  
+  private BigInteger bigSum;
+  private BigInteger bigSquares;
+  private BigInteger bigDenominator;
+  
+  private BigInteger[] min;
+  private BigInteger[] max;
+  
+  /**
+   * Adds a value.
+   * @param value {@link Rational} value
+   */
+  @Override
+  public void accept(Rational value) {
+    final BigInteger[] parts = value.integerParts();
+    
+    if (min == null || RationalStatistics.compare(parts, min) < 0) {
+      min = parts;
+    }
+    
+    if (max == null || RationalStatistics.compare(parts, max) > 0) {
+      max = parts;
+    }
+    
+    count++;
+    
+    if (fast && parts[0].bitLength() < Long.SIZE && parts[1].bitLength() < Long.SIZE && acceptFast(parts[0].longValue(), parts[1].longValue())) {
+      return;
+    }
+    
+    promote();
+    rescale(parts[1]);
+    
+    final BigInteger scaled = parts[0].multiply(bigDenominator.divide(parts[1]));
+    
+    bigSum = bigSum.add(scaled);
+    bigSquares = bigSquares.add(scaled.multiply(scaled));
+  }
+  
+  /**
+   * Merges the statistics of other values into these.
+   * @param other {@link RationalStatistics} of other values
+   */
+  public void combine(RationalStatistics other) {
+    if (other.count == 0) {
+      return;
+    }
+    
+    if (min == null || RationalStatistics.compare(other.min, min) < 0) {
+      min = other.min;
+    }
+    
+    if (max == null || RationalStatistics.compare(other.max, max) > 0) {
+      max = other.max;
+    }
+    
+    count += other.count;
+    
+    if (fast && other.fast && combineFast(other)) {
+      return;
+    }
+    
+    promote();
+    
+    final BigInteger otherSum = other.fast ? BigInteger.valueOf(other.sum) : other.bigSum;
+    final BigInteger otherSquares = other.fast ? BigInteger.valueOf(other.squares) : other.bigSquares;
+    final BigInteger otherDenominator = other.fast ? BigInteger.valueOf(other.denominator) : other.bigDenominator;
+    
+    rescale(otherDenominator);
+    
+    final BigInteger factor = bigDenominator.divide(otherDenominator);
+    
+    bigSum = bigSum.add(otherSum.multiply(factor));
+    bigSquares = bigSquares.add(otherSquares.multiply(factor.multiply(factor)));
+  }
+  
+  /**
+   * @return the number of values.
+   */
+  public long count() {
+    return count;
+  }
+  
+  /**
+   * @return the exact sum of the values, zero if there are none.
+   */
+  public Rational sum() {
+    return fast
+      ? Reducer.reduceWholeNumbers(BigInteger.valueOf(sum), BigInteger.valueOf(denominator))
+      : Reducer.reduceWholeNumbers(bigSum, bigDenominator);
+  }
+  
+  /**
+   * @throws ArithmeticException if there are no values.
+   * @return the exact mean of the values.
+   */
+  public Rational mean() throws ArithmeticException {
+    assertNotEmpty(1);
+    
+    return fast
+      ? Reducer.reduceWholeNumbers(BigInteger.valueOf(sum), BigInteger.valueOf(denominator).multiply(BigInteger.valueOf(count)))
+      : Reducer.reduceWholeNumbers(bigSum, bigDenominator.multiply(BigInteger.valueOf(count)));
+  }
+  
+  /**
+   * @throws ArithmeticException if there are no values.
+   * @return the exact population variance of the values, the mean of the squares less the square of the mean.
+   */
+  public Rational variance() throws ArithmeticException {
+    assertNotEmpty(1);
+    
+    return spread(BigInteger.valueOf(count).multiply(BigInteger.valueOf(count)));
+  }
+  
+  /**
+   * @throws ArithmeticException if there are fewer than two values.
+   * @return the exact sample variance of the values, with Bessel's correction.
+   */
+  public Rational sampleVariance() throws ArithmeticException {
+    assertNotEmpty(2);
+    
+    return spread(BigInteger.valueOf(count).multiply(BigInteger.valueOf(count - 1)));
+  }
+  
+  /**
+   * @throws ArithmeticException if there are no values.
+   * @return the smallest value.
+   */
+  public Rational min() throws ArithmeticException {
+    assertNotEmpty(1);
+    
+    return Reducer.reduceWholeNumbers(min[0], min[1]);
+  }
+  
+  /**
+   * @throws ArithmeticException if there are no values.
+   * @return the largest value.
+   */
+  public Rational max() throws ArithmeticException {
+    assertNotEmpty(1);
+    
+    return Reducer.reduceWholeNumbers(max[0], max[1]);
+  }
+  
+  @Override
+  public String toString() {
+    if (count == 0) {
+      return "count=0";
+    }
+    
+    return String.format("count=%s, sum=%s, min=%s, max=%s", count, sum(), min(), max());
+  }
+  
+  /**
+   * Adds n / d in <code>long</code> arithmetic.
+   * @return whether it fitted; if not, nothing is changed
+   */
+  private boolean acceptFast(long n, long d) {
+    try {
+      long newDenominator = denominator;
+      long newSum = sum;
+      long newSquares = squares;
+      
+      if (denominator % d != 0) {
+        final long factor = d / Factors.gcd(denominator, d);
+        
+        newDenominator = Math.multiplyExact(denominator, factor);
+        newSum = Math.multiplyExact(sum, factor);
+        newSquares = Math.multiplyExact(squares, Math.multiplyExact(factor, factor));
+      }
+      
+      final long scaled = Math.multiplyExact(n, newDenominator / d);
+      
+      newSum = Math.addExact(newSum, scaled);
+      newSquares = Math.addExact(newSquares, Math.multiplyExact(scaled, scaled));
+      
+      denominator = newDenominator;
+      sum = newSum;
+      squares = newSquares;
+      
+      return true;
+    }
+    catch (ArithmeticException e) {
+      return false;
+    }
+  }
+  
+  /**
+   * Adds the sums of other <code>long</code> statistics in <code>long</code> arithmetic.
+   * @return whether it fitted; if not, nothing is changed
+   */
+  private boolean combineFast(RationalStatistics other) {
+    try {
+      final long gcf = Factors.gcd(denominator, other.denominator);
+      final long factor = other.denominator / gcf;
+      final long otherFactor = denominator / gcf;
+      final long newDenominator = Math.multiplyExact(denominator, factor);
+      final long newSum = Math.addExact(Math.multiplyExact(sum, factor), Math.multiplyExact(other.sum, otherFactor));
+      final long newSquares = Math.addExact(Math.multiplyExact(squares, Math.multiplyExact(factor, factor)),
+        Math.multiplyExact(other.squares, Math.multiplyExact(otherFactor, otherFactor)));
+      
+      denominator = newDenominator;
+      sum = newSum;
+      squares = newSquares;
+      
+      return true;
+    }
+    catch (ArithmeticException e) {
+      return false;
+    }
+  }
+  
+  /**
+   * @return whether the sums are still kept in <code>long</code> values.
+   */
+  boolean isFast() {
+    return fast;
+  }
+  
+  /**
+   * Moves to {@link BigInteger} arithmetic.
+   */
+  private void promote() {
+    if (fast) {
+      bigSum = BigInteger.valueOf(sum);
+      bigSquares = BigInteger.valueOf(squares);
+      bigDenominator = BigInteger.valueOf(denominator);
+      fast = false;
+    }
+  }
+  
+  /**
+   * Changes the common denominator to its least common multiple with d.
+   */
+  private void rescale(BigInteger d) {
+    final BigInteger factor = d.divide(Factors.greatestCommonFactor(bigDenominator, d));
+    
+    if (!factor.equals(BigInteger.ONE)) {
+      bigDenominator = bigDenominator.multiply(factor);
+      bigSum = bigSum.multiply(factor);
+      bigSquares = bigSquares.multiply(factor.multiply(factor));
+    }
+  }
+  
+  /**
+   * @return (count * sum of squares - sum<sup>2</sup>) / (divisor * denominator<sup>2</sup>), reduced
+   */
+  private Rational spread(BigInteger divisor) {
+    final BigInteger s = fast ? BigInteger.valueOf(sum) : bigSum;
+    final BigInteger q = fast ? BigInteger.valueOf(squares) : bigSquares;
+    final BigInteger d = fast ? BigInteger.valueOf(denominator) : bigDenominator;
+    
+    return Reducer.reduceWholeNumbers(BigInteger.valueOf(count).multiply(q).subtract(s.multiply(s)), divisor.multiply(d.multiply(d)));
+  }
+  
+  private void assertNotEmpty(int least) throws ArithmeticException {
+    if (count < least) {
+      throw new ArithmeticException(String.format("At least %s values are needed, but there are %s.", least, count));
+    }
+  }
+  
+  /**
+   * Compares two fractions given as whole number parts with positive denominators.
+   */
+  private static int compare(BigInteger[] left, BigInteger[] right) {
+    if (left[0].bitLength() + right[1].bitLength() < Long.SIZE - 1 && right[0].bitLength() + left[1].bitLength() < Long.SIZE - 1) {
+      return Long.compare(left[0].longValue() * right[1].longValue(), right[0].longValue() * left[1].longValue());
+    }
+    
+    return left[0].multiply(right[1]).compareTo(right[0].multiply(left[1]));
+  }
+  
+}
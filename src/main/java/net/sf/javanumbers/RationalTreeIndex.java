@@ -0,0 +1,191 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * A sorted index of values by the exact value of {@link Rational} keys, answering range queries exactly. Every key is
+ * held in lowest terms together with its value rounded to the nearest double, so that most comparisons made while
+ * searching are of doubles, and only keys whose doubles are equal are compared exactly by cross-multiplication, in
+ * <code>long</code> arithmetic when the products fit. Keys of the same value, such as 1/2 and 0.5, are the same key.
+ *
+ * This index is not safe for use by several threads at once without external synchronization.
+ *
+ * @param <V> the type of the values
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public final class RationalTreeIndex<V> {
+  
+  private final TreeMap<Key, V> tree = new TreeMap<Key, V>();
+  
+  /**
+   * @param key {@link Rational} key
+   * @param value value
+   * @return the previous value of the key, or <code>null</code> if there was none
+   */
+  public V put(Rational key, V value) {
+    return tree.put(new Key(key), value);
+  }
+  
+  /**
+   * @param key {@link Rational} key
+   * @return the value of the key, or <code>null</code> if there is none
+   */
+  public V get(Rational key) {
+    return tree.get(new Key(key));
+  }
+  
+  /**
+   * @param key {@link Rational} key
+   * @return the value the key had, or <code>null</code> if there was none
+   */
+  public V remove(Rational key) {
+    return tree.remove(new Key(key));
+  }
+  
+  /**
+   * @return the number of keys.
+   */
+  public int size() {
+    return tree.size();
+  }
+  
+  /**
+   * @return the smallest key, in lowest terms, or <code>null</code> if there are none
+   */
+  public Rational firstKey() {
+    return tree.isEmpty() ? null : tree.firstKey().toRational();
+  }
+  
+  /**
+   * @return the largest key, in lowest terms, or <code>null</code> if there are none
+   */
+  public Rational lastKey() {
+    return tree.isEmpty() ? null : tree.lastKey().toRational();
+  }
+  
+  /**
+   * @param key {@link Rational} value
+   * @return the largest key no greater than key, in lowest terms, or <code>null</code> if there is none
+   */
+  public Rational floorKey(Rational key) {
+    return RationalTreeIndex.toRational(tree.floorKey(new Key(key)));
+  }
+  
+  /**
+   * @param key {@link Rational} value
+   * @return the smallest key no less than key, in lowest terms, or <code>null</code> if there is none
+   */
+  public Rational ceilingKey(Rational key) {
+    return RationalTreeIndex.toRational(tree.ceilingKey(new Key(key)));
+  }
+  
+  /**
+   * Finds the keys in a range, in ascending order.
+   * @param from lower bound
+   * @param fromInclusive whether a key equal to from is in the range
+   * @param to upper bound
+   * @param toInclusive whether a key equal to to is in the range
+   * @return the keys, in lowest terms, and values in the range, empty if from is greater than to
+   */
+  public List<Map.Entry<Rational, V>> range(Rational from, boolean fromInclusive, Rational to, boolean toInclusive) {
+    final Key lower = new Key(from);
+    final Key upper = new Key(to);
+    final List<Map.Entry<Rational, V>> entries = new ArrayList<Map.Entry<Rational, V>>();
+    
+    if (lower.compareTo(upper) > 0) {
+      return entries;
+    }
+    
+    for (Map.Entry<Key, V> entry : tree.subMap(lower, fromInclusive, upper, toInclusive).entrySet()) {
+      entries.add(new AbstractMap.SimpleImmutableEntry<Rational, V>(entry.getKey().toRational(), entry.getValue()));
+    }
+    
+    return entries;
+  }
+  
+  private static Rational toRational(Key key) {
+    return key == null ? null : key.toRational();
+  }
+  
+  /**
+   * A key in lowest terms with its nearest double.
+   */
+  private static final class Key implements Comparable<Key> {
+    
+    private final BigInteger n;
+    private final BigInteger d;
+    private final double approximation;
+    
+    Key(Rational value) {
+      final BigInteger[] parts = value.lowestTerms();
+      
+      this.n = parts[0];
+      this.d = parts[1];
+      this.approximation = RationalSorts.toDouble(n, d);
+    }
+    
+    @Override
+    public int compareTo(Key other) {
+      if (approximation < other.approximation) {
+        return -1;
+      }
+      
+      if (approximation > other.approximation) {
+        return 1;
+      }
+      
+      if (n.bitLength() + other.d.bitLength() < Long.SIZE - 1 && other.n.bitLength() + d.bitLength() < Long.SIZE - 1) {
+        return Long.compare(n.longValue() * other.d.longValue(), other.n.longValue() * d.longValue());
+      }
+      
+      return n.multiply(other.d).compareTo(other.n.multiply(d));
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Key && compareTo((Key) other) == 0;
+    }
+    
+    @Override
+    public int hashCode() {
+      return 31 * n.hashCode() + d.hashCode();
+    }
+    
+    Rational toRational() {
+      return new Rational(n, d);
+    }
+    
+  }
+  
+}
@@ -40,12 +40,21 @@ abstract class Reducer {
    * @return
    */
   public static Rational reduce(Rational r) {
+    if (RationalMetrics.isEnabled()) {
+      RationalMetrics.record(RationalMetrics.Operation.REDUCE, r.bitLength());
+    }
+    
     // Reduce to zero.
     if (r.getNumerator().equals(BigDecimal.ZERO)) {
       return Rational.ZERO;
     }
     
-    return reduceToRational(reduceByFloatingPointPlaceValue(r));
+    final RationalEvents.SlowReduce event = RationalEvents.beginReduce();
+    final Rational reduced = reduceToRational(reduceByFloatingPointPlaceValue(r));
+    
+    RationalEvents.endReduce(event, r);
+    
+    return reduced;
   }
   
   /**
@@ -61,11 +70,37 @@ abstract class Reducer {
       throw new IllegalStateException("Expected whole number numerator and denominator.");
     }
     
-    final BigDecimal gcf = new BigDecimal(Factors.greatestCommonFactor(rNumerator.toBigInteger().abs(), rDenominator.toBigInteger().abs()));
+    final BigDecimal gcf = new BigDecimal(GcdCache.greatestCommonFactor(rNumerator.toBigInteger().abs(), rDenominator.toBigInteger().abs()));
     
     return new Rational(rNumerator.divide(gcf), rDenominator.divide(gcf));
   }
   
+  /**
+   * Reduces a fraction whose numerator and denominator are already whole numbers, skipping the floating point steps. Any
+   * negative sign ends up in the numerator.
+   * @param n whole number numerator
+   * @param d non-zero whole number denominator
+   * @return reduced {@link Rational}
+   */
+  static Rational reduceWholeNumbers(BigInteger n, BigInteger d) {
+    if (RationalMetrics.isEnabled()) {
+      RationalMetrics.record(RationalMetrics.Operation.REDUCE, Math.max(n.bitLength(), d.bitLength()));
+    }
+    
+    if (n.signum() == 0) {
+      return Rational.ZERO;
+    }
+    
+    final RationalEvents.SlowReduce event = RationalEvents.beginReduce();
+    final BigInteger gcf = Factors.greatestCommonFactor(n.abs(), d.abs());
+    final BigInteger signedGcf = d.signum() < 0 ? gcf.negate() : gcf;
+    final Rational reduced = new Rational(n.divide(signedGcf), d.divide(signedGcf));
+    
+    RationalEvents.endReduce(event, n, d);
+    
+    return reduced;
+  }
+  
   /**
    * Attempt to reduce a floating point value.
    * @param r
@@ -0,0 +1,68 @@
+package net.sf.javanumbers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * <p>
+ * Copyright (C) 2013 Nathan Lane, nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ * </p>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see &lt;http://www.gnu.org/licenses/&gt;.
+ * </p>
+ * <p>
+ * This class can be used to work with rational numbers, or fractions, in a non-destructive deterministic manner. It is
+ * based on {@link BigInteger} and {@link BigDecimal}.
+ * </p>
+ *
+ * The terms of a series for {@link BinarySplitting}, given by whole numbers so that term k is
+ * a(k) / b(k) * p(0) / q(0) * p(1) / q(1) * ... * p(k) / q(k). Hypergeometric series, such as those of exp, atan or the
+ * Chudnovsky formula for pi, take this form with polynomials p, q, a and b of small degree. Terms may be asked for
+ * concurrently and in any order, so implementations must not keep mutable state between calls.
+ *
+ * @author nathandelane &lt;nathan.david.lane@gmail.com&gt;
+ */
+public interface SeriesTerms {
+  
+  /**
+   * @param k zero-based index of the term
+   * @return the numerator of the ratio of term k to term k - 1, leaving aside a and b
+   */
+  BigInteger p(long k);
+  
+  /**
+   * @param k zero-based index of the term
+   * @return the non-zero denominator of the ratio of term k to term k - 1, leaving aside a and b
+   */
+  BigInteger q(long k);
+  
+  /**
+   * @param k zero-based index of the term
+   * @return the numerator of the factor of term k alone, one by default
+   */
+  default BigInteger a(long k) {
+    return BigInteger.ONE;
+  }
+  
+  /**
+   * @param k zero-based index of the term
+   * @return the non-zero denominator of the factor of term k alone, one by default
+   */
+  default BigInteger b(long k) {
+    return BigInteger.ONE;
+  }
+  
+}
@@ -0,0 +1,341 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * A multi-threaded load harness driving a mix of {@link Rational} parsing, arithmetic, reduction, comparison and hashing
+ * from many threads at once, reporting throughput, latency percentiles and garbage collection time. It is not part of the
+ * normal test run; run it with <code>mvn test -Pload</code>, or through {@link #main(String[])}, and configure it with
+ * these system properties:
+ * <ul>
+ * <li><code>load.threads</code>, the number of threads, by default the number of processors</li>
+ * <li><code>load.virtual</code>, whether to use virtual threads where the virtual machine has them, by default false</li>
+ * <li><code>load.seconds</code>, the measured duration, by default 10</li>
+ * <li><code>load.warmupSeconds</code>, the unmeasured duration before it, by default 3</li>
+ * <li><code>load.operandBits</code>, a comma separated list of numerator and denominator sizes in bits, one picked at
+ * random for each operand, by default 16,32,64,128</li>
+ * <li><code>load.seed</code>, the seed of the operands, by default 49</li>
+ * </ul>
+ * @author nathanlane
+ *
+ */
+public class RationalLoadHarness {
+  
+  private static final int OPERANDS_PER_THREAD = 4096;
+  
+  private static volatile long sink;
+  
+  private enum Operation { PARSE, ADD, MULTIPLY, REDUCE, COMPARE, HASH }
+  
+  @Test
+  public void runLoad() throws Exception {
+    final Report report = RationalLoadHarness.run(Integer.getInteger("load.threads", Runtime.getRuntime().availableProcessors()),
+      Boolean.getBoolean("load.virtual"), Integer.getInteger("load.seconds", 10), Integer.getInteger("load.warmupSeconds", 3),
+      RationalLoadHarness.parseBits(System.getProperty("load.operandBits", "16,32,64,128")), Long.getLong("load.seed", 49));
+    
+    System.out.println(report);
+    assertTrue(report.operations > 0);
+  }
+  
+  public static void main(String[] args) throws Exception {
+    new RationalLoadHarness().runLoad();
+  }
+  
+  static Report run(int threads, boolean virtual, int seconds, int warmupSeconds, int[] operandBits, long seed) throws Exception {
+    final ExecutorService virtualExecutor = virtual ? RationalLoadHarness.virtualExecutor() : null;
+    final ExecutorService executor = virtualExecutor != null ? virtualExecutor : Executors.newFixedThreadPool(threads);
+    final CountDownLatch start = new CountDownLatch(1);
+    final Window window = new Window();
+    final List<Worker> workers = new ArrayList<Worker>();
+    final List<Future<Histogram>> results = new ArrayList<Future<Histogram>>();
+    
+    for (int t = 0; t < threads; t++) {
+      workers.add(new Worker(new Random(seed + t), operandBits));
+    }
+    
+    try {
+      for (final Worker worker : workers) {
+        results.add(executor.submit(new Callable<Histogram>() {
+          @Override
+          public Histogram call() throws Exception {
+            start.await();
+            
+            return worker.run(window);
+          }
+        }));
+      }
+      
+      start.countDown();
+      TimeUnit.SECONDS.sleep(warmupSeconds);
+      
+      final long gcBefore = RationalLoadHarness.gcMillis();
+      
+      window.measuring = true;
+      TimeUnit.SECONDS.sleep(seconds);
+      window.stopped = true;
+      
+      final long gcAfter = RationalLoadHarness.gcMillis();
+      
+      final Histogram total = new Histogram();
+      
+      for (Future<Histogram> result : results) {
+        total.add(result.get());
+      }
+      
+      final Report report = new Report();
+      
+      report.threads = threads;
+      report.virtual = virtualExecutor != null;
+      report.seconds = seconds;
+      report.operations = total.count();
+      report.latencies = total;
+      report.gcMillis = gcAfter - gcBefore;
+      
+      return report;
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+  
+  /**
+   * @return a virtual thread per task executor, or <code>null</code> if the virtual machine has no virtual threads
+   */
+  private static ExecutorService virtualExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+    catch (ReflectiveOperationException e) {
+      System.out.println("Virtual threads are not available; using platform threads.");
+      
+      return null;
+    }
+  }
+  
+  /**
+   * @return the total time spent in garbage collection so far, in milliseconds
+   */
+  private static long gcMillis() {
+    long total = 0;
+    
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      total += Math.max(collector.getCollectionTime(), 0);
+    }
+    
+    return total;
+  }
+  
+  private static int[] parseBits(String list) {
+    final String[] parts = list.split(",");
+    final int[] bits = new int[parts.length];
+    
+    for (int i = 0; i < parts.length; i++) {
+      bits[i] = Integer.parseInt(parts[i].trim());
+    }
+    
+    return bits;
+  }
+  
+  /**
+   * The phases of a run, switched by the thread that started it: workers record latencies only while measuring, and
+   * return once stopped. Garbage collection time is sampled at both switches, so warm-up collections are not counted.
+   */
+  private static final class Window {
+    
+    private volatile boolean measuring;
+    private volatile boolean stopped;
+    
+  }
+  
+  /**
+   * One thread's share of the load, over operands of its own so that threads contend only inside the library.
+   */
+  private static final class Worker {
+    
+    private final Random random;
+    private final Rational[] operands = new Rational[OPERANDS_PER_THREAD];
+    private final String[] strings = new String[OPERANDS_PER_THREAD];
+    private final Histogram histogram = new Histogram();
+    private long sink;
+    
+    Worker(Random random, int[] operandBits) {
+      this.random = random;
+      
+      for (int i = 0; i < OPERANDS_PER_THREAD; i++) {
+        final BigInteger n = new BigInteger(operandBits[random.nextInt(operandBits.length)], random);
+        final BigInteger d = new BigInteger(operandBits[random.nextInt(operandBits.length)], random).add(BigInteger.ONE);
+        
+        operands[i] = new Rational(random.nextBoolean() ? n : n.negate(), d);
+        strings[i] = random.nextBoolean() ? operands[i].toString() : operands[i].bigDecimalValue().toPlainString();
+      }
+    }
+    
+    Histogram run(Window window) {
+      final Operation[] operations = Operation.values();
+      
+      while (!window.stopped) {
+        final Operation operation = operations[random.nextInt(operations.length)];
+        final int i = random.nextInt(OPERANDS_PER_THREAD);
+        final int j = random.nextInt(OPERANDS_PER_THREAD);
+        final boolean measured = window.measuring;
+        final long begin = System.nanoTime();
+        
+        perform(operation, i, j);
+        
+        final long end = System.nanoTime();
+        
+        if (measured && !window.stopped) {
+          histogram.record(end - begin);
+        }
+      }
+      
+      RationalLoadHarness.sink = sink;
+      
+      return histogram;
+    }
+    
+    private void perform(Operation operation, int i, int j) {
+      switch (operation) {
+        case PARSE:
+          sink += Rational.valueOf(strings[i]).scale();
+          break;
+        case ADD:
+          sink += operands[i].add(operands[j]).scale();
+          break;
+        case MULTIPLY:
+          sink += operands[i].multiply(operands[j]).scale();
+          break;
+        case REDUCE:
+          sink += Reducer.reduce(new Rational(operands[i])).scale();
+          break;
+        case COMPARE:
+          sink += operands[i].compareTo(operands[j]);
+          break;
+        default:
+          sink += new Rational(operands[i]).hashCode() + (operands[i].equals(operands[j]) ? 1 : 0);
+      }
+    }
+    
+  }
+  
+  /**
+   * A latency histogram in the manner of HdrHistogram, whose buckets are 64 to each power of two of nanoseconds, so that
+   * every recorded value is kept to within about 1.6%, in a fixed 4096 counts.
+   */
+  static final class Histogram {
+    
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    
+    private final long[] counts = new long[SUB_BUCKETS * 64];
+    private long max;
+    
+    void record(long nanos) {
+      counts[Histogram.index(Math.max(nanos, 0))]++;
+      max = Math.max(max, nanos);
+    }
+    
+    void add(Histogram other) {
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] += other.counts[i];
+      }
+      
+      max = Math.max(max, other.max);
+    }
+    
+    long count() {
+      long total = 0;
+      
+      for (long count : counts) {
+        total += count;
+      }
+      
+      return total;
+    }
+    
+    long max() {
+      return max;
+    }
+    
+    /**
+     * @return the least value of which at least the given percentage of the recorded values are no more, to within the
+     * precision of the buckets
+     */
+    long percentile(double percentage) {
+      final long target = (long) Math.ceil(count() * percentage / 100);
+      long seen = 0;
+      
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        
+        if (seen >= Math.max(target, 1)) {
+          return Math.min(Histogram.highestValue(i), max);
+        }
+      }
+      
+      return max;
+    }
+    
+    /**
+     * Values below 64 have a bucket each; above that a value's bucket is its power of two and its next six bits.
+     */
+    static int index(long value) {
+      if (value < SUB_BUCKETS) {
+        return (int) value;
+      }
+      
+      final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+      
+      return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+    
+    static long highestValue(int index) {
+      if (index < SUB_BUCKETS) {
+        return index;
+      }
+      
+      final int shift = index / SUB_BUCKETS - 1;
+      
+      return ((long) (index % SUB_BUCKETS + SUB_BUCKETS + 1) << shift) - 1;
+    }
+    
+  }
+  
+  static final class Report {
+    
+    int threads;
+    boolean virtual;
+    int seconds;
+    long operations;
+    Histogram latencies;
+    long gcMillis;
+    
+    @Override
+    public String toString() {
+      return String.format("Rational load: %d %s threads for %d s%n"
+          + "  throughput  %,d ops/s%n"
+          + "  latency ns  p50 %,d  p90 %,d  p99 %,d  p99.9 %,d  p99.99 %,d  max %,d%n"
+          + "  GC time     %,d ms (%.1f%%)",
+        threads, virtual ? "virtual" : "platform", seconds, operations / Math.max(seconds, 1),
+        latencies.percentile(50), latencies.percentile(90), latencies.percentile(99), latencies.percentile(99.9),
+        latencies.percentile(99.99), latencies.max(), gcMillis, 100.0 * gcMillis / Math.max(seconds * 1000L, 1));
+    }
+    
+  }
+  
+}
@@ -0,0 +1,205 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Allocation budgets for the hot paths of {@link Rational} and {@link Reducer}, in bytes allocated per operation by the
+ * running thread as counted by {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}. Unlike timings
+ * these do not depend on the machine or its load, so a test fails only when an operation starts allocating more than it
+ * did when its budget was recorded. Each budget is the allocation measured in a full <code>mvn test</code> run plus
+ * about 12%; lower one when an operation is made leaner, and raise one only deliberately. Run alone, add and compareTo
+ * allocate less than in the full run, where other tests have already shaped how the operation is compiled, so the full
+ * run sets the budget. The budgets were recorded on a HotSpot virtual machine after the operation is compiled; other
+ * virtual machines and versions may need headroom of their own. The tests are skipped on virtual machines that cannot
+ * count allocation.
+ * @author nathanlane
+ *
+ */
+public class TestAllocationBudget {
+  
+  private static final int WARM_UP_OPERATIONS = 20000;
+  private static final int MEASURED_OPERATIONS = 5000;
+  private static final int OPERANDS = 64;
+  private static final BigInteger THREE = BigInteger.valueOf(3);
+  
+  private static com.sun.management.ThreadMXBean threads;
+  private static Rational[] fractions;
+  private static Rational[] decimals;
+  private static String[] strings;
+  
+  private static volatile long sink;
+  private static volatile Object result;
+  
+  @BeforeClass
+  public static void setUp() {
+    final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    
+    Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+    
+    threads = (com.sun.management.ThreadMXBean) bean;
+    
+    Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+    
+    threads.setThreadAllocatedMemoryEnabled(true);
+    
+    final Random random = new Random(48);
+    
+    fractions = new Rational[OPERANDS];
+    decimals = new Rational[OPERANDS];
+    strings = new String[OPERANDS];
+    
+    for (int i = 0; i < OPERANDS; i++) {
+      fractions[i] = new Rational(random.nextInt(100000) - 50000, random.nextInt(100000) + 1);
+      strings[i] = "0." + (random.nextInt(900000000) + 100000000);
+      decimals[i] = Rational.valueOf(new BigDecimal(strings[i]));
+    }
+  }
+  
+  @Test
+  public void testAdd() {
+    TestAllocationBudget.assertBudget("add", 12000, new Operation() {
+      @Override
+      void run(int i) {
+        result = fractions[i % OPERANDS].add(fractions[(i + 1) % OPERANDS]);
+      }
+    });
+  }
+  
+  @Test
+  public void testMultiply() {
+    TestAllocationBudget.assertBudget("multiply", 144, new Operation() {
+      @Override
+      void run(int i) {
+        result = fractions[i % OPERANDS].multiply(fractions[(i + 1) % OPERANDS]);
+      }
+    });
+  }
+  
+  @Test
+  public void testCompareTo() {
+    TestAllocationBudget.assertBudget("compareTo", 26600, new Operation() {
+      @Override
+      void run(int i) {
+        sink += fractions[i % OPERANDS].compareTo(decimals[(i + 1) % OPERANDS]);
+      }
+    });
+  }
+  
+  @Test
+  public void testEquals() {
+    TestAllocationBudget.assertBudget("equals", 4200, new FreshOperation() {
+      @Override
+      void run(int i) {
+        sink += values[i].equals(fractions[i % OPERANDS]) ? 1 : 0;
+      }
+    });
+  }
+  
+  @Test
+  public void testHashCode() {
+    TestAllocationBudget.assertBudget("hashCode", 4900, new FreshOperation() {
+      @Override
+      void run(int i) {
+        sink += values[i].hashCode();
+      }
+    });
+  }
+  
+  @Test
+  public void testValueOfString() {
+    TestAllocationBudget.assertBudget("valueOf(String)", 480, new Operation() {
+      @Override
+      void run(int i) {
+        result = Rational.valueOf(strings[i % OPERANDS]);
+      }
+    });
+  }
+  
+  @Test
+  public void testReduce() {
+    TestAllocationBudget.assertBudget("Reducer.reduce", 4200, new FreshOperation() {
+      @Override
+      void run(int i) {
+        result = Reducer.reduce(values[i]);
+      }
+    });
+  }
+  
+  @Test
+  public void testReduceFloatingPointValue() {
+    TestAllocationBudget.assertBudget("Reducer.reduceFloatingPointValue", 2160, new Operation() {
+      @Override
+      void run(int i) {
+        result = Reducer.reduceFloatingPointValue(decimals[i % OPERANDS].bigDecimalValue());
+      }
+    });
+  }
+  
+  /**
+   * Runs an operation until it is compiled, then fails if it allocates more than budget bytes per operation on average.
+   */
+  private static void assertBudget(String name, long budget, Operation operation) {
+    final long threadId = Thread.currentThread().getId();
+    
+    operation.prepare(WARM_UP_OPERATIONS);
+    
+    for (int i = 0; i < WARM_UP_OPERATIONS; i++) {
+      operation.run(i);
+    }
+    
+    operation.prepare(MEASURED_OPERATIONS);
+    
+    final long before = threads.getThreadAllocatedBytes(threadId);
+    
+    for (int i = 0; i < MEASURED_OPERATIONS; i++) {
+      operation.run(i);
+    }
+    
+    final long bytesPerOperation = (threads.getThreadAllocatedBytes(threadId) - before) / MEASURED_OPERATIONS;
+    
+    assertTrue(String.format("%s allocated %d bytes per operation, over its budget of %d", name, bytesPerOperation, budget),
+      bytesPerOperation <= budget);
+  }
+  
+  private abstract static class Operation {
+    
+    /**
+     * Readies the operation to be run count times, outside the measurement.
+     */
+    void prepare(int count) {
+    }
+    
+    abstract void run(int i);
+    
+  }
+  
+  /**
+   * An operation on a new, unreduced {@link Rational} each time, so that values cached on the instance are not reused.
+   */
+  private abstract static class FreshOperation extends Operation {
+    
+    Rational[] values;
+    
+    @Override
+    void prepare(int count) {
+      values = new Rational[count];
+      
+      for (int i = 0; i < count; i++) {
+        final BigInteger[] parts = fractions[i % OPERANDS].integerParts();
+        
+        values[i] = new Rational(parts[0].multiply(THREE), parts[1].multiply(THREE));
+      }
+    }
+    
+  }
+  
+}
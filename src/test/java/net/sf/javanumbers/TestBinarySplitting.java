@@ -0,0 +1,72 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+public class TestBinarySplitting {
+  
+  /**
+   * 1 + 1/1! + 1/2! + ..., the series of e.
+   */
+  private static final SeriesTerms E = new SeriesTerms() {
+    @Override
+    public BigInteger p(long k) {
+      return BigInteger.ONE;
+    }
+    
+    @Override
+    public BigInteger q(long k) {
+      return k == 0 ? BigInteger.ONE : BigInteger.valueOf(k);
+    }
+  };
+  
+  /**
+   * 1/(1 * 2) + 1/(2 * 2^2) + 1/(3 * 2^3) + ..., the series of ln 2.
+   */
+  private static final SeriesTerms LOG_2 = new SeriesTerms() {
+    @Override
+    public BigInteger p(long k) {
+      return BigInteger.ONE;
+    }
+    
+    @Override
+    public BigInteger q(long k) {
+      return BigInteger.valueOf(2);
+    }
+    
+    @Override
+    public BigInteger b(long k) {
+      return BigInteger.valueOf(k + 1);
+    }
+  };
+  
+  @Test
+  public void testAgainstTermByTermSums() {
+    for (int n : new int[] { 0, 1, 7, 8, 9, 60, 300 }) {
+      Rational e = Rational.ZERO;
+      Rational log2 = Rational.ZERO;
+      BigInteger factorial = BigInteger.ONE;
+      
+      for (int k = 0; k < n; k++) {
+        factorial = factorial.multiply(BigInteger.valueOf(Math.max(k, 1)));
+        e = e.add(new Rational(BigInteger.ONE, factorial));
+        log2 = log2.add(new Rational(BigInteger.ONE, BigInteger.valueOf(k + 1).shiftLeft(k + 1)));
+      }
+      
+      assertTrue(String.valueOf(n), Rational.compareExactly(BinarySplitting.sum(E, n), e) == 0);
+      assertTrue(String.valueOf(n), Rational.compareExactly(BinarySplitting.sum(LOG_2, n), log2) == 0);
+    }
+  }
+  
+  @Test
+  public void testManyTerms() throws Exception {
+    final Rational e = BinarySplitting.sum(E, 3000);
+    
+    assertTrue(e.round(java.math.RoundingMode.FLOOR).equals(BigInteger.valueOf(2)));
+    assertTrue(e.decimalDigits().appendTo(new StringBuilder(), 20).toString().startsWith("2.71828182845904523536"));
+  }
+  
+}
@@ -0,0 +1,83 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestComplexRational {
+  
+  @Test
+  public void testBasicIdentities() {
+    final ComplexRational z = ComplexRational.valueOf(new Rational(1, 2), new Rational(-2, 3));
+    
+    assertTrue(ComplexRational.I.multiply(ComplexRational.I).equals(ComplexRational.valueOf(-1, 0)));
+    assertTrue(z.toString().equals("(3 - 4i)/6"));
+    assertTrue(z.conjugate().toString().equals("(3 + 4i)/6"));
+    assertTrue(Rational.compareExactly(z.norm(), new Rational(25, 36)) == 0);
+    assertTrue(z.multiply(z.conjugate()).equals(ComplexRational.valueOf(z.norm())));
+    assertTrue(z.multiply(z.conjugate()).isReal());
+    assertTrue(z.divide(z).equals(ComplexRational.ONE));
+    assertTrue(z.subtract(z).equals(ComplexRational.ZERO));
+    assertTrue(Rational.compareExactly(z.real(), new Rational(1, 2)) == 0);
+    assertTrue(Rational.compareExactly(z.imaginary(), new Rational(-2, 3)) == 0);
+    assertTrue(ComplexRational.valueOf(2, 4).add(ComplexRational.valueOf(new Rational(1, 3), Rational.ZERO)).toString().equals("(7 + 12i)/3"));
+  }
+  
+  @Test
+  public void testAgainstPairsOfFractions() {
+    final Random random = new Random(47);
+    
+    for (int i = 0; i < 2000; i++) {
+      final int bits = 4 + random.nextInt(i % 2 == 0 ? 30 : 90);
+      final BigInteger[] x = TestComplexRational.randomParts(random, bits);
+      final BigInteger[] y = TestComplexRational.randomParts(random, bits);
+      final ComplexRational zx = TestComplexRational.complex(x);
+      final ComplexRational zy = TestComplexRational.complex(y);
+      
+      // (p + qi)/s * (u + vi)/w = ((pu - qv) + (pv + qu)i)/(sw)
+      final ComplexRational product = TestComplexRational.complex(new BigInteger[] {
+        x[0].multiply(y[0]).subtract(x[1].multiply(y[1])), x[0].multiply(y[1]).add(x[1].multiply(y[0])), x[2].multiply(y[2]) });
+      final ComplexRational sum = TestComplexRational.complex(new BigInteger[] {
+        x[0].multiply(y[2]).add(y[0].multiply(x[2])), x[1].multiply(y[2]).add(y[1].multiply(x[2])), x[2].multiply(y[2]) });
+      
+      assertTrue(zx + " * " + zy, zx.multiply(zy).equals(product));
+      assertTrue(zx + " + " + zy, zx.add(zy).equals(sum));
+      assertTrue(zx + " + " + zy, zx.add(zy).hashCode() == sum.hashCode());
+      
+      if (!zy.equals(ComplexRational.ZERO)) {
+        assertTrue(zx + " / " + zy, zx.divide(zy).multiply(zy).equals(zx));
+      }
+    }
+  }
+  
+  @Test
+  public void testOverflowMovesToBigIntegerAndBack() {
+    final ComplexRational large = ComplexRational.valueOf(Long.MAX_VALUE, Long.MIN_VALUE);
+    final ComplexRational square = large.multiply(large);
+    
+    assertTrue(square.divide(large).equals(large));
+    assertTrue(large.negate().negate().equals(large));
+    assertTrue(large.add(ComplexRational.ONE).subtract(ComplexRational.ONE).equals(large));
+    assertTrue(Rational.compareExactly(large.norm(), Rational.valueOf(BigInteger.valueOf(Long.MAX_VALUE).pow(2).add(BigInteger.ONE.shiftLeft(126)))) == 0);
+  }
+  
+  @Test(expected = ArithmeticException.class)
+  public void testDivisionByZero() {
+    ComplexRational.ONE.divide(ComplexRational.ZERO);
+  }
+  
+  private static BigInteger[] randomParts(Random random, int bits) {
+    final BigInteger d = new BigInteger(bits, random).add(BigInteger.ONE);
+    
+    return new BigInteger[] { new BigInteger(bits, random).subtract(BigInteger.ONE.shiftLeft(bits - 1)),
+      new BigInteger(bits, random).subtract(BigInteger.ONE.shiftLeft(bits - 1)), d };
+  }
+  
+  private static ComplexRational complex(BigInteger[] parts) {
+    return ComplexRational.valueOf(new Rational(parts[0], parts[2]), new Rational(parts[1], parts[2]));
+  }
+  
+}
@@ -0,0 +1,72 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+public class TestDecimalDigits {
+  
+  @Test
+  public void testRepeatingExpansion() throws IOException {
+    final DecimalDigits digits = new Rational(1, 7).decimalDigits();
+    
+    assertTrue(!digits.isTerminating());
+    assertTrue(digits.repetendStart() == 0);
+    assertTrue(digits.appendTo(new StringBuilder(), 20).toString().equals("0.(142857)"));
+    assertTrue(digits.repetendLength() == 6);
+  }
+  
+  @Test
+  public void testRepeatingExpansionWithPrefix() throws IOException {
+    assertTrue(new Rational(-7, 6).decimalDigits().appendTo(new StringBuilder(), 20).toString().equals("-1.1(6)"));
+  }
+  
+  @Test
+  public void testTerminatingExpansion() throws IOException {
+    final DecimalDigits digits = Rational.valueOf(0.125).decimalDigits();
+    
+    assertTrue(digits.isTerminating());
+    assertTrue(digits.appendTo(new StringBuilder(), 20).toString().equals("0.125"));
+    assertTrue(!digits.hasNext());
+  }
+  
+  @Test
+  public void testWholeNumber() throws IOException {
+    assertTrue(new Rational(-12, 4).decimalDigits().appendTo(new StringBuilder(), 20).toString().equals("-3"));
+  }
+  
+  @Test
+  public void testTruncatedExpansion() throws IOException {
+    assertTrue(new Rational(1, 97).decimalDigits().appendTo(new StringBuilder(), 5).toString().equals("0.(01030..."));
+  }
+  
+  @Test
+  public void testStreamDigits() {
+    final DecimalDigits digits = new Rational(2, 3).decimalDigits();
+    
+    for (int i = 0; i < 100; i++) {
+      assertTrue(digits.nextDigit() == 6);
+    }
+  }
+  
+  @Test
+  public void testLargeDenominator() throws IOException {
+    final BigInteger d = BigInteger.TEN.pow(30).add(BigInteger.ONE);
+    final DecimalDigits digits = new Rational(BigInteger.ONE, d).decimalDigits();
+    final String expansion = digits.appendTo(new StringBuilder(), 100).toString();
+    
+    assertTrue(expansion, expansion.equals("0.(000000000000000000000000000000999999999999999999999999999999)"));
+  }
+  
+  @Test
+  public void testAppendFraction() throws IOException {
+    final Rational r = new Rational(-3, 4);
+    
+    assertTrue(r.appendTo(new StringBuilder()).toString().equals(r.toString()));
+    assertTrue(r.toString().equals("-3/4"));
+  }
+
+}
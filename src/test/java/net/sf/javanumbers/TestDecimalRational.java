@@ -0,0 +1,100 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestDecimalRational {
+  
+  @Test
+  public void testDecimalArithmeticStaysDecimal() {
+    final DecimalRational price = DecimalRational.valueOf("19.99");
+    final DecimalRational quantity = DecimalRational.valueOf("3.5");
+    final DecimalRational total = price.multiply(quantity);
+    
+    assertTrue(total.isDecimal());
+    assertTrue(total.toString().equals("69.965"));
+    assertTrue(price.add(quantity).toString().equals("23.49"));
+    assertTrue(price.subtract(quantity).toString().equals("16.49"));
+    assertTrue(total.setScale(2, RoundingMode.HALF_EVEN).toString().equals("69.96"));
+    assertTrue(total.setScale(2, RoundingMode.HALF_UP).toString().equals("69.97"));
+    assertTrue(!price.divide(quantity).isDecimal());
+    assertTrue(DecimalRational.valueOf("1.5").divide(DecimalRational.valueOf("0.25")).toString().equals("6"));
+  }
+  
+  @Test
+  public void testPromotionAndReturn() {
+    final DecimalRational third = DecimalRational.ONE.divide(DecimalRational.valueOf(3));
+    
+    assertTrue(!third.isDecimal());
+    assertTrue(third.toString().equals("1/3"));
+    assertTrue(third.multiply(DecimalRational.valueOf(3)).isDecimal());
+    assertTrue(third.multiply(DecimalRational.valueOf(3)).equals(DecimalRational.ONE));
+    assertTrue(third.divide(DecimalRational.valueOf(2), 4, RoundingMode.HALF_UP).toString().equals("0.1667"));
+    
+    final DecimalRational big = DecimalRational.valueOf(Long.MAX_VALUE).add(DecimalRational.ONE);
+    
+    assertTrue(!big.isDecimal());
+    assertTrue(big.subtract(DecimalRational.ONE).isDecimal());
+    assertTrue(big.bigDecimalValue().equals(new BigDecimal(BigInteger.ONE.shiftLeft(63))));
+  }
+  
+  @Test(expected = IllegalStateException.class)
+  public void testScaleOfPromotedValue() {
+    DecimalRational.valueOf("2/7").scale();
+  }
+  
+  @Test
+  public void testEqualsAcrossScales() {
+    final DecimalRational a = DecimalRational.valueOf(150, 2);
+    final DecimalRational b = DecimalRational.valueOf(15, 1);
+    
+    assertTrue(a.equals(b) && a.hashCode() == b.hashCode());
+    assertTrue(a.compareTo(DecimalRational.valueOf("1.49")) > 0);
+    assertTrue(DecimalRational.valueOf("-0.5").compareTo(DecimalRational.valueOf("1/3")) < 0);
+    assertTrue(DecimalRational.valueOf(Rational.valueOf("3/8")).toString().equals("0.375"));
+  }
+  
+  @Test
+  public void testRoundingModesAgainstBigDecimal() {
+    final Random random = new Random(46);
+    
+    for (int i = 0; i < 2000; i++) {
+      final BigDecimal x = BigDecimal.valueOf(random.nextLong() >> random.nextInt(60), random.nextInt(8));
+      final BigDecimal y = BigDecimal.valueOf((random.nextLong() >> random.nextInt(62)) | 1, random.nextInt(8));
+      final int scale = random.nextInt(6);
+      
+      for (RoundingMode mode : new RoundingMode[] { RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR,
+          RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN }) {
+        final DecimalRational quotient = DecimalRational.valueOf(x).divide(DecimalRational.valueOf(y), scale, mode);
+        
+        assertTrue(x + " / " + y + " " + mode, quotient.bigDecimalValue().compareTo(x.divide(y, scale, mode)) == 0);
+      }
+      
+      assertTrue(DecimalRational.valueOf(x).add(DecimalRational.valueOf(y)).bigDecimalValue().compareTo(x.add(y)) == 0);
+      assertTrue(DecimalRational.valueOf(x).multiply(DecimalRational.valueOf(y)).bigDecimalValue().compareTo(x.multiply(y)) == 0);
+      assertTrue(DecimalRational.valueOf(x).compareTo(DecimalRational.valueOf(y)) == x.compareTo(y));
+    }
+  }
+  
+  @Test
+  public void testLosslessRationalConversion() {
+    for (String s : new String[] { "0", "-7", "12.340", "0.000000000000000001", "123456789012345678901234567890.5", "-22/7" }) {
+      final DecimalRational value = DecimalRational.valueOf(s);
+      
+      assertTrue(s, Rational.compareExactly(value.rationalValue(), Rational.valueOf(s)) == 0);
+      assertTrue(s, DecimalRational.valueOf(value.rationalValue()).equals(value));
+    }
+  }
+  
+  @Test(expected = ArithmeticException.class)
+  public void testDivisionByZero() {
+    DecimalRational.ONE.divide(DecimalRational.ZERO, 2, RoundingMode.HALF_UP);
+  }
+  
+}
@@ -3,7 +3,9 @@ package net.sf.javanumbers;
 import static org.junit.Assert.assertTrue;
 
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Random;
 import java.util.Set;
 
 import org.junit.Test;
@@ -24,6 +26,143 @@ public class TestFactors {
     }
   }
   
+  @Test
+  public void testGreatestCommonFactorAroundLongBoundary() {
+    final Random random = new Random(38);
+    final BigInteger[] values = {
+      BigInteger.ZERO,
+      BigInteger.ONE.negate(),
+      BigInteger.ONE.shiftLeft(61),
+      BigInteger.ONE.shiftLeft(62).subtract(BigInteger.ONE),
+      BigInteger.ONE.shiftLeft(62),
+      BigInteger.valueOf(Long.MIN_VALUE),
+      BigInteger.ONE.shiftLeft(64).negate(),
+      BigInteger.valueOf(3600),
+      BigInteger.valueOf(-360)
+    };
+    
+    for (BigInteger left : values) {
+      for (BigInteger right : values) {
+        assertTrue(String.format("GCD of %s and %s", left, right), Factors.greatestCommonFactor(left, right).equals(left.gcd(right)));
+      }
+    }
+    
+    for (int i = 0; i < 1000; i++) {
+      final BigInteger g = new BigInteger(1 + random.nextInt(30), random);
+      final BigInteger left = new BigInteger(1 + random.nextInt(32), random).multiply(g);
+      final BigInteger right = new BigInteger(1 + random.nextInt(32), random).multiply(g).negate();
+      
+      assertTrue(Factors.greatestCommonFactor(left, right).equals(left.gcd(right)));
+    }
+  }
+  
+  @Test
+  public void testFactorizeSmall() {
+    final Factorization f = Factorization.of(3600);
+    
+    assertTrue(f.toString().equals("2^4 * 3^2 * 5^2"));
+    assertTrue(f.value().equals(BigInteger.valueOf(3600)));
+    assertTrue(!f.isTerminatingDecimal());
+    assertTrue(Factorization.of(-1024).isTerminatingDecimal());
+    assertTrue(Factorization.of(1).size() == 0);
+  }
+  
+  @Test
+  public void testFactorizeLarge() {
+    final BigInteger p = new BigInteger("1000000007");
+    final BigInteger q = new BigInteger("998244353");
+    final BigInteger r = new BigInteger("2305843009213693951");
+    final BigInteger n = p.multiply(q).multiply(r).multiply(r).multiply(BigInteger.valueOf(360));
+    final Factorization f = Factorization.of(n);
+    
+    assertTrue(f.toString(), f.toString().equals("2^3 * 3^2 * 5 * 998244353 * 1000000007 * 2305843009213693951^2"));
+    assertTrue(Factorization.of(n) == f);
+  }
+  
+  @Test
+  public void testIsProbablePrime() {
+    for (int n = 0; n < 2000; n++) {
+      assertTrue(String.valueOf(n), Factors.isProbablePrime(BigInteger.valueOf(n)) == BigInteger.valueOf(n).isProbablePrime(64));
+    }
+    
+    assertTrue(Factors.isProbablePrime(new BigInteger("2305843009213693951")));
+    assertTrue(!Factors.isProbablePrime(new BigInteger("3215031751")));
+  }
+  
+  /**
+   * Primes above the square of the largest sieved prime, 65521, but below 2^32 are tested by trial division with every
+   * sieved prime.
+   */
+  @Test
+  public void testIsProbablePrimeJustBelowTwoToThe32() {
+    assertTrue(Factors.isProbablePrime(BigInteger.valueOf(4294967291L)));
+    assertTrue(Factors.isProbablePrime(BigInteger.valueOf(4294967279L)));
+    assertTrue(!Factors.isProbablePrime(BigInteger.valueOf(65521L * 65521L)));
+    
+    for (long n = (1L << 32) - 1000; n < (1L << 32); n++) {
+      assertTrue(String.valueOf(n), Factors.isProbablePrime(BigInteger.valueOf(n)) == BigInteger.valueOf(n).isProbablePrime(64));
+    }
+  }
+  
+  @Test
+  public void testFactorizationLeastCommonMultiple() {
+    final Factorization lcm = Factorization.of(360).leastCommonMultiple(Factorization.of(1000));
+    final Factorization gcf = Factorization.of(360).greatestCommonFactor(Factorization.of(1000));
+    
+    assertTrue(lcm.value().equals(BigInteger.valueOf(9000)));
+    assertTrue(gcf.value().equals(BigInteger.valueOf(40)));
+  }
+  
+  @Test
+  public void testGcdOfMany() {
+    final BigInteger[] values = new BigInteger[20000];
+    
+    for (int i = 0; i < values.length; i++) {
+      values[i] = BigInteger.valueOf(36L * (i + 1) * (i + 7));
+    }
+    
+    assertTrue(Factors.gcd(values).equals(BigInteger.valueOf(36)));
+    assertTrue(Factors.gcd(Arrays.asList(values)).equals(BigInteger.valueOf(36)));
+    assertTrue(Factors.gcd(new long[] { 12, -18, 30 }) == 6);
+    assertTrue(Factors.gcd(new long[] { 12, 35, 30 }) == 1);
+    assertTrue(Factors.gcd(new BigInteger[0]).signum() == 0);
+  }
+  
+  @Test
+  public void testLcmOfMany() {
+    final BigInteger[] values = new BigInteger[10000];
+    BigInteger expected = BigInteger.ONE;
+    
+    for (int i = 0; i < values.length; i++) {
+      values[i] = BigInteger.valueOf(i % 30 + 1);
+    }
+    
+    for (int i = 1; i <= 30; i++) {
+      expected = expected.divide(expected.gcd(BigInteger.valueOf(i))).multiply(BigInteger.valueOf(i));
+    }
+    
+    assertTrue(Multiples.lcm(values).equals(expected));
+    assertTrue(Multiples.lcm(new long[] { 4, -6, 10 }).equals(BigInteger.valueOf(60)));
+    assertTrue(Multiples.lcm(new long[] { Long.MAX_VALUE, Long.MAX_VALUE - 1 }).equals(BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.valueOf(Long.MAX_VALUE - 1))));
+    assertTrue(Multiples.lcm(new long[] { 3, 0 }).signum() == 0);
+    assertTrue(Rational.commonDenominator(Rational.valueOf("1/6"), Rational.valueOf("3/4"), Rational.valueOf("2/10")).equals(BigInteger.valueOf(60)));
+  }
+  
+  @Test
+  public void testHalfGcd() {
+    final Random random = new Random(36);
+    final BigInteger g = new BigInteger(10000, random);
+    final BigInteger a = new BigInteger(Factors.HALF_GCD_THRESHOLD * 2, random).multiply(g);
+    final BigInteger b = new BigInteger(Factors.HALF_GCD_THRESHOLD * 2 - 5, random).multiply(g).negate();
+    final BigInteger[] extended = Factors.extendedGreatestCommonFactor(a, b);
+    
+    assertTrue(Factors.greatestCommonFactor(a, b).equals(a.gcd(b)));
+    assertTrue(Factors.greatestCommonFactor(b, a).equals(a.gcd(b)));
+    assertTrue(extended[0].equals(a.gcd(b)));
+    assertTrue(a.multiply(extended[1]).add(b.multiply(extended[2])).equals(extended[0]));
+    assertTrue(Factors.greatestCommonFactor(a, BigInteger.ZERO).equals(a));
+  }
+  
   /**
    * Generates a list of tuples representing &lt;first-factor, second-factor, greatest-common-factor&gt;.
    * @return list of {@link Tuple} as described
@@ -0,0 +1,82 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class TestGcdCache {
+  
+  @After
+  public void disable() {
+    GcdCache.disable();
+    GcdCache.resetStatistics();
+  }
+  
+  @Test
+  public void testRecurringDenominatorsHit() {
+    GcdCache.enable(16);
+    
+    final Rational sum = Rational.valueOf("1/360").add(Rational.valueOf("7/3600"));
+    
+    assertTrue(sum.equals(Rational.valueOf("17/3600")));
+    
+    final long misses = GcdCache.misses();
+    
+    for (int i = 0; i < 10; i++) {
+      assertTrue(Rational.valueOf("1/360").add(Rational.valueOf("7/3600")).equals(sum));
+    }
+    
+    assertTrue(GcdCache.hits() >= 10);
+    assertTrue(GcdCache.misses() == misses);
+  }
+  
+  @Test
+  public void testEviction() {
+    GcdCache.enable(6);
+    
+    for (int i = 1; i <= 10; i++) {
+      assertTrue(GcdCache.greatestCommonFactor(BigInteger.valueOf(6 * i), BigInteger.valueOf(-4 * i)).equals(BigInteger.valueOf(2 * i)));
+    }
+    
+    assertTrue(GcdCache.size() <= 4);
+    assertTrue(GcdCache.misses() == 10);
+    assertTrue(GcdCache.evictions() == GcdCache.misses() - GcdCache.size());
+    assertTrue(GcdCache.greatestCommonFactor(BigInteger.valueOf(-40), BigInteger.valueOf(60)).equals(BigInteger.valueOf(20)));
+    assertTrue(GcdCache.hits() == 1);
+  }
+  
+  @Test
+  public void testReductionsHit() {
+    GcdCache.enable(16);
+    
+    assertTrue(Rational.valueOf("360/3600").reduce().equals(Rational.valueOf("1/10")));
+    
+    final long misses = GcdCache.misses();
+    
+    assertTrue(misses > 0);
+    assertTrue(Rational.valueOf("360/3600").reduce().equals(Rational.valueOf("1/10")));
+    assertTrue(GcdCache.hits() > 0);
+    assertTrue(GcdCache.misses() == misses);
+  }
+  
+  @Test
+  public void testHitReturnsRememberedValue() {
+    GcdCache.enable(16);
+    
+    final BigInteger first = GcdCache.greatestCommonFactor(BigInteger.valueOf(100), BigInteger.valueOf(360));
+    
+    assertTrue(first.equals(BigInteger.valueOf(20)));
+    assertTrue(GcdCache.greatestCommonFactor(BigInteger.valueOf(360), BigInteger.valueOf(-100)) == first);
+  }
+  
+  @Test
+  public void testDisabled() {
+    assertTrue(!GcdCache.isEnabled());
+    assertTrue(GcdCache.greatestCommonFactor(BigInteger.valueOf(12), BigInteger.valueOf(18)).equals(BigInteger.valueOf(6)));
+    assertTrue(GcdCache.hits() == 0 && GcdCache.misses() == 0 && GcdCache.size() == 0);
+  }
+  
+}
@@ -0,0 +1,36 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestHashCode {
+  
+  @Test
+  public void testEqualValuesHaveEqualHashCodes() {
+    final Rational r1 = new Rational(1, 8);
+    final Rational r2 = Rational.valueOf(0.125);
+    
+    assertTrue(r1.hashCode() == r2.hashCode());
+  }
+  
+  @Test
+  public void testHashCodeIsStable() {
+    final Rational r = new Rational(2, 3);
+    final int first = r.hashCode();
+    
+    assertTrue(r.hashCode() == first);
+    assertTrue(new Rational(r).hashCode() == first);
+  }
+  
+  @Test
+  public void testSetScaleDoesNotChangeOriginal() {
+    final Rational r = new Rational(1, 3);
+    final Rational scaled = r.setScale(2);
+    
+    assertTrue(r.scale() == 32);
+    assertTrue(scaled.scale() == 2);
+    assertTrue(scaled.doubleValue() == 0.33);
+  }
+
+}
@@ -0,0 +1,51 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestLinearCombination {
+  
+  @Test
+  public void testMultiplyAdd() {
+    final Rational r = new Rational(1, 2);
+    
+    assertTrue(r.multiplyAdd(new Rational(2, 3), new Rational(3, 4)).equals(Rational.ONE));
+    assertTrue(r.multiplyAdd(Rational.valueOf(0.5), new Rational(-1, 1)).equals(Rational.ZERO));
+  }
+  
+  @Test
+  public void testMultiplyAddIsReduced() {
+    final Rational r = new Rational(1, 6).multiplyAdd(new Rational(1, 2), new Rational(1, 3));
+    
+    assertTrue(r.toString().equals("1/3"));
+  }
+  
+  @Test
+  public void testDot() {
+    final Rational[] xs = new Rational[] { new Rational(1, 2), new Rational(1, 3), new Rational(1, 6), Rational.valueOf(0.25) };
+    final Rational[] ys = new Rational[] { new Rational(2, 5), new Rational(3, 5), new Rational(6, 5), Rational.valueOf(-4) };
+    Rational expected = Rational.ZERO;
+    
+    for (int i = 0; i < xs.length; i++) {
+      expected = expected.add(xs[i].multiply(ys[i]));
+    }
+    
+    assertTrue(Rational.dot(xs, ys).equals(expected));
+  }
+  
+  @Test(expected = IllegalArgumentException.class)
+  public void testDotUnequalLengths() {
+    Rational.dot(new Rational[] { Rational.ONE }, new Rational[0]);
+  }
+  
+  @Test
+  public void testLinearCombination() {
+    final Rational a = new Rational(1, 4);
+    final Rational b = new Rational(-2, 3);
+    
+    assertTrue(Rational.linearCombination(a, Rational.valueOf(4), b, Rational.valueOf(3)).equals(Rational.valueOf(-1)));
+    assertTrue(Rational.linearCombination(a, a, b, b, a, b).equals(new Rational(49, 144)));
+  }
+
+}
@@ -0,0 +1,86 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestModularEngine {
+  
+  @Test
+  public void testModularInverse() {
+    final long prime = 2147483647L;
+    
+    for (long value = 1; value < 1000; value += 37) {
+      assertTrue(value * Factors.modularInverse(value, prime) % prime == 1);
+    }
+  }
+  
+  @Test(expected = ArithmeticException.class)
+  public void testModularInverseNotCoprime() {
+    Factors.modularInverse(6, 9);
+  }
+  
+  @Test
+  public void testChineseRemainder() {
+    final BigInteger r = Multiples.chineseRemainder(BigInteger.valueOf(2), BigInteger.valueOf(3), 3, 5);
+    
+    assertTrue(r.equals(BigInteger.valueOf(8)));
+  }
+  
+  @Test
+  public void testRationalReconstruction() {
+    final BigInteger modulus = BigInteger.valueOf(2147483647L).multiply(BigInteger.valueOf(2147483629L));
+    final BigInteger residue = BigInteger.valueOf(-355).multiply(BigInteger.valueOf(113).modInverse(modulus)).mod(modulus);
+    
+    assertTrue(ModularEngine.rationalReconstruction(residue, modulus).equals(new Rational(-355, 113)));
+  }
+  
+  @Test
+  public void testCompute() {
+    final Rational[] inputs = new Rational[] { new Rational(1, 3), new Rational(-5, 7) };
+    final Rational[] outputs = new ModularEngine().compute(inputs, new ModularComputation() {
+      @Override
+      public long[] compute(long[] values, long prime) {
+        return new long[] { values[0] * values[1] % prime, (values[0] + values[1]) % prime };
+      }
+    });
+    
+    assertTrue(outputs[0].equals(new Rational(-5, 21)));
+    assertTrue(outputs[1].equals(new Rational(-8, 21)));
+  }
+  
+  @Test
+  public void testSolve() {
+    final int size = 30;
+    final Random random = new Random(17);
+    final Rational[][] entries = new Rational[size][size];
+    final Rational[] b = new Rational[size];
+    
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        entries[i][j] = new Rational(random.nextInt(2001) - 1000, random.nextInt(99) + 1);
+      }
+      
+      b[i] = new Rational(random.nextInt(1000), random.nextInt(99) + 1);
+    }
+    
+    final RationalMatrix a = new RationalMatrix(entries);
+    final Rational[] x = new ModularEngine().solve(a, b);
+    final Rational[] expected = a.solve(b);
+    
+    for (int i = 0; i < size; i++) {
+      assertTrue(x[i].equals(expected[i]));
+    }
+  }
+  
+  @Test(expected = ArithmeticException.class)
+  public void testSolveSingular() {
+    final RationalMatrix a = new RationalMatrix(new Rational[][] { { Rational.ONE, new Rational(1, 2) }, { Rational.valueOf(2), Rational.ONE } });
+    
+    new ModularEngine().solve(a, new Rational[] { Rational.ONE, Rational.ONE });
+  }
+
+}
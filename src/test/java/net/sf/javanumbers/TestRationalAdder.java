@@ -0,0 +1,71 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class TestRationalAdder {
+  
+  @Test
+  public void testSingleThread() {
+    final RationalAdder adder = new RationalAdder();
+    
+    adder.add(Rational.valueOf("1/3"));
+    adder.add(Rational.valueOf("1/6"));
+    adder.add(Rational.valueOf("0.25"));
+    
+    assertTrue(adder.sum().toString().equals("3/4"));
+    assertTrue(adder.sumThenReset().toString().equals("3/4"));
+    assertTrue(Rational.compareExactly(adder.sum(), Rational.ZERO) == 0);
+  }
+  
+  @Test
+  public void testOverflowIntoBigIntegers() {
+    final RationalAdder adder = new RationalAdder();
+    Rational expected = Rational.ZERO;
+    
+    for (long p : new long[] { 1000000007L, 998244353L, 2147483647L, 4294967291L }) {
+      final Rational value = Rational.valueOf(Long.MAX_VALUE / 3).divide(Rational.valueOf(p));
+      
+      adder.add(value);
+      expected = expected.add(value);
+    }
+    
+    assertTrue(Rational.compareExactly(adder.sum(), expected) == 0);
+  }
+  
+  @Test
+  public void testConcurrentAdds() throws InterruptedException {
+    final RationalAdder adder = new RationalAdder();
+    final List<Thread> threads = new ArrayList<Thread>();
+    
+    for (int t = 0; t < 8; t++) {
+      final int denominator = t % 2 == 0 ? 3 : 7;
+      
+      threads.add(new Thread() {
+        @Override
+        public void run() {
+          final Rational value = Rational.valueOf("1/" + denominator);
+          
+          for (int i = 0; i < 10000; i++) {
+            adder.add(value);
+          }
+        }
+      });
+    }
+    
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    
+    assertTrue(Rational.compareExactly(adder.sum(), Rational.valueOf("40000/3").add(Rational.valueOf("40000/7"))) == 0);
+  }
+  
+}
@@ -0,0 +1,84 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class TestRationalEvents {
+  
+  @Test
+  public void testDestructiveIsVisibleAtRuntime() throws Exception {
+    final Method sqrt = Rational.class.getMethod("sqrt");
+    final Method add = Rational.class.getMethod("add", Rational.class);
+    
+    assertTrue(sqrt.getAnnotation(Destructive.class) != null);
+    assertTrue(add.getAnnotation(Destructive.class) != null);
+    assertTrue(Rational.class.getMethod("reduce").getAnnotation(Destructive.class) == null);
+  }
+  
+  @Test
+  public void testPrecisionLossAndSlowGcd() throws Exception {
+    final Random random = new Random(39);
+    final BigInteger big = new BigInteger(20000, random);
+    final List<RecordedEvent> events;
+    
+    try (Recording recording = new Recording()) {
+      recording.enable("net.sf.javanumbers.PrecisionLoss");
+      recording.enable("net.sf.javanumbers.SlowGcd").withThreshold(Duration.ZERO);
+      recording.start();
+      
+      Rational.valueOf("1/3").doubleValue();
+      Rational.valueOf("1/4").doubleValue();
+      Rational.valueOf("1/7").bigDecimalValue();
+      new Rational(BigInteger.ONE.shiftLeft(1100), BigInteger.ONE).doubleValue();
+      Factors.greatestCommonFactor(big, big.add(BigInteger.ONE));
+      
+      recording.stop();
+      
+      final File file = File.createTempFile("rational-events", ".jfr");
+      
+      try {
+        recording.dump(file.toPath());
+        events = RecordingFile.readAllEvents(file.toPath());
+      }
+      finally {
+        file.delete();
+      }
+    }
+    
+    int losses = 0;
+    int overflows = 0;
+    int gcds = 0;
+    
+    for (RecordedEvent event : events) {
+      if (event.getEventType().getName().equals("net.sf.javanumbers.PrecisionLoss")) {
+        losses++;
+        assertTrue(!event.getString("method").isEmpty());
+        
+        if (event.getString("method").equals("doubleValue") && event.getInt("numeratorBitLength") == 1101) {
+          overflows++;
+        }
+      }
+      else if (event.getEventType().getName().equals("net.sf.javanumbers.SlowGcd")) {
+        gcds++;
+        assertTrue(event.getInt("leftBitLength") == big.bitLength());
+      }
+    }
+    
+    assertTrue(losses == 3);
+    assertTrue(overflows == 1);
+    assertTrue(gcds >= 1);
+  }
+  
+}
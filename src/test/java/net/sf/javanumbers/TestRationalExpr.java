@@ -0,0 +1,98 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class TestRationalExpr {
+  
+  @Test
+  public void testEvaluate() {
+    final RationalExpr x = RationalExpr.parameter(0);
+    final RationalExpr y = RationalExpr.parameter(1);
+    final RationalExpr expr = x.plus(new Rational(1, 3)).times(y).minus(new Rational(1, 6));
+    
+    final Rational result = expr.evaluate(new Rational(1, 2), new Rational(2, 5));
+    
+    assertTrue(result.equals(new Rational(1, 6)));
+    assertTrue(result.toString().equals("1/6"));
+  }
+  
+  @Test
+  public void testSharedOperand() {
+    final RationalExpr x = RationalExpr.parameter(0);
+    final RationalExpr square = x.times(x);
+    final RationalExpr expr = square.plus(square).dividedBy(x);
+    
+    assertTrue(expr.evaluate(new Rational(3, 7)).equals(new Rational(6, 7)));
+  }
+  
+  @Test
+  public void testNegateAndDivide() {
+    final RationalExpr x = RationalExpr.parameter(0);
+    final RationalExpr expr = RationalExpr.constant(Rational.ONE).dividedBy(x.negate());
+    
+    assertTrue(expr.evaluate(new Rational(-2, 3)).equals(new Rational(3, 2)));
+  }
+  
+  @Test(expected = ArithmeticException.class)
+  public void testDivisionByZero() {
+    RationalExpr.constant(Rational.ONE).dividedBy(RationalExpr.parameter(0)).evaluate(Rational.ZERO);
+  }
+  
+  @Test(expected = ArithmeticException.class)
+  public void testDivisionByDeferredZero() {
+    final RationalExpr zero = RationalExpr.constant(Rational.ZERO);
+    
+    RationalExpr.parameter(0).dividedBy(RationalExpr.constant(Rational.ONE).dividedBy(zero)).evaluate(Rational.ONE);
+  }
+  
+  @Test(expected = ArithmeticException.class)
+  public void testDivisionByDeferredZeroParameter() {
+    RationalExpr.parameter(0).dividedBy(RationalExpr.constant(Rational.ONE).dividedBy(RationalExpr.parameter(1)))
+      .evaluate(Rational.ONE, Rational.ZERO);
+  }
+  
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingArgument() {
+    RationalExpr.parameter(1).evaluate(Rational.ONE);
+  }
+  
+  @Test
+  public void testParallelEvaluation() {
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    RationalExpr sum = RationalExpr.constant(Rational.ZERO);
+    Rational expected = Rational.ZERO;
+    
+    for (int i = 1; i <= 20; i++) {
+      RationalExpr term = RationalExpr.parameter(0);
+      
+      for (int j = 1; j < 40; j++) {
+        term = term.times(RationalExpr.constant(new Rational(j + i, j + 1)).plus(RationalExpr.parameter(0)));
+      }
+      
+      sum = sum.plus(term.negate());
+    }
+    
+    for (int i = 1; i <= 20; i++) {
+      Rational term = new Rational(1, 2);
+      
+      for (int j = 1; j < 40; j++) {
+        term = term.multiply(new Rational(j + i, j + 1).add(new Rational(1, 2)));
+      }
+      
+      expected = expected.subtract(term);
+    }
+    
+    try {
+      assertTrue(sum.evaluate(pool, new Rational(1, 2)).equals(expected));
+      assertTrue(sum.evaluate(new Rational(1, 2)).equals(expected));
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+
+}
@@ -0,0 +1,102 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestRationalHashMap {
+  
+  @Test
+  public void testEqualValuesAreOneKey() {
+    final RationalHashMap<String> map = new RationalHashMap<String>();
+    
+    map.put(Rational.valueOf("1/2"), "half");
+    
+    assertTrue("half".equals(map.get(Rational.valueOf("2/4"))));
+    assertTrue("half".equals(map.get(Rational.valueOf("0.5"))));
+    assertTrue("half".equals(map.get(-3, -6)));
+    assertTrue("half".equals(map.put(5, 10, "one half")));
+    assertTrue(map.size() == 1);
+    assertTrue(map.get(Rational.valueOf("-1/2")) == null);
+  }
+  
+  @Test
+  public void testBigKeys() {
+    final RationalHashMap<Integer> map = new RationalHashMap<Integer>();
+    final Rational big = new Rational(BigInteger.TEN.pow(30), BigInteger.valueOf(7));
+    
+    map.put(big, 1);
+    map.put(Rational.ZERO, 0);
+    map.put(Long.MIN_VALUE, 3, 2);
+    
+    assertTrue(map.get(new Rational(BigInteger.TEN.pow(30).multiply(BigInteger.valueOf(3)), BigInteger.valueOf(21))) == 1);
+    assertTrue(map.get(0, -5) == 0);
+    assertTrue(map.get(Rational.valueOf(Long.MIN_VALUE).divide(Rational.valueOf(3))) == 2);
+    assertTrue(map.size() == 3);
+    assertTrue(map.remove(big) == 1);
+    assertTrue(map.size() == 2);
+  }
+  
+  @Test
+  public void testAgainstHashMap() {
+    final Random random = new Random(42);
+    final RationalHashMap<Integer> map = new RationalHashMap<Integer>();
+    final Map<String, Integer> expected = new HashMap<String, Integer>();
+    
+    for (int i = 0; i < 20000; i++) {
+      final long n = random.nextInt(100) - 50;
+      final long d = random.nextInt(30) + 1;
+      final String key = Reducer.reduceWholeNumbers(BigInteger.valueOf(n), BigInteger.valueOf(d)).toString();
+      
+      if (random.nextInt(3) == 0) {
+        assertTrue(equal(map.remove(Rational.valueOf(n).divide(Rational.valueOf(d))), expected.remove(key)));
+      }
+      else {
+        assertTrue(equal(map.put(n, d, i), expected.put(key, i)));
+      }
+      
+      assertTrue(map.size() == expected.size());
+    }
+    
+    for (int n = -50; n < 50; n++) {
+      for (int d = 1; d <= 30; d++) {
+        assertTrue(equal(map.get(n, d), expected.get(Reducer.reduceWholeNumbers(BigInteger.valueOf(n), BigInteger.valueOf(d)).toString())));
+      }
+    }
+  }
+  
+  @Test
+  public void testTreeIndexRange() {
+    final RationalTreeIndex<String> index = new RationalTreeIndex<String>();
+    final BigInteger huge = BigInteger.TEN.pow(40);
+    
+    index.put(Rational.valueOf("1/3"), "third");
+    index.put(new Rational(huge.add(BigInteger.ONE), huge.multiply(BigInteger.valueOf(3))), "just above a third");
+    index.put(Rational.valueOf("1/2"), "half");
+    index.put(Rational.valueOf("0.25"), "quarter");
+    index.put(Rational.valueOf("2/6"), "also a third");
+    
+    assertTrue(index.size() == 4);
+    assertTrue("also a third".equals(index.get(Rational.valueOf("1/3"))));
+    
+    final List<Map.Entry<Rational, String>> range = index.range(Rational.valueOf("1/3"), false, Rational.valueOf("1/2"), true);
+    
+    assertTrue(range.size() == 2);
+    assertTrue("just above a third".equals(range.get(0).getValue()));
+    assertTrue("half".equals(range.get(1).getValue()));
+    assertTrue(index.firstKey().toString().equals("1/4"));
+    assertTrue(index.floorKey(Rational.valueOf("0.4")).toString().equals(new Rational(huge.add(BigInteger.ONE), huge.multiply(BigInteger.valueOf(3))).reduce().toString()));
+    assertTrue(index.range(Rational.ONE, true, Rational.ZERO, true).isEmpty());
+  }
+  
+  private static boolean equal(Integer left, Integer right) {
+    return left == null ? right == null : left.equals(right);
+  }
+  
+}
@@ -0,0 +1,223 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import net.sf.javanumbers.RationalLinearProgram.Relation;
+import net.sf.javanumbers.RationalLinearProgram.Solution;
+import net.sf.javanumbers.RationalLinearProgram.Status;
+
+public class TestRationalLinearProgram {
+  
+  @Test
+  public void testMaximize() {
+    final Solution solution = new RationalLinearProgram(TestRationalLinearProgram.values(3, 5))
+      .addConstraint(TestRationalLinearProgram.values(1, 0), Relation.LESS_OR_EQUAL, Rational.valueOf(4))
+      .addConstraint(TestRationalLinearProgram.values(0, 2), Relation.LESS_OR_EQUAL, Rational.valueOf(12))
+      .addConstraint(TestRationalLinearProgram.values(3, 2), Relation.LESS_OR_EQUAL, Rational.valueOf(18))
+      .maximize();
+    
+    assertTrue(solution.status() == Status.OPTIMAL);
+    assertTrue(Rational.compareExactly(solution.value(), Rational.valueOf(36)) == 0);
+    assertTrue(Rational.compareExactly(solution.point()[0], Rational.valueOf(2)) == 0);
+    assertTrue(Rational.compareExactly(solution.point()[1], Rational.valueOf(6)) == 0);
+  }
+  
+  @Test
+  public void testMinimizeWithLowerBoundsAndEqualities() {
+    final Solution solution = new RationalLinearProgram(TestRationalLinearProgram.values(2, 3))
+      .addConstraint(TestRationalLinearProgram.values(1, 1), Relation.GREATER_OR_EQUAL, Rational.valueOf(4))
+      .addConstraint(TestRationalLinearProgram.values(1, 3), Relation.GREATER_OR_EQUAL, Rational.valueOf(6))
+      .minimize();
+    
+    assertTrue(Rational.compareExactly(solution.value(), Rational.valueOf(9)) == 0);
+    
+    final Solution fractional = new RationalLinearProgram(TestRationalLinearProgram.values(1, 1))
+      .addConstraint(new Rational[] { Rational.valueOf(3), Rational.valueOf(2) }, Relation.EQUAL, new Rational(7, 2))
+      .addConstraint(TestRationalLinearProgram.values(1, 0), Relation.LESS_OR_EQUAL, new Rational(1, 3))
+      .addConstraint(TestRationalLinearProgram.values(-1, 0), Relation.LESS_OR_EQUAL, new Rational(-1, 3))
+      .maximize();
+    
+    // x = 1/3 is forced, so y = (7/2 - 1) / 2 = 5/4.
+    assertTrue(Rational.compareExactly(fractional.value(), new Rational(19, 12)) == 0);
+    assertTrue(Rational.compareExactly(fractional.point()[1], new Rational(5, 4)) == 0);
+  }
+  
+  @Test
+  public void testInfeasibleAndUnbounded() {
+    assertTrue(new RationalLinearProgram(TestRationalLinearProgram.values(1))
+      .addConstraint(TestRationalLinearProgram.values(1), Relation.LESS_OR_EQUAL, Rational.ONE)
+      .addConstraint(TestRationalLinearProgram.values(1), Relation.GREATER_OR_EQUAL, Rational.valueOf(2))
+      .maximize().status() == Status.INFEASIBLE);
+    assertTrue(new RationalLinearProgram(TestRationalLinearProgram.values(1, 0))
+      .addConstraint(TestRationalLinearProgram.values(1, -1), Relation.LESS_OR_EQUAL, Rational.ONE)
+      .maximize().status() == Status.UNBOUNDED);
+  }
+  
+  @Test(expected = IllegalStateException.class)
+  public void testNoValueWithoutOptimum() {
+    new RationalLinearProgram(TestRationalLinearProgram.values(1)).maximize().value();
+  }
+  
+  /**
+   * Beale's example, on which the simplex method cycles forever when the entering column is the one of largest reduced cost.
+   */
+  @Test
+  public void testBlandsRuleDoesNotCycle() {
+    final Solution solution = new RationalLinearProgram(new Rational(3, 4), Rational.valueOf(-20), new Rational(1, 2), Rational.valueOf(-6))
+      .addConstraint(new Rational[] { new Rational(1, 4), Rational.valueOf(-8), Rational.valueOf(-1), Rational.valueOf(9) }, Relation.LESS_OR_EQUAL, Rational.ZERO)
+      .addConstraint(new Rational[] { new Rational(1, 2), Rational.valueOf(-12), new Rational(-1, 2), Rational.valueOf(3) }, Relation.LESS_OR_EQUAL, Rational.ZERO)
+      .addConstraint(TestRationalLinearProgram.values(0, 0, 1, 0), Relation.LESS_OR_EQUAL, Rational.ONE)
+      .maximize();
+    
+    assertTrue(Rational.compareExactly(solution.value(), new Rational(5, 4)) == 0);
+  }
+  
+  @Test
+  public void testAgainstVertexEnumeration() {
+    final Random random = new Random(50);
+    
+    for (int trial = 0; trial < 300; trial++) {
+      final int n = 2 + random.nextInt(2);
+      final int m = 2 + random.nextInt(3);
+      final int bits = trial % 3 == 0 ? 40 : 6;
+      final Rational[] c = new Rational[n];
+      final Rational[][] a = new Rational[m][n];
+      final Rational[] b = new Rational[m];
+      
+      for (int j = 0; j < n; j++) {
+        c[j] = TestRationalLinearProgram.random(random, bits, true);
+      }
+      
+      final RationalLinearProgram program = new RationalLinearProgram(c);
+      
+      // Positive rows keep the feasible region bounded; the origin is always feasible.
+      for (int i = 0; i < m; i++) {
+        for (int j = 0; j < n; j++) {
+          a[i][j] = TestRationalLinearProgram.random(random, bits, false);
+        }
+        
+        b[i] = TestRationalLinearProgram.random(random, bits, false);
+        program.addConstraint(a[i], Relation.LESS_OR_EQUAL, b[i]);
+      }
+      
+      final Solution solution = program.maximize();
+      final Rational best = TestRationalLinearProgram.bestVertex(c, a, b);
+      
+      assertTrue(String.valueOf(trial), solution.status() == Status.OPTIMAL);
+      assertTrue(trial + ": " + solution.value() + " " + best, Rational.compareExactly(solution.value(), best) == 0);
+      
+      for (int i = 0; i < m; i++) {
+        assertTrue(String.valueOf(trial), TestRationalLinearProgram.compare(TestRationalLinearProgram.dot(a[i], solution.point()), b[i]) <= 0);
+      }
+      
+      assertTrue(String.valueOf(trial), TestRationalLinearProgram.compare(TestRationalLinearProgram.dot(c, solution.point()), solution.value()) == 0);
+    }
+  }
+  
+  /**
+   * @return the greatest value of c * x over every vertex made by n of the constraints and the bounds x >= 0
+   */
+  private static Rational bestVertex(Rational[] c, Rational[][] a, Rational[] b) {
+    final int n = c.length;
+    final int m = a.length;
+    Rational best = Rational.ZERO;
+    
+    for (int mask = 0; mask < 1 << (m + n); mask++) {
+      if (Integer.bitCount(mask) != n) {
+        continue;
+      }
+      
+      final Rational[][] rows = new Rational[n][];
+      final Rational[] rhs = new Rational[n];
+      int row = 0;
+      
+      for (int k = 0; k < m + n; k++) {
+        if ((mask & (1 << k)) == 0) {
+          continue;
+        }
+        
+        if (k < m) {
+          rows[row] = a[k];
+          rhs[row] = b[k];
+        }
+        else {
+          rows[row] = new Rational[n];
+          
+          for (int j = 0; j < n; j++) {
+            rows[row][j] = j == k - m ? Rational.ONE : Rational.ZERO;
+          }
+          
+          rhs[row] = Rational.ZERO;
+        }
+        
+        row++;
+      }
+      
+      final RationalMatrix matrix = new RationalMatrix(rows);
+      
+      if (matrix.rank() < n) {
+        continue;
+      }
+      
+      final Rational[] x = matrix.solve(rhs);
+      boolean feasible = true;
+      
+      for (int j = 0; j < n && feasible; j++) {
+        feasible = TestRationalLinearProgram.compare(x[j], Rational.ZERO) >= 0;
+      }
+      
+      for (int i = 0; i < m && feasible; i++) {
+        feasible = TestRationalLinearProgram.compare(TestRationalLinearProgram.dot(a[i], x), b[i]) <= 0;
+      }
+      
+      if (feasible && TestRationalLinearProgram.compare(TestRationalLinearProgram.dot(c, x), best) > 0) {
+        best = TestRationalLinearProgram.dot(c, x);
+      }
+    }
+    
+    return best;
+  }
+  
+  private static Rational dot(Rational[] left, Rational[] right) {
+    BigInteger n = BigInteger.ZERO;
+    BigInteger d = BigInteger.ONE;
+    
+    for (int j = 0; j < left.length; j++) {
+      final BigInteger[] l = left[j].integerParts();
+      final BigInteger[] r = right[j].integerParts();
+      final BigInteger termD = l[1].multiply(r[1]);
+      
+      n = n.multiply(termD).add(l[0].multiply(r[0]).multiply(d));
+      d = d.multiply(termD);
+    }
+    
+    return Reducer.reduceWholeNumbers(n, d);
+  }
+  
+  private static int compare(Rational left, Rational right) {
+    return Rational.compareExactly(left, right);
+  }
+  
+  private static Rational random(Random random, int bits, boolean signed) {
+    final BigInteger n = new BigInteger(bits, random).add(BigInteger.ONE);
+    final BigInteger d = new BigInteger(bits, random).add(BigInteger.ONE);
+    
+    return new Rational(signed && random.nextBoolean() ? n.negate() : n, d);
+  }
+  
+  private static Rational[] values(long... values) {
+    final Rational[] rationals = new Rational[values.length];
+    
+    for (int i = 0; i < values.length; i++) {
+      rationals[i] = Rational.valueOf(values[i]);
+    }
+    
+    return rationals;
+  }
+  
+}
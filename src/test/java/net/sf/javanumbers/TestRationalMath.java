@@ -0,0 +1,169 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class TestRationalMath {
+  
+  private static final Rational TOLERANCE = new Rational(BigInteger.ONE, BigInteger.TEN.pow(60));
+  
+  private static final Rational PI = Rational.valueOf(new BigDecimal("3.14159265358979323846264338327950288419716939937510582097494459230781640628620899862803"));
+  private static final Rational E = Rational.valueOf(new BigDecimal("2.71828182845904523536028747135266249775724709369995957496696762772407663035354759457138"));
+  private static final Rational LN_2 = Rational.valueOf(new BigDecimal("0.69314718055994530941723212145817656807550013436025525412068000949339362196969471560586"));
+  
+  @Test
+  public void testConstantsAgainstKnownDigits() {
+    assertTrue(TestRationalMath.within(RationalMath.pi(TOLERANCE), PI, TestRationalMath.product(TOLERANCE, Rational.valueOf(2))));
+    assertTrue(TestRationalMath.within(RationalMath.e(TOLERANCE), E, TestRationalMath.product(TOLERANCE, Rational.valueOf(2))));
+    assertTrue(TestRationalMath.within(RationalMath.log(Rational.valueOf(2), TOLERANCE), LN_2, TestRationalMath.product(TOLERANCE, Rational.valueOf(2))));
+    assertTrue(TestRationalMath.within(RationalMath.exp(Rational.ONE, TOLERANCE), E, TestRationalMath.product(TOLERANCE, Rational.valueOf(2))));
+    assertTrue(TestRationalMath.within(RationalMath.atan(Rational.ONE, TOLERANCE), TestRationalMath.product(PI, new Rational(1, 4)), TestRationalMath.product(TOLERANCE, Rational.valueOf(2))));
+  }
+  
+  @Test
+  public void testLowPrecisionAfterHighPrecision() {
+    RationalMath.pi(new Rational(BigInteger.ONE, BigInteger.TEN.pow(500)));
+    
+    final Rational coarse = new Rational(1, 100);
+    
+    assertTrue(TestRationalMath.within(RationalMath.pi(coarse), PI, coarse));
+    assertTrue(TestRationalMath.within(RationalMath.pi(Rational.valueOf(10)), PI, Rational.valueOf(10)));
+  }
+  
+  @Test
+  public void testAgainstDoubles() {
+    final Rational tolerance = new Rational(BigInteger.ONE, BigInteger.TEN.pow(12));
+    final Rational loose = new Rational(BigInteger.ONE, BigInteger.TEN.pow(9));
+    
+    for (double x : new double[] { -20.5, -3, -1.25, -0.5, 0, 0.1, 0.75, 1, 2.5, 7, 40, 1000.125 }) {
+      final Rational r = TestRationalMath.exactly(x);
+      final String message = String.valueOf(x);
+      
+      assertTrue(message, TestRationalMath.within(RationalMath.sin(r, tolerance), TestRationalMath.exactly(Math.sin(x)), loose));
+      assertTrue(message, TestRationalMath.within(RationalMath.cos(r, tolerance), TestRationalMath.exactly(Math.cos(x)), loose));
+      assertTrue(message, TestRationalMath.within(RationalMath.atan(r, tolerance), TestRationalMath.exactly(Math.atan(x)), loose));
+      
+      if (Math.abs(x) < 30) {
+        final double exp = Math.exp(x);
+        
+        assertTrue(message, TestRationalMath.within(RationalMath.exp(r, tolerance), TestRationalMath.exactly(exp), TestRationalMath.product(loose, Rational.valueOf((long) Math.ceil(Math.max(exp, 1))))));
+      }
+      
+      if (x > 0) {
+        assertTrue(message, TestRationalMath.within(RationalMath.log(r, tolerance), TestRationalMath.exactly(Math.log(x)), loose));
+      }
+    }
+  }
+  
+  @Test
+  public void testIdentities() {
+    for (Rational x : new Rational[] { new Rational(1, 3), new Rational(-22, 7), new Rational(355, 113), new Rational(1, 1000000) }) {
+      final Rational sin = RationalMath.sin(x, TOLERANCE);
+      final Rational cos = RationalMath.cos(x, TOLERANCE);
+      
+      assertTrue(x.toString(), TestRationalMath.within(TestRationalMath.sum(TestRationalMath.product(sin, sin), TestRationalMath.product(cos, cos)), Rational.ONE, TestRationalMath.product(TOLERANCE, Rational.valueOf(5))));
+      assertTrue(x.toString(), TestRationalMath.within(RationalMath.atan(TestRationalMath.quotient(sin, cos), TOLERANCE), TestRationalMath.sum(x, TestRationalMath.product(TestRationalMath.nearestHalfTurn(x), Rational.valueOf(-1))), TestRationalMath.product(TOLERANCE, Rational.valueOf(10))));
+    }
+    
+    for (Rational x : new Rational[] { new Rational(1, 7), new Rational(-5, 2), new Rational(123, 4) }) {
+      final Rational exp = RationalMath.exp(x, TOLERANCE);
+      
+      assertTrue(x.toString(), TestRationalMath.within(RationalMath.log(exp, TOLERANCE), x, TestRationalMath.product(TOLERANCE, Rational.valueOf(3))));
+    }
+  }
+  
+  @Test
+  public void testZeroAndSmallArguments() {
+    assertTrue(Rational.compareExactly(RationalMath.exp(Rational.ZERO, TOLERANCE), Rational.ONE) == 0);
+    assertTrue(Rational.compareExactly(RationalMath.log(Rational.ONE, TOLERANCE), Rational.ZERO) == 0);
+    assertTrue(TestRationalMath.within(RationalMath.sin(Rational.ZERO, TOLERANCE), Rational.ZERO, TOLERANCE));
+    assertTrue(TestRationalMath.within(RationalMath.exp(Rational.valueOf(-200), TOLERANCE), Rational.ZERO, TOLERANCE));
+  }
+  
+  @Test
+  public void testConcurrentConstantRequests() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    final List<Future<Rational>> results = new ArrayList<Future<Rational>>();
+    
+    try {
+      for (int i = 0; i < 16; i++) {
+        final Rational tolerance = new Rational(BigInteger.ONE, BigInteger.TEN.pow(20 + 10 * (i % 5)));
+        
+        results.add(executor.submit(new Callable<Rational>() {
+          @Override
+          public Rational call() {
+            return RationalMath.pi(tolerance);
+          }
+        }));
+      }
+      
+      for (int i = 0; i < results.size(); i++) {
+        final Rational tolerance = new Rational(BigInteger.ONE, BigInteger.TEN.pow(20 + 10 * (i % 5)));
+        
+        assertTrue(TestRationalMath.within(results.get(i).get(), PI, TestRationalMath.sum(tolerance, TOLERANCE)));
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+  
+  @Test(expected = ArithmeticException.class)
+  public void testLogOfZero() {
+    RationalMath.log(Rational.ZERO, TOLERANCE);
+  }
+  
+  @Test(expected = IllegalArgumentException.class)
+  public void testNonPositiveTolerance() {
+    RationalMath.exp(Rational.ONE, Rational.ZERO);
+  }
+  
+  private static Rational nearestHalfTurn(Rational x) {
+    return TestRationalMath.product(PI, Rational.valueOf(Math.round(x.doubleValue() / Math.PI)));
+  }
+  
+  private static Rational exactly(double x) {
+    return Rational.valueOf(new BigDecimal(x));
+  }
+  
+  private static Rational sum(Rational left, Rational right) {
+    final BigInteger[] l = left.integerParts();
+    final BigInteger[] r = right.integerParts();
+    
+    return new Rational(l[0].multiply(r[1]).add(r[0].multiply(l[1])), l[1].multiply(r[1]));
+  }
+  
+  private static Rational product(Rational left, Rational right) {
+    final BigInteger[] l = left.integerParts();
+    final BigInteger[] r = right.integerParts();
+    
+    return new Rational(l[0].multiply(r[0]), l[1].multiply(r[1]));
+  }
+  
+  private static Rational quotient(Rational left, Rational right) {
+    final BigInteger[] l = left.integerParts();
+    final BigInteger[] r = right.integerParts();
+    
+    return new Rational(l[0].multiply(r[1]), l[1].multiply(r[0]));
+  }
+  
+  private static boolean within(Rational actual, Rational expected, Rational tolerance) {
+    final BigInteger[] a = actual.integerParts();
+    final BigInteger[] e = expected.integerParts();
+    final BigInteger[] t = tolerance.integerParts();
+    
+    // |a_n / a_d - e_n / e_d| <= t_n / t_d
+    return a[0].multiply(e[1]).subtract(e[0].multiply(a[1])).abs().multiply(t[1]).compareTo(t[0].multiply(a[1]).multiply(e[1])) <= 0;
+  }
+  
+}
@@ -0,0 +1,108 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestRationalMatrix {
+  
+  @Test
+  public void testDeterminant() {
+    final RationalMatrix m = new RationalMatrix(new Rational[][] {
+      { new Rational(1, 2), new Rational(1, 3) },
+      { new Rational(1, 4), new Rational(1, 5) }
+    });
+    
+    assertTrue(m.determinant().equals(new Rational(1, 60)));
+  }
+  
+  @Test
+  public void testDeterminantWithRowSwap() {
+    final RationalMatrix m = new RationalMatrix(new Rational[][] {
+      { Rational.ZERO, Rational.ONE, Rational.valueOf(2) },
+      { Rational.ONE, Rational.ZERO, Rational.valueOf(3) },
+      { Rational.valueOf(4), Rational.valueOf(-3), Rational.valueOf(8) }
+    });
+    
+    assertTrue(m.determinant().equals(Rational.valueOf(-2)));
+  }
+  
+  @Test
+  public void testHilbertInverse() {
+    final int size = 5;
+    final Rational[][] hilbert = new Rational[size][size];
+    
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        hilbert[i][j] = new Rational(1, i + j + 1);
+      }
+    }
+    
+    final RationalMatrix inverse = new RationalMatrix(hilbert).inverse();
+    
+    assertTrue(inverse.get(0, 0).equals(Rational.valueOf(25)));
+    assertTrue(inverse.get(2, 2).equals(Rational.valueOf(79380)));
+    assertTrue(inverse.get(4, 3).equals(Rational.valueOf(-88200)));
+    assertTrue(new RationalMatrix(hilbert).determinant().equals(new Rational(1, 266716800000L)));
+  }
+  
+  @Test
+  public void testRank() {
+    final RationalMatrix m = new RationalMatrix(new Rational[][] {
+      { Rational.ONE, new Rational(1, 2), Rational.valueOf(2) },
+      { Rational.valueOf(2), Rational.ONE, Rational.valueOf(4) },
+      { Rational.ZERO, Rational.ZERO, new Rational(1, 3) }
+    });
+    
+    assertTrue(m.rank() == 2);
+    assertTrue(m.determinant().equals(Rational.ZERO));
+  }
+  
+  @Test(expected = ArithmeticException.class)
+  public void testSolveSingular() {
+    new RationalMatrix(new Rational[][] { { Rational.ONE, Rational.ONE }, { Rational.ONE, Rational.ONE } }).solve(new Rational[] { Rational.ONE, Rational.ZERO });
+  }
+  
+  @Test(expected = IllegalArgumentException.class)
+  public void testDeterminantNotSquare() {
+    new RationalMatrix(new Rational[][] { { Rational.ONE, Rational.ONE } }).determinant();
+  }
+  
+  @Test
+  public void testSolveLargeSystem() {
+    TestRationalMatrix.assertSolves(60, new Random(31));
+  }
+  
+  /**
+   * A 70 by 70 system is the smallest whose first elimination steps reach the parallel threshold, so its rows are split
+   * between fork/join tasks.
+   */
+  @Test
+  public void testSolveParallelSystem() {
+    TestRationalMatrix.assertSolves(70, new Random(3131));
+  }
+  
+  private static void assertSolves(int size, Random random) {
+    final Rational[][] entries = new Rational[size][size];
+    final Rational[] b = new Rational[size];
+    
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        entries[i][j] = new Rational(random.nextInt(21) - 10, random.nextInt(9) + 1);
+      }
+      
+      b[i] = new Rational(random.nextInt(100), random.nextInt(9) + 1);
+    }
+    
+    final RationalMatrix m = new RationalMatrix(entries);
+    final Rational[] x = m.solve(b);
+    final Rational[] check = m.multiply(x);
+    
+    for (int i = 0; i < size; i++) {
+      assertTrue(check[i].equals(b[i]));
+    }
+  }
+
+}
@@ -0,0 +1,68 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class TestRationalMetrics {
+  
+  @After
+  public void disable() {
+    RationalMetrics.disable();
+    RationalMetrics.reset();
+    RationalMetrics.unregisterMBean();
+  }
+  
+  @Test
+  public void testDisabledCountsNothing() {
+    Rational.valueOf("1/3").add(Rational.valueOf("1/6")).doubleValue();
+    
+    final RationalMetrics.Snapshot snapshot = RationalMetrics.snapshot();
+    
+    for (RationalMetrics.Operation operation : RationalMetrics.Operation.values()) {
+      assertTrue(snapshot.count(operation) == 0);
+    }
+  }
+  
+  @Test
+  public void testCounts() {
+    final Rational third = Rational.valueOf("1/3");
+    
+    RationalMetrics.enable();
+    third.add(Rational.valueOf("1/6")).multiply(Rational.valueOf("2/5")).bigDecimalValue();
+    third.doubleValue();
+    Rational.valueOf("1/4").doubleValue();
+    Rational.valueOf("7/2").ceil();
+    
+    final RationalMetrics.Snapshot snapshot = RationalMetrics.snapshot();
+    
+    assertTrue(snapshot.count(RationalMetrics.Operation.ADD) == 1);
+    assertTrue(snapshot.count(RationalMetrics.Operation.MULTIPLY) >= 1);
+    assertTrue(snapshot.count(RationalMetrics.Operation.CONVERSION) == 3);
+    assertTrue(snapshot.count(RationalMetrics.Operation.REDUCE) > 0);
+    assertTrue(snapshot.count(RationalMetrics.Operation.GCD) > 0);
+    assertTrue(snapshot.fallbacks() == 1);
+    assertTrue(snapshot.fastPaths() > 0);
+    assertTrue(snapshot.bitLengthHistogram(RationalMetrics.Operation.ADD)[RationalMetrics.bucket(3)] == 1);
+  }
+  
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testMBean() throws Exception {
+    final ObjectName name = RationalMetrics.registerMBean();
+    
+    ManagementFactory.getPlatformMBeanServer().setAttribute(name, new javax.management.Attribute("Enabled", true));
+    Rational.valueOf("1/3").add(Rational.valueOf("1/6"));
+    
+    assertTrue(RationalMetrics.isEnabled());
+    assertTrue(RationalMetrics.registerMBean().equals(name));
+    assertTrue(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "OperationCounts") != null);
+    assertTrue(RationalMetrics.snapshot().count(RationalMetrics.Operation.ADD) == 1);
+  }
+  
+}
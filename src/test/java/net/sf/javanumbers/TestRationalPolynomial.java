@@ -0,0 +1,90 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestRationalPolynomial {
+  
+  private static RationalPolynomial polynomial(int... coefficients) {
+    final Rational[] rationals = new Rational[coefficients.length];
+    
+    for (int i = 0; i < coefficients.length; i++) {
+      rationals[i] = Rational.valueOf(coefficients[i]);
+    }
+    
+    return new RationalPolynomial(rationals);
+  }
+  
+  @Test
+  public void testEvaluate() {
+    final RationalPolynomial p = new RationalPolynomial(new Rational(1, 2), new Rational(-2, 3), new Rational(3, 4));
+    final Rational x = new Rational(2, 5);
+    final Rational expected = new Rational(1, 2).add(new Rational(-2, 3).multiply(x)).add(new Rational(3, 4).multiply(x).multiply(x));
+    
+    assertTrue(p.evaluate(x).equals(expected));
+    assertTrue(p.evaluate(Rational.valueOf(2)).equals(new Rational(13, 6)));
+  }
+  
+  @Test
+  public void testEvaluateBatch() {
+    final RationalPolynomial p = new RationalPolynomial(new Rational(1, 3), Rational.ZERO, new Rational(-1, 7), Rational.ONE);
+    final Rational[] xs = new Rational[1000];
+    
+    for (int i = 0; i < xs.length; i++) {
+      xs[i] = new Rational(i - 500, 17);
+    }
+    
+    final Rational[] values = p.evaluate(xs);
+    
+    for (int i = 0; i < xs.length; i++) {
+      assertTrue(values[i].equals(p.evaluate(xs[i])));
+    }
+  }
+  
+  @Test
+  public void testAddAndMultiply() {
+    final RationalPolynomial p = polynomial(1, 1);
+    final RationalPolynomial q = polynomial(-1, 1);
+    
+    assertTrue(p.multiply(q).equals(polynomial(-1, 0, 1)));
+    assertTrue(p.add(q).equals(polynomial(0, 2)));
+    assertTrue(p.subtract(p).equals(RationalPolynomial.ZERO));
+    assertTrue(p.subtract(p).degree() == -1);
+  }
+  
+  @Test
+  public void testDivideAndRemainder() {
+    final RationalPolynomial a = new RationalPolynomial(Rational.valueOf(5), new Rational(1, 2), Rational.ZERO, Rational.valueOf(3));
+    final RationalPolynomial b = new RationalPolynomial(Rational.ONE, Rational.valueOf(2), new Rational(2, 3));
+    final RationalPolynomial[] qr = a.divideAndRemainder(b);
+    
+    assertTrue(qr[1].degree() < b.degree());
+    assertTrue(qr[0].multiply(b).add(qr[1]).equals(a));
+  }
+  
+  @Test
+  public void testDerivative() {
+    final RationalPolynomial p = new RationalPolynomial(Rational.ONE, new Rational(1, 2), new Rational(1, 3), new Rational(1, 4));
+    
+    assertTrue(p.derivative().equals(new RationalPolynomial(new Rational(1, 2), new Rational(2, 3), new Rational(3, 4))));
+  }
+  
+  @Test
+  public void testGcd() {
+    final RationalPolynomial common = new RationalPolynomial(new Rational(-1, 2), Rational.ONE);
+    final RationalPolynomial a = common.multiply(polynomial(3, 0, 2));
+    final RationalPolynomial b = common.multiply(polynomial(1, 5)).multiply(polynomial(-7, 1));
+    
+    assertTrue(a.gcd(b).equals(common));
+    assertTrue(a.gcd(RationalPolynomial.ZERO).equals(a.multiply(new RationalPolynomial(new Rational(1, 2)))));
+  }
+  
+  @Test
+  public void testToString() {
+    final RationalPolynomial p = new RationalPolynomial(Rational.valueOf(-1), Rational.ONE, Rational.ZERO, new Rational(1, 2));
+    
+    assertTrue(p.toString(), p.toString().equals("1/2*x^3 + x - 1"));
+  }
+
+}
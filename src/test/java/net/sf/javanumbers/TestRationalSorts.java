@@ -0,0 +1,102 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestRationalSorts {
+  
+  private static final Comparator<Rational> EXACT = new Comparator<Rational>() {
+    @Override
+    public int compare(Rational left, Rational right) {
+      return Rational.compareExactly(left, right);
+    }
+  };
+  
+  @Test
+  public void testSort() {
+    final Rational[] values = generateValues(2000, 41);
+    final Rational[] expected = values.clone();
+    
+    Arrays.sort(expected, EXACT);
+    RationalSorts.sort(values);
+    
+    assertSameOrder(values, expected);
+  }
+  
+  @Test
+  public void testParallelSort() {
+    final Rational[] values = generateValues(40000, 42);
+    final Rational[] expected = values.clone();
+    
+    Arrays.sort(expected, EXACT);
+    RationalSorts.parallelSort(values);
+    
+    assertSameOrder(values, expected);
+  }
+  
+  @Test
+  public void testSelectAndMedian() {
+    final Rational[] values = generateValues(1001, 43);
+    final Rational[] sorted = values.clone();
+    
+    Arrays.sort(sorted, EXACT);
+    
+    for (int k : new int[] { 0, 17, 500, 999, 1000 }) {
+      assertTrue(Rational.compareExactly(RationalSorts.select(values.clone(), k), sorted[k]) == 0);
+    }
+    
+    assertTrue(Rational.compareExactly(RationalSorts.median(values.clone()), sorted[500]) == 0);
+    
+    final Rational[] even = Arrays.copyOf(values, 1000);
+    final Rational[] sortedEven = even.clone();
+    
+    Arrays.sort(sortedEven, EXACT);
+    
+    final Rational mean = sortedEven[499].add(sortedEven[500]).divide(Rational.valueOf(2));
+    
+    assertTrue(Rational.compareExactly(RationalSorts.median(even), mean) == 0);
+  }
+  
+  @Test
+  public void testToDouble() {
+    assertTrue(RationalSorts.toDouble(BigInteger.ONE, BigInteger.valueOf(3)) == 1.0 / 3);
+    assertTrue(RationalSorts.toDouble(BigInteger.ONE.shiftLeft(200).negate(), BigInteger.ONE.shiftLeft(100).multiply(BigInteger.valueOf(3))) == -Math.scalb(1.0 / 3, 100));
+    assertTrue(RationalSorts.toDouble(BigInteger.ONE.shiftLeft(2000), BigInteger.ONE) == Double.POSITIVE_INFINITY);
+  }
+  
+  private static void assertSameOrder(Rational[] actual, Rational[] expected) {
+    for (int i = 0; i < actual.length; i++) {
+      assertTrue(String.valueOf(i), Rational.compareExactly(actual[i], expected[i]) == 0);
+    }
+  }
+  
+  /**
+   * Generates small fractions, some of them equal, and pairs of values too close together to tell apart as doubles.
+   */
+  private static Rational[] generateValues(int count, long seed) {
+    final Random random = new Random(seed);
+    final Rational[] values = new Rational[count];
+    final BigInteger huge = BigInteger.TEN.pow(40);
+    
+    for (int i = 0; i < count; i++) {
+      final long n = random.nextInt(200) - 100;
+      final long d = random.nextInt(50) + 1;
+      
+      if (i % 5 == 0) {
+        values[i] = Reducer.reduceWholeNumbers(BigInteger.valueOf(n).multiply(huge).add(BigInteger.valueOf(random.nextInt(3))), BigInteger.valueOf(d).multiply(huge));
+      }
+      else {
+        values[i] = Rational.valueOf(n).divide(Rational.valueOf(d));
+      }
+    }
+    
+    return values;
+  }
+  
+}
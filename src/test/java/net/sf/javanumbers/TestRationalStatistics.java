@@ -0,0 +1,119 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestRationalStatistics {
+  
+  @Test
+  public void testSmallValues() {
+    final RationalStatistics statistics = new RationalStatistics();
+    
+    for (String value : new String[] { "1/2", "1/3", "0.25", "-1/6" }) {
+      statistics.accept(Rational.valueOf(value));
+    }
+    
+    assertTrue(statistics.count() == 4);
+    assertTrue(statistics.sum().toString().equals("11/12"));
+    assertTrue(statistics.mean().toString().equals("11/48"));
+    assertTrue(statistics.variance().toString().equals("139/2304"));
+    assertTrue(statistics.sampleVariance().toString().equals("139/1728"));
+    assertTrue(statistics.min().toString().equals("-1/6"));
+    assertTrue(statistics.max().toString().equals("1/2"));
+  }
+  
+  @Test
+  public void testOverflowAndCombine() {
+    final Random random = new Random(43);
+    final RationalStatistics all = new RationalStatistics();
+    final RationalStatistics left = new RationalStatistics();
+    final RationalStatistics right = new RationalStatistics();
+    Rational sum = Rational.ZERO;
+    Rational squares = Rational.ZERO;
+    
+    for (int i = 0; i < 200; i++) {
+      final Rational value = new Rational(BigInteger.valueOf(random.nextInt(2000000) - 1000000), BigInteger.valueOf(random.nextInt(97) + 1));
+      
+      all.accept(value);
+      (i % 2 == 0 ? left : right).accept(value);
+      sum = sum.add(value);
+      squares = squares.add(value.multiply(value));
+    }
+    
+    left.combine(right);
+    
+    final Rational count = Rational.valueOf(200);
+    final Rational mean = sum.divide(count);
+    final Rational variance = squares.divide(count).subtract(mean.multiply(mean));
+    
+    for (RationalStatistics statistics : Arrays.asList(all, left)) {
+      assertTrue(statistics.count() == 200);
+      assertTrue(Rational.compareExactly(statistics.sum(), sum) == 0);
+      assertTrue(Rational.compareExactly(statistics.mean(), mean) == 0);
+      assertTrue(Rational.compareExactly(statistics.variance(), variance) == 0);
+    }
+    
+    assertTrue(Rational.compareExactly(all.min(), left.min()) == 0);
+    assertTrue(Rational.compareExactly(all.max(), left.max()) == 0);
+  }
+  
+  @Test
+  public void testParallelCollect() {
+    final List<Rational> values = Arrays.asList(Rational.valueOf("1/3"), Rational.valueOf("2/3"), Rational.valueOf("1"), Rational.valueOf("4/3"));
+    final RationalStatistics statistics = values.parallelStream().collect(
+      RationalStatistics::new, RationalStatistics::accept, RationalStatistics::combine);
+    
+    assertTrue(statistics.mean().toString().equals("5/6"));
+  }
+  
+  @Test
+  public void testParallelCollectStaysFast() {
+    final Random random = new Random(43);
+    final List<Rational> values = new ArrayList<Rational>();
+    Rational sum = Rational.ZERO;
+    
+    for (int i = 0; i < 10000; i++) {
+      final Rational value = new Rational(BigInteger.valueOf(random.nextInt(201) - 100), BigInteger.valueOf(random.nextInt(12) + 1));
+      
+      values.add(value);
+      sum = sum.add(value);
+    }
+    
+    final RationalStatistics statistics = values.parallelStream().collect(
+      RationalStatistics::new, RationalStatistics::accept, RationalStatistics::combine);
+    
+    assertTrue(statistics.isFast());
+    assertTrue(statistics.count() == 10000);
+    assertTrue(Rational.compareExactly(statistics.sum(), sum) == 0);
+  }
+  
+  @Test
+  public void testCombineOverflowPromotes() {
+    final RationalStatistics left = new RationalStatistics();
+    final RationalStatistics right = new RationalStatistics();
+    
+    left.accept(new Rational(BigInteger.valueOf(2000000000L), BigInteger.ONE));
+    right.accept(new Rational(BigInteger.valueOf(-3000000000L), BigInteger.ONE));
+    
+    assertTrue(left.isFast() && right.isFast());
+    
+    left.combine(right);
+    
+    assertTrue(!left.isFast());
+    assertTrue(Rational.compareExactly(left.sum(), new Rational(BigInteger.valueOf(-1000000000L), BigInteger.ONE)) == 0);
+    assertTrue(Rational.compareExactly(left.variance(), new Rational(BigInteger.valueOf(6250000000000000000L), BigInteger.ONE)) == 0);
+  }
+  
+  @Test(expected = ArithmeticException.class)
+  public void testEmptyMean() {
+    new RationalStatistics().mean();
+  }
+  
+}
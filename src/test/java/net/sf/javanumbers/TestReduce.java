@@ -49,4 +49,13 @@ public class TestReduce {
     assertTrue(r.reduce().toString().equals("2/21"));
   }
   
+  @Test
+  public void testReduceIsRemembered() {
+    final Rational r = new Rational(6, 63);
+    final Rational reducedR = r.reduce();
+    
+    assertTrue(r.reduce() == reducedR);
+    assertTrue(reducedR.reduce() == reducedR);
+  }
+  
 }
@@ -3,7 +3,6 @@ package net.sf.javanumbers;
 import static org.junit.Assert.assertTrue;
 
 import java.math.BigDecimal;
-import java.util.Calendar;
 import java.util.HashSet;
 import java.util.Random;
 import java.util.Set;
@@ -20,7 +19,7 @@ import net.sf.javanumbers.java.BigDecimalFactory;
 public class TestReducer {
   
   private static final int LOAD_TEST_DECIMAL_VALUE_LENGTH = 10;
-  private static final long BENCHMARK_TIME_10_000_DECIMALS = 15; // That's 15 milliseconds
+  private static final long RANDOM_DECIMALS_SEED = 10000; // One generator for all decimals, so they are not repeats
   
   @Test
   public void testReduceFloatingPointValue() {
@@ -30,19 +29,21 @@ public class TestReducer {
     assertTrue(r != null && Rational.compareValues(r, new Rational(1, 8)));
   }
   
+  /**
+   * Reduces many decimals and checks each result exactly. How much this allocates is held to a budget by
+   * {@link TestAllocationBudget}, which unlike a time limit does not depend on the machine running the tests.
+   */
   @Test
   public void loadTestReducer10_000Decimals() {
     final Set<BigDecimal> randomDecimals = generateRandomDecimals(10000);
-    final long startTime = Calendar.getInstance().getTimeInMillis();
+    
+    assertTrue("Too few distinct decimals: " + randomDecimals.size(), randomDecimals.size() > 9900);
     
     for (BigDecimal decimal : randomDecimals) {
-      Reducer.reduceFloatingPointValue(decimal);
+      final Rational r = Reducer.reduceFloatingPointValue(decimal);
+      
+      assertTrue(decimal.toString(), Rational.compareExactly(r, Rational.valueOf(decimal)) == 0);
     }
-    
-    final long endTime = Calendar.getInstance().getTimeInMillis();
-    final long totalTime = (endTime - startTime);
-    
-    assertTrue(String.format("Total time took longer than benchmark of %s: %s", BENCHMARK_TIME_10_000_DECIMALS, totalTime), totalTime <= BENCHMARK_TIME_10_000_DECIMALS);
   }
   
   private static Set<BigDecimal> generateRandomDecimals(final int numberOfDecimals) throws IllegalArgumentException {
@@ -52,10 +53,10 @@ public class TestReducer {
     
     final char[] digits = "0123456789".toCharArray();
     final Set<BigDecimal> randomDecimals = new HashSet<BigDecimal>();
+    final Random r = new Random(RANDOM_DECIMALS_SEED);
     
     for (int x = 0; x < numberOfDecimals; x++) {
       final StringBuilder sb = new StringBuilder("0.");
-      final Random r = new Random(Calendar.getInstance().getTimeInMillis());
       
       for (int position = 0; position < LOAD_TEST_DECIMAL_VALUE_LENGTH; position++) {
         sb.append(digits[r.nextInt(10)]);
@@ -0,0 +1,80 @@
+package net.sf.javanumbers;
+
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+import org.junit.Test;
+
+public class TestRound {
+  
+  @Test
+  public void testFloorAndCeil() {
+    final Rational r1 = new Rational(7, 2);
+    final Rational r2 = new Rational(-7, 2);
+    
+    assertTrue(r1.floor().equals(BigInteger.valueOf(3)));
+    assertTrue(r1.ceil().equals(BigInteger.valueOf(4)));
+    assertTrue(r2.floor().equals(BigInteger.valueOf(-4)));
+    assertTrue(r2.ceil().equals(BigInteger.valueOf(-3)));
+  }
+  
+  @Test
+  public void testFloorOfWhole() {
+    assertTrue(new Rational(-6, 3).floor().equals(BigInteger.valueOf(-2)));
+  }
+  
+  @Test
+  public void testRoundAgreesWithBigDecimal() {
+    final BigInteger huge = BigInteger.TEN.pow(40);
+    
+    for (RoundingMode mode : RoundingMode.values()) {
+      if (mode == RoundingMode.UNNECESSARY) {
+        continue;
+      }
+      
+      for (int n = -25; n <= 25; n++) {
+        final BigDecimal expected = new BigDecimal(n).divide(BigDecimal.TEN).setScale(0, mode);
+        final BigInteger small = new Rational(n, 10).round(mode);
+        final BigInteger big = new Rational(huge.multiply(BigInteger.valueOf(n)), huge.multiply(BigInteger.TEN)).round(mode);
+        
+        assertTrue(mode + " " + n + "/10: " + small, small.equals(expected.toBigIntegerExact()));
+        assertTrue(mode + " " + n + "/10: " + big, big.equals(expected.toBigIntegerExact()));
+      }
+    }
+  }
+  
+  @Test(expected = ArithmeticException.class)
+  public void testRoundUnnecessary() {
+    new Rational(1, 3).round(RoundingMode.UNNECESSARY);
+  }
+  
+  @Test
+  public void testFractionalPart() {
+    assertTrue(new Rational(7, 3).fractionalPart().equals(new Rational(1, 3)));
+    assertTrue(new Rational(-7, 3).fractionalPart().equals(new Rational(2, 3)));
+    assertTrue(Rational.valueOf(2.25).fractionalPart().equals(new Rational(1, 4)));
+  }
+  
+  @Test
+  public void testDivideAndRemainder() {
+    final Rational[] qr = new Rational(-7, 2).divideAndRemainder(new Rational(3, 4));
+    
+    assertTrue(qr[0].equals(Rational.valueOf(-4)));
+    assertTrue(qr[1].equals(new Rational(-1, 2)));
+  }
+  
+  @Test
+  public void testMod() {
+    assertTrue(new Rational(-7, 2).mod(new Rational(3, 4)).equals(new Rational(1, 4)));
+    assertTrue(Rational.valueOf(10.5).mod(Rational.valueOf(0.25)).equals(Rational.ZERO));
+  }
+  
+  @Test(expected = ArithmeticException.class)
+  public void testModNonPositive() {
+    Rational.ONE.mod(new Rational(-1, 2));
+  }
+
+}